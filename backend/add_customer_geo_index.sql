@@ -0,0 +1,10 @@
+-- 고객 위치 바운딩 박스 조회용 복합 인덱스
+-- CustomerRepository 의 반경 조회는 먼저 lat/lng 범위로 후보를 좁힌 뒤 정확한 거리를 계산한다.
+-- PostgreSQL 과 H2 모두 동일한 구문으로 실행된다. (h2 프로파일은 엔티티 @Index 로 자동 생성)
+
+CREATE INDEX IF NOT EXISTS idx_customers_lat_lng ON customers (lat, lng);
+
+-- 실행 계획 확인 (PostgreSQL)
+-- EXPLAIN ANALYZE
+-- SELECT COUNT(*) FROM customers c
+-- WHERE c.lat BETWEEN 37.473 AND 37.527 AND c.lng BETWEEN 126.993 AND 127.061;
@@ -0,0 +1,13 @@
+-- 발송 목록 keyset 페이지 조회용 복합 인덱스
+-- /api/deliveries/campaign/{id}/page, /status/{status}/page 는 (created_at, id) 내림차순으로
+-- 커서 이후 size 건만 읽는다. 인덱스를 역방향으로 스캔하므로 페이지 깊이와 무관하게 비용이 같다.
+-- PostgreSQL 과 H2 모두 동일한 구문으로 실행된다. (h2 프로파일은 엔티티 @Index 로 자동 생성)
+
+CREATE INDEX IF NOT EXISTS idx_deliveries_campaign_created_id ON deliveries (campaign_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_deliveries_status_created_id ON deliveries (status, created_at, id);
+
+-- 실행 계획 확인 (PostgreSQL)
+-- EXPLAIN ANALYZE
+-- SELECT * FROM deliveries d
+-- WHERE d.campaign_id = '...' AND (d.created_at, d.id) < ('2025-01-01 12:00:00', '...')
+-- ORDER BY d.created_at DESC, d.id DESC LIMIT 51;
@@ -0,0 +1,20 @@
+-- 발송 대기열(transactional outbox) 테이블
+-- 캠페인 발송 시작 시 대상 고객마다 한 행을 넣고, 발송 결과(deliveries)가 저장되는 트랜잭션에서 삭제한다.
+-- 디스패처는 SELECT ... FOR UPDATE SKIP LOCKED 로 행을 잠가 가져가며(status = CLAIMED, lease_until 설정),
+-- lease 가 지난 CLAIMED 행은 다른 노드나 재시작한 노드가 다시 가져간다.
+
+CREATE TABLE IF NOT EXISTS delivery_outbox (
+    id UUID PRIMARY KEY,
+    job_id UUID,
+    campaign_id UUID NOT NULL,
+    customer_id UUID NOT NULL,
+    company_id UUID,
+    status VARCHAR(16) NOT NULL,
+    claimed_by VARCHAR(100),
+    lease_until TIMESTAMP,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_delivery_outbox_status_created ON delivery_outbox (status, created_at);
+CREATE INDEX IF NOT EXISTS idx_delivery_outbox_job ON delivery_outbox (job_id);
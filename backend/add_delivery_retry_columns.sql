@@ -0,0 +1,10 @@
+-- 실패 발송 자동 재시도 컬럼
+-- retry_count: 지금까지 재시도한 횟수, next_retry_at: 다음 재시도 예정 시각 (재시도하지 않으면 NULL)
+-- 재시도 중인 행은 next_retry_at 을 lease 시각으로 미뤄 선점하므로, 노드가 중간에 종료돼도 lease 가 지나면 다시 재시도된다.
+
+ALTER TABLE deliveries ADD COLUMN IF NOT EXISTS retry_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE deliveries ADD COLUMN IF NOT EXISTS next_retry_at TIMESTAMP;
+
+-- 재시도 대기 중인 행만 인덱싱
+DROP INDEX IF EXISTS idx_deliveries_next_retry_at;
+CREATE INDEX idx_deliveries_next_retry_at ON deliveries (next_retry_at) WHERE next_retry_at IS NOT NULL;
@@ -0,0 +1,7 @@
+-- 최근 N건 조회용 created_at 인덱스
+-- DeliveryService.getRecentDeliveries (최근 20건), CampaignService.getRecentCampaigns (최근 10건) 는
+-- ORDER BY created_at DESC LIMIT N 으로 조회하며 인덱스 역방향 스캔으로 N 건만 읽는다.
+-- PostgreSQL 과 H2 모두 동일한 구문으로 실행된다. (h2 프로파일은 엔티티 @Index 로 자동 생성)
+
+CREATE INDEX IF NOT EXISTS idx_deliveries_created_at ON deliveries (created_at);
+CREATE INDEX IF NOT EXISTS idx_campaigns_created_at ON campaigns (created_at);
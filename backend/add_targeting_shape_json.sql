@@ -0,0 +1,6 @@
+-- 조합 타겟팅 도형 컬럼 추가
+-- 여러 원/다각형의 합집합(union)/교집합(intersection)/차집합(difference)을 JSON 으로 저장한다.
+-- 값이 있으면 발송 대상은 center_lat/center_lng/radius_m 대신 이 도형으로 계산하며,
+-- center/radius 는 도형을 감싸는 원으로 채워져 목록/지도 표시용으로만 쓰인다.
+
+ALTER TABLE targeting_locations ADD COLUMN IF NOT EXISTS shape_json TEXT;
@@ -3,6 +3,8 @@ package com.example.demo.controller;
 import com.example.demo.entity.Campaign;
 import com.example.demo.entity.Company;
 import com.example.demo.entity.TargetingLocation;
+import com.example.demo.service.CampaignSendJob;
+import com.example.demo.service.CampaignSendJobService;
 import com.example.demo.service.CampaignService;
 import com.example.demo.service.CompanyService;
 import com.example.demo.service.TargetingLocationService;
@@ -38,6 +40,9 @@ public class CampaignController {
     
     @Autowired
     private DeliveryService deliveryService;
+    
+    @Autowired
+    private CampaignSendJobService campaignSendJobService;
 
     // 1) 캠페인 생성
     @PostMapping
@@ -251,15 +256,15 @@ public class CampaignController {
         }
     }
     
-    // 12) 캠페인 발송 시뮬레이션
+    // 12) 캠페인 발송 시뮬레이션 (비동기 작업, 진행 상황은 /api/send-jobs/{jobId} 로 조회)
     @PostMapping("/{id}/send")
     public ResponseEntity<?> sendCampaign(@PathVariable UUID id) {
         try {
-            Map<String, Object> result = deliveryService.simulateCampaignDelivery(id);
-            return ResponseEntity.ok(Map.of(
+            CampaignSendJob job = campaignSendJobService.startJob(id);
+            return ResponseEntity.status(ACCEPTED).body(Map.of(
                 "success", true,
-                "message", "캠페인 발송이 완료되었습니다.",
-                "data", result
+                "message", "캠페인 발송 작업이 시작되었습니다.",
+                "data", job.toMap()
             ));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of(
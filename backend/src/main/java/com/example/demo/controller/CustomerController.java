@@ -1,13 +1,21 @@
 package com.example.demo.controller;
 
 import com.example.demo.entity.Customer;
+import com.example.demo.service.CustomerExportService;
+import com.example.demo.service.CustomerImportJob;
+import com.example.demo.service.CustomerImportService;
 import com.example.demo.service.CustomerService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,6 +29,12 @@ public class CustomerController {
     @Autowired
     private CustomerService customerService;
     
+    @Autowired
+    private CustomerImportService customerImportService;
+    
+    @Autowired
+    private CustomerExportService customerExportService;
+    
     /**
      * 전체 고객 조회
      */
@@ -40,6 +54,29 @@ public class CustomerController {
         }
     }
     
+    /**
+     * 전체 고객 NDJSON 내보내기 (한 줄에 고객 하나, 응답 스트림에 바로 기록)
+     */
+    @GetMapping("/export/ndjson")
+    public ResponseEntity<StreamingResponseBody> exportCustomersNdjson() {
+        StreamingResponseBody body = customerExportService::writeNdjson;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
+    /**
+     * 전체 고객 CSV 내보내기 (일괄 등록과 같은 헤더, 응답 스트림에 바로 기록)
+     */
+    @GetMapping("/export/csv")
+    public ResponseEntity<StreamingResponseBody> exportCustomersCsv() {
+        StreamingResponseBody body = customerExportService::writeCsv;
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"customers.csv\"")
+                .body(body);
+    }
+    
     /**
      * 페이지별 고객 조회
      */
@@ -199,6 +236,53 @@ public class CustomerController {
         }
     }
     
+    /**
+     * 고객 CSV 일괄 등록 (작업 ID 즉시 반환)
+     */
+    @PostMapping(value = "/import", consumes = "multipart/form-data")
+    public ResponseEntity<?> importCustomers(@RequestParam("file") MultipartFile file) {
+        try {
+            CustomerImportJob job = customerImportService.startImport(file);
+            return ResponseEntity.accepted().body(Map.of(
+                "success", true,
+                "message", "고객 일괄 등록이 시작되었습니다.",
+                "data", job.toMap()
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", "고객 일괄 등록 시작 중 오류가 발생했습니다: " + e.getMessage()
+            ));
+        }
+    }
+    
+    /**
+     * 고객 CSV 등록 작업 목록 조회
+     */
+    @GetMapping("/import")
+    public ResponseEntity<?> getImportJobs() {
+        List<Map<String, Object>> jobs = customerImportService.getJobs().stream()
+                .map(CustomerImportJob::toMap)
+                .toList();
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "data", jobs
+        ));
+    }
+    
+    /**
+     * 고객 CSV 등록 진행 상황 조회 (진행률, 등록/중복/오류 건수, 행 오류 목록)
+     */
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<?> getImportJob(@PathVariable UUID jobId) {
+        return customerImportService.getJob(jobId)
+                .map(job -> ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "data", job.toMap()
+                )))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
     /**
      * 고객 정보 수정
      */
@@ -2,8 +2,10 @@ package com.example.demo.controller;
 
 import com.example.demo.entity.Delivery;
 import com.example.demo.entity.Delivery.DeliveryStatus;
+import com.example.demo.service.CampaignSendJobService;
 import com.example.demo.service.DeliveryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -24,14 +26,17 @@ public class DeliveryController {
     @Autowired
     private DeliveryService deliveryService;
     
+    @Autowired
+    private CampaignSendJobService campaignSendJobService;
+    
     /**
-     * 캠페인 발송 시뮬레이션
+     * 캠페인 발송 시뮬레이션 (비동기 작업으로 시작하고 작업 정보를 즉시 반환)
      */
     @PostMapping("/simulate/{campaignId}")
     public ResponseEntity<Map<String, Object>> simulateCampaignDelivery(@PathVariable UUID campaignId) {
         try {
-            Map<String, Object> result = deliveryService.simulateCampaignDelivery(campaignId);
-            return ResponseEntity.ok(result);
+            Map<String, Object> result = campaignSendJobService.startJob(campaignId).toMap();
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(result);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -56,6 +61,39 @@ public class DeliveryController {
         }
     }
     
+    /**
+     * 발송 결과 저장 버퍼 상태 조회
+     */
+    @GetMapping("/write-buffer/stats")
+    public ResponseEntity<?> getWriteBufferStats() {
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "data", deliveryService.getWriteBufferStats()
+        ));
+    }
+    
+    /**
+     * 발송 게이트웨이 배치 제출 현황 조회
+     */
+    @GetMapping("/gateway/stats")
+    public ResponseEntity<?> getGatewayStats() {
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "data", deliveryService.getGatewayStats()
+        ));
+    }
+    
+    /**
+     * 실패 발송 자동 재시도 현황 조회
+     */
+    @GetMapping("/retry/stats")
+    public ResponseEntity<?> getRetryStats() {
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "data", deliveryService.getRetryStats()
+        ));
+    }
+    
     /**
      * 최근 발송 내역 조회
      */
@@ -114,12 +152,16 @@ public class DeliveryController {
     }
     
     /**
-     * 캠페인별 발송 목록 조회
+     * 캠페인별 발송 목록 조회 (최신순 최대 limit 건)
+     *
+     * @deprecated 전체 목록이 아니라 첫 페이지만 돌려준다. 이후 건은 /campaign/{campaignId}/page 를 사용한다.
      */
+    @Deprecated
     @GetMapping("/campaign/{campaignId}")
-    public ResponseEntity<List<Delivery>> getDeliveriesByCampaign(@PathVariable UUID campaignId) {
+    public ResponseEntity<List<Delivery>> getDeliveriesByCampaign(@PathVariable UUID campaignId,
+                                                                  @RequestParam(defaultValue = "50") int limit) {
         try {
-            List<Delivery> deliveries = deliveryService.getDeliveriesByCampaign(campaignId);
+            List<Delivery> deliveries = deliveryService.getDeliveriesByCampaign(campaignId, limit);
             return ResponseEntity.ok(deliveries);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -127,13 +169,37 @@ public class DeliveryController {
     }
     
     /**
-     * 상태별 발송 목록 조회
+     * 캠페인별 발송 목록 페이지 조회 (cursor: 이전 응답의 nextCursor, 생략 시 첫 페이지)
+     */
+    @GetMapping("/campaign/{campaignId}/page")
+    public ResponseEntity<?> getDeliveryPageByCampaign(@PathVariable UUID campaignId,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "data", deliveryService.getDeliveryPageByCampaign(campaignId, cursor, size)
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", "발송 목록 조회 중 오류가 발생했습니다: " + e.getMessage()
+            ));
+        }
+    }
+    
+    /**
+     * 상태별 발송 목록 조회 (최신순 최대 limit 건)
+     *
+     * @deprecated 전체 목록이 아니라 첫 페이지만 돌려준다. 이후 건은 /status/{status}/page 를 사용한다.
      */
+    @Deprecated
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Delivery>> getDeliveriesByStatus(@PathVariable String status) {
+    public ResponseEntity<List<Delivery>> getDeliveriesByStatus(@PathVariable String status,
+                                                                @RequestParam(defaultValue = "50") int limit) {
         try {
             DeliveryStatus deliveryStatus = DeliveryStatus.valueOf(status.toUpperCase());
-            List<Delivery> deliveries = deliveryService.getDeliveriesByStatus(deliveryStatus);
+            List<Delivery> deliveries = deliveryService.getDeliveriesByStatus(deliveryStatus, limit);
             return ResponseEntity.ok(deliveries);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -141,12 +207,55 @@ public class DeliveryController {
     }
     
     /**
-     * 모든 발송 목록 조회
+     * 상태별 발송 목록 페이지 조회 (cursor: 이전 응답의 nextCursor, 생략 시 첫 페이지)
+     */
+    @GetMapping("/status/{status}/page")
+    public ResponseEntity<?> getDeliveryPageByStatus(@PathVariable String status,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "50") int size) {
+        try {
+            DeliveryStatus deliveryStatus = DeliveryStatus.valueOf(status.toUpperCase());
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "data", deliveryService.getDeliveryPageByStatus(deliveryStatus, cursor, size)
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", "발송 목록 조회 중 오류가 발생했습니다: " + e.getMessage()
+            ));
+        }
+    }
+    
+    /**
+     * 발송 목록 페이지 조회 (GET /api/deliveries 와 같이 SENT 상태 대상, cursor 기반)
+     */
+    @GetMapping("/page")
+    public ResponseEntity<?> getDeliveryPage(@RequestParam(required = false) String cursor,
+                                             @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "data", deliveryService.getDeliveryPageByStatus(DeliveryStatus.SENT, cursor, size)
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", "발송 목록 조회 중 오류가 발생했습니다: " + e.getMessage()
+            ));
+        }
+    }
+    
+    /**
+     * 발송 목록 조회 (SENT 상태 최신순 최대 limit 건)
+     *
+     * @deprecated 전체 목록이 아니라 첫 페이지만 돌려준다. 이후 건은 /page 를 사용한다.
      */
+    @Deprecated
     @GetMapping
-    public ResponseEntity<List<Delivery>> getAllDeliveries() {
+    public ResponseEntity<List<Delivery>> getAllDeliveries(@RequestParam(defaultValue = "50") int limit) {
         try {
-            List<Delivery> deliveries = deliveryService.getDeliveriesByStatus(DeliveryStatus.SENT);
+            List<Delivery> deliveries = deliveryService.getDeliveriesByStatus(DeliveryStatus.SENT, limit);
             return ResponseEntity.ok(deliveries);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
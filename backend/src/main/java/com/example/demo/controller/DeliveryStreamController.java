@@ -1,14 +1,22 @@
 package com.example.demo.controller;
 
+import com.example.demo.service.DeliveryStreamFilter;
 import com.example.demo.service.DeliveryStreamService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
 @RestController
 @RequestMapping("/api/deliveries")
 @CrossOrigin(origins = "*")
@@ -17,10 +25,49 @@ public class DeliveryStreamController {
     @Autowired
     private DeliveryStreamService deliveryStreamService;
 
+    /**
+     * 발송 이벤트 스트림 구독
+     *
+     * overflow: drop_oldest | drop_newest | disconnect
+     * mode: event (기본, 이벤트마다 "delivery") | batch (windowMs/maxBatch 단위로 묶어 "delivery-batch")
+     * campaignId / companyId / types: 해당 캠페인·회사·이벤트 유형만 구독 (쉼표로 여러 개, 생략 시 전체)
+     * 재연결 시 Last-Event-ID 헤더(또는 lastEventId 파라미터) 이후의 이벤트를 다시 보낸다.
+     */
     @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public SseEmitter stream() {
-        return deliveryStreamService.subscribe();
+    public SseEmitter stream(@RequestParam(required = false) String overflow,
+                             @RequestParam(required = false) String mode,
+                             @RequestParam(required = false) Long windowMs,
+                             @RequestParam(required = false) Integer maxBatch,
+                             @RequestParam(required = false) List<UUID> campaignId,
+                             @RequestParam(required = false) List<UUID> companyId,
+                             @RequestParam(required = false) List<String> types,
+                             @RequestParam(value = "lastEventId", required = false) String lastEventIdParam,
+                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader) {
+        String lastEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam;
+        DeliveryStreamFilter filter = new DeliveryStreamFilter(campaignId, companyId, types);
+        return deliveryStreamService.subscribe(overflow, mode, windowMs, maxBatch, filter, parseEventId(lastEventId));
     }
-}
 
+    /**
+     * 스트림 구독자 대기열/버려진 이벤트 통계
+     */
+    @GetMapping("/stream/stats")
+    public ResponseEntity<?> getStreamStats() {
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "data", deliveryStreamService.getStats()
+        ));
+    }
 
+    private static Long parseEventId(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            // 알 수 없는 형식의 id 는 재동기화 대상으로 처리
+            return -1L;
+        }
+    }
+}
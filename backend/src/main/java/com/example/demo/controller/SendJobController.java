@@ -0,0 +1,180 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.CampaignSendJob;
+import com.example.demo.service.CampaignSendJobService;
+import com.example.demo.service.DeliveryOutboxDispatcher;
+import com.example.demo.service.DeliveryRateLimiter;
+import com.example.demo.service.FrequencyCapService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/send-jobs")
+@CrossOrigin(origins = "*")
+public class SendJobController {
+
+    @Autowired
+    private CampaignSendJobService campaignSendJobService;
+
+    @Autowired
+    private FrequencyCapService frequencyCapService;
+
+    @Autowired
+    private DeliveryRateLimiter deliveryRateLimiter;
+
+    @Autowired
+    private DeliveryOutboxDispatcher deliveryOutboxDispatcher;
+
+    /**
+     * 발송 작업 목록 조회
+     */
+    @GetMapping
+    public ResponseEntity<?> getJobs() {
+        List<Map<String, Object>> jobs = campaignSendJobService.getJobs().stream()
+                .map(CampaignSendJob::toMap)
+                .toList();
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "data", jobs
+        ));
+    }
+
+    /**
+     * 고객 발송 빈도 제한 설정 및 차단 현황
+     */
+    @GetMapping("/frequency-cap")
+    public ResponseEntity<?> getFrequencyCapStats() {
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "data", frequencyCapService.getStats()
+        ));
+    }
+
+    /**
+     * 발송 대기열(outbox) 남은 건수 및 디스패처 현황
+     */
+    @GetMapping("/outbox")
+    public ResponseEntity<?> getOutboxStats() {
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "data", deliveryOutboxDispatcher.getStats()
+        ));
+    }
+
+    /**
+     * 발송 속도 제한 설정 및 대기 통계
+     */
+    @GetMapping("/rate-limits")
+    public ResponseEntity<?> getRateLimits() {
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "data", deliveryRateLimiter.getStats()
+        ));
+    }
+
+    /**
+     * 발송 속도 제한 변경 (재시작 없이 즉시 반영, 보내지 않은 항목은 유지)
+     * 예: {"globalTps": 500, "companyTps": 100, "campaignTps": 50, "burstSeconds": 1, "companyOverrides": {"<companyId>": 300}}
+     */
+    @PutMapping("/rate-limits")
+    public ResponseEntity<?> updateRateLimits(@RequestBody Map<String, Object> request) {
+        try {
+            Map<UUID, Double> companyOverrides = null;
+            if (request.get("companyOverrides") instanceof Map<?, ?> overrides) {
+                companyOverrides = new HashMap<>();
+                for (Map.Entry<?, ?> entry : overrides.entrySet()) {
+                    companyOverrides.put(UUID.fromString(entry.getKey().toString()), toTps(entry.getValue()));
+                }
+            }
+            deliveryRateLimiter.updateLimits(
+                    toTps(request.get("globalTps")),
+                    toTps(request.get("companyTps")),
+                    toTps(request.get("campaignTps")),
+                    request.get("burstSeconds") != null ? Double.valueOf(request.get("burstSeconds").toString()) : null,
+                    companyOverrides);
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "message", "발송 속도 제한이 변경되었습니다.",
+                "data", deliveryRateLimiter.getLimits()
+            ));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", "발송 속도 제한 변경 실패: " + e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * 발송 작업 진행 상황 조회
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getJob(@PathVariable UUID jobId) {
+        return campaignSendJobService.getJob(jobId)
+                .map(job -> ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "data", job.toMap()
+                )))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 발송 작업 취소
+     */
+    @PostMapping("/{jobId}/cancel")
+    public ResponseEntity<?> cancelJob(@PathVariable UUID jobId) {
+        return changeJobState(jobId, campaignSendJobService.cancel(jobId), "발송 작업이 취소되었습니다.", "취소할 수 없는 작업 상태입니다.");
+    }
+
+    /**
+     * 발송 작업 일시정지
+     */
+    @PostMapping("/{jobId}/pause")
+    public ResponseEntity<?> pauseJob(@PathVariable UUID jobId) {
+        return changeJobState(jobId, campaignSendJobService.pause(jobId), "발송 작업이 일시정지되었습니다.", "일시정지할 수 없는 작업 상태입니다.");
+    }
+
+    /**
+     * 발송 작업 재개
+     */
+    @PostMapping("/{jobId}/resume")
+    public ResponseEntity<?> resumeJob(@PathVariable UUID jobId) {
+        return changeJobState(jobId, campaignSendJobService.resume(jobId), "발송 작업이 재개되었습니다.", "재개할 수 없는 작업 상태입니다.");
+    }
+
+    private static Double toTps(Object value) {
+        if (value == null) {
+            return null;
+        }
+        double tps = Double.parseDouble(value.toString());
+        if (tps < 0) {
+            throw new RuntimeException("TPS 는 0 이상이어야 합니다. (0 은 제한 없음)");
+        }
+        return tps;
+    }
+
+    private ResponseEntity<?> changeJobState(UUID jobId, boolean changed, String successMessage, String failureMessage) {
+        return campaignSendJobService.getJob(jobId)
+                .map(job -> {
+                    if (!changed) {
+                        return ResponseEntity.badRequest().body(Map.of(
+                            "success", false,
+                            "message", failureMessage,
+                            "data", job.toMap()
+                        ));
+                    }
+                    return ResponseEntity.ok(Map.of(
+                        "success", true,
+                        "message", successMessage,
+                        "data", job.toMap()
+                    ));
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
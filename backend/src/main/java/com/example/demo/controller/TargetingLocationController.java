@@ -4,6 +4,8 @@ import com.example.demo.entity.TargetingLocation;
 import com.example.demo.entity.Company;
 import com.example.demo.service.TargetingLocationService;
 import com.example.demo.service.CompanyService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -19,6 +21,8 @@ import java.util.UUID;
 @CrossOrigin(origins = "*")
 public class TargetingLocationController {
     
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    
     @Autowired
     private TargetingLocationService targetingLocationService;
     
@@ -48,6 +52,7 @@ public class TargetingLocationController {
             targetingLocation.setCenterLng((Double) requestData.get("centerLng"));
             targetingLocation.setRadiusM((Integer) requestData.get("radiusM"));
             targetingLocation.setMemo((String) requestData.get("memo"));
+            targetingLocation.setShapeJson(toShapeJson(requestData.get("shape")));
             
             // 회사 정보 설정 (첫 번째 회사 사용)
             List<Company> companies = companyService.getAllCompanies();
@@ -172,6 +177,7 @@ public class TargetingLocationController {
             targetingLocation.setCenterLng((Double) requestData.get("centerLng"));
             targetingLocation.setRadiusM((Integer) requestData.get("radiusM"));
             targetingLocation.setMemo((String) requestData.get("memo"));
+            targetingLocation.setShapeJson(toShapeJson(requestData.get("shape")));
             
             TargetingLocation updated = targetingLocationService.updateTargetingLocation(id, targetingLocation);
             
@@ -215,18 +221,21 @@ public class TargetingLocationController {
         }
     }
     
-    // 예상 도달 고객 수 계산
+    // 예상 도달 고객 수 계산 (mode=approx 이면 셀 히스토그램 근사치와 오차 범위)
     @GetMapping("/estimate-reach")
     public ResponseEntity<Map<String, Object>> getEstimatedReach(
             @RequestParam Double lat,
             @RequestParam Double lng,
-            @RequestParam Integer radiusM) {
+            @RequestParam Integer radiusM,
+            @RequestParam(defaultValue = "exact") String mode) {
         try {
-            Long estimatedReach = targetingLocationService.getEstimatedReach(lat, lng, radiusM);
-            
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("data", estimatedReach);
+            if ("approx".equalsIgnoreCase(mode)) {
+                response.put("data", targetingLocationService.getApproximateReach(lat, lng, radiusM));
+            } else {
+                response.put("data", targetingLocationService.getEstimatedReach(lat, lng, radiusM));
+            }
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -237,6 +246,31 @@ public class TargetingLocationController {
         }
     }
 
+    // 조합 도형(원/다각형의 합집합·교집합·차집합) 예상 도달 고객 수
+    @PostMapping("/estimate-reach/shape")
+    public ResponseEntity<Map<String, Object>> getEstimatedReachForShape(@RequestBody Object shape) {
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", targetingLocationService.getEstimatedReachForShape(toShapeJson(shape)));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "예상 도달 고객 수 계산 실패: " + e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // 예상 도달 고객 수 캐시 통계 (적중률, 평균 응답 시간)
+    @GetMapping("/estimate-reach/stats")
+    public ResponseEntity<Map<String, Object>> getReachCacheStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", targetingLocationService.getReachCacheStats());
+        return ResponseEntity.ok(response);
+    }
+
     // 타겟팅 위치별 고객 목록 조회
     @GetMapping("/{id}/customers")
     public ResponseEntity<Map<String, Object>> getCustomersByTargeting(@PathVariable UUID id) {
@@ -274,4 +308,19 @@ public class TargetingLocationController {
             return ResponseEntity.badRequest().body(response);
         }
     }
+
+    // 요청의 shape 값(JSON 객체 또는 문자열)을 저장용 JSON 문자열로 변환
+    private String toShapeJson(Object shape) {
+        if (shape == null) {
+            return null;
+        }
+        if (shape instanceof String json) {
+            return json;
+        }
+        try {
+            return OBJECT_MAPPER.writeValueAsString(shape);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("잘못된 타겟팅 도형입니다: " + e.getMessage());
+        }
+    }
 }
@@ -5,9 +5,11 @@ import com.example.demo.entity.Company;
 import com.example.demo.entity.Customer;
 import com.example.demo.entity.Delivery;
 import com.example.demo.entity.TargetingLocation;
+import com.example.demo.service.BenchmarkService;
 import com.example.demo.service.CampaignService;
 import com.example.demo.service.CompanyService;
 import com.example.demo.service.CustomerService;
+import com.example.demo.service.DeliveryCounterService;
 import com.example.demo.service.DeliveryService;
 import com.example.demo.service.TargetingLocationService;
 import com.example.demo.repository.CustomerRepository;
@@ -61,6 +63,12 @@ public class TestController {
     
     @Autowired
     private DeliveryRepository deliveryRepository;
+    
+    @Autowired
+    private BenchmarkService benchmarkService;
+    
+    @Autowired
+    private DeliveryCounterService deliveryCounterService;
 
     @PostMapping("/echo")
     public Map<String, Object> echo(@RequestBody Map<String, Object> data) {
@@ -202,7 +210,11 @@ public class TestController {
                 delivery.setMessageTextSent("안녕하세요! 특별한 혜택을 확인해보세요.");
                 delivery.setCreatedAt(LocalDateTime.now());
                 delivery.setSentAt(LocalDateTime.now().plusMinutes(5));
-                deliveryRepository.save(delivery);
+                deliveryCounterService.recording(() -> {
+                    Delivery saved = deliveryRepository.save(delivery);
+                    deliveryCounterService.recordCreated(saved);
+                    return saved;
+                });
             }
             
             response.put("success", true);
@@ -279,6 +291,67 @@ public class TestController {
         }
     }
     
+    /**
+     * 발송 실행기 모드별(fixed / virtual) 처리량 비교
+     */
+    @GetMapping("/benchmark/delivery-executor")
+    public ResponseEntity<?> benchmarkDeliveryExecutor(
+            @RequestParam(defaultValue = "200") int tasks,
+            @RequestParam(defaultValue = "100") int minLatencyMs,
+            @RequestParam(defaultValue = "300") int maxLatencyMs,
+            @RequestParam(defaultValue = "5") int poolSize,
+            @RequestParam(defaultValue = "500") int maxConcurrency) {
+        try {
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "data", benchmarkService.runDeliveryExecutorBenchmark(tasks, minLatencyMs, maxLatencyMs, poolSize, maxConcurrency)
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", "벤치마크 실행 중 오류가 발생했습니다: " + e.getMessage()
+            ));
+        }
+    }
+    
+    /**
+     * 기본키 UUID 방식별(uuid2 / uuid7) 삽입 처리량 비교
+     */
+    @GetMapping("/benchmark/uuid-insert")
+    public ResponseEntity<?> benchmarkUuidInsert(
+            @RequestParam(defaultValue = "50000") int rows,
+            @RequestParam(defaultValue = "500") int batchSize) {
+        try {
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "data", benchmarkService.runUuidInsertBenchmark(rows, batchSize)
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", "벤치마크 실행 중 오류가 발생했습니다: " + e.getMessage()
+            ));
+        }
+    }
+    
+    /**
+     * 스트림 이벤트 발행 비용 비교 (구독자 1 / 50 / 500, 구독자마다 직렬화 vs 한 번 직렬화)
+     */
+    @GetMapping("/benchmark/stream-publish")
+    public ResponseEntity<?> benchmarkStreamPublish(@RequestParam(defaultValue = "2000") int events) {
+        try {
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "data", benchmarkService.runStreamPublishBenchmark(events)
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", "벤치마크 실행 중 오류가 발생했습니다: " + e.getMessage()
+            ));
+        }
+    }
+    
     private Customer createCustomer(String name, String phone, Double lat, Double lng, String dongCode) {
         Customer customer = new Customer();
         customer.setName(name);
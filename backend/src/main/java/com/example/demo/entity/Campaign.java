@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import org.hibernate.annotations.GenericGenerator;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 import java.time.LocalDateTime;
@@ -12,12 +13,14 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "campaigns")
+@Table(name = "campaigns", indexes = {
+    @Index(name = "idx_campaigns_created_at", columnList = "created_at")
+})
 public class Campaign {
     
     @Id
-    @GeneratedValue(generator = "uuid2")
-    @GenericGenerator(name = "uuid2", strategy = "uuid2")
+    @GeneratedValue(generator = "uuid7")
+    @GenericGenerator(name = "uuid7", type = UuidV7Generator.class)
     @Column(columnDefinition = "uuid")
     private UUID id;
     
@@ -46,6 +49,16 @@ public class Campaign {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
+    // 진행 중인 발송 작업과 시작 시각. 발송 대기열 저장과 같은 트랜잭션에서 설정되고 대기열이 비면 해제된다.
+    // 엔티티 저장으로 덮어쓰지 않도록 CampaignRepository 의 UPDATE 쿼리로만 바꾼다.
+    @Column(name = "send_job_id", columnDefinition = "uuid", insertable = false, updatable = false)
+    @JsonIgnore
+    private UUID sendJobId;
+    
+    @Column(name = "send_started_at", insertable = false, updatable = false)
+    @JsonIgnore
+    private LocalDateTime sendStartedAt;
+    
     @OneToMany(mappedBy = "campaign", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonManagedReference("campaign-deliveries")
     private List<Delivery> deliveries = new ArrayList<>();
@@ -152,6 +165,14 @@ public class Campaign {
         this.createdAt = createdAt;
     }
     
+    public UUID getSendJobId() {
+        return sendJobId;
+    }
+    
+    public LocalDateTime getSendStartedAt() {
+        return sendStartedAt;
+    }
+    
     public List<Delivery> getDeliveries() {
         return deliveries;
     }
@@ -3,12 +3,18 @@ package com.example.demo.entity;
 import jakarta.persistence.*;
 import org.hibernate.annotations.GenericGenerator;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "deliveries")
+@Table(name = "deliveries", indexes = {
+    @Index(name = "idx_deliveries_campaign_created_id", columnList = "campaign_id, created_at, id"),
+    @Index(name = "idx_deliveries_status_created_id", columnList = "status, created_at, id"),
+    @Index(name = "idx_deliveries_created_at", columnList = "created_at"),
+    @Index(name = "idx_deliveries_next_retry_at", columnList = "next_retry_at")
+})
 public class Delivery {
     
     public enum DeliveryStatus {
@@ -16,8 +22,8 @@ public class Delivery {
     }
     
     @Id
-    @GeneratedValue(generator = "uuid2")
-    @GenericGenerator(name = "uuid2", strategy = "uuid2")
+    @GeneratedValue(generator = "uuid7")
+    @GenericGenerator(name = "uuid7", type = UuidV7Generator.class)
     @Column(columnDefinition = "uuid")
     private UUID id;
     
@@ -47,6 +53,18 @@ public class Delivery {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
+    @Column(name = "retry_count", nullable = false, columnDefinition = "integer default 0")
+    private int retryCount = 0;
+    
+    // 다음 재시도 예정 시각 (재시도 대상이 아니면 null)
+    @Column(name = "next_retry_at")
+    private LocalDateTime nextRetryAt;
+    
+    // 발송 대기열 행 ID (결과 저장 트랜잭션에서 함께 삭제)
+    @Transient
+    @JsonIgnore
+    private UUID outboxId;
+    
     // 생성자
     public Delivery() {
         this.createdAt = LocalDateTime.now();
@@ -122,4 +140,28 @@ public class Delivery {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+    
+    public int getRetryCount() {
+        return retryCount;
+    }
+    
+    public void setRetryCount(int retryCount) {
+        this.retryCount = retryCount;
+    }
+    
+    public LocalDateTime getNextRetryAt() {
+        return nextRetryAt;
+    }
+    
+    public void setNextRetryAt(LocalDateTime nextRetryAt) {
+        this.nextRetryAt = nextRetryAt;
+    }
+    
+    public UUID getOutboxId() {
+        return outboxId;
+    }
+    
+    public void setOutboxId(UUID outboxId) {
+        this.outboxId = outboxId;
+    }
 }
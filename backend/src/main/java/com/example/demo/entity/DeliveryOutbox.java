@@ -0,0 +1,158 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.GenericGenerator;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 발송 대기열 (transactional outbox)
+ *
+ * 캠페인 발송 시작 시 대상 고객마다 한 행을 넣고, 발송 결과(Delivery)가 저장되는 트랜잭션에서 삭제한다.
+ * 남아 있는 행이 곧 아직 발송되지 않은 대상이므로 서버가 중간에 죽어도 재시작 후 이어서 발송된다.
+ */
+@Entity
+@Table(name = "delivery_outbox", indexes = {
+    @Index(name = "idx_delivery_outbox_status_created", columnList = "status, created_at"),
+    @Index(name = "idx_delivery_outbox_job", columnList = "job_id"),
+    @Index(name = "idx_delivery_outbox_campaign", columnList = "campaign_id")
+})
+public class DeliveryOutbox {
+
+    public enum OutboxStatus {
+        /** 발송 대기 */
+        PENDING,
+        /** 작업 일시정지로 보류 */
+        HELD,
+        /** 디스패처가 가져감 (lease_until 이 지나면 다시 가져갈 수 있음) */
+        CLAIMED
+    }
+
+    @Id
+    @GeneratedValue(generator = "uuid7")
+    @GenericGenerator(name = "uuid7", type = UuidV7Generator.class)
+    @Column(columnDefinition = "uuid")
+    private UUID id;
+
+    @Column(name = "job_id", columnDefinition = "uuid")
+    private UUID jobId;
+
+    @Column(name = "campaign_id", columnDefinition = "uuid", nullable = false)
+    private UUID campaignId;
+
+    @Column(name = "customer_id", columnDefinition = "uuid", nullable = false)
+    private UUID customerId;
+
+    @Column(name = "company_id", columnDefinition = "uuid")
+    private UUID companyId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(name = "claimed_by", length = 100)
+    private String claimedBy;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public DeliveryOutbox() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public DeliveryOutbox(UUID jobId, UUID campaignId, UUID customerId, UUID companyId) {
+        this();
+        this.jobId = jobId;
+        this.campaignId = campaignId;
+        this.customerId = customerId;
+        this.companyId = companyId;
+    }
+
+    // Getter와 Setter
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(UUID jobId) {
+        this.jobId = jobId;
+    }
+
+    public UUID getCampaignId() {
+        return campaignId;
+    }
+
+    public void setCampaignId(UUID campaignId) {
+        this.campaignId = campaignId;
+    }
+
+    public UUID getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(UUID customerId) {
+        this.customerId = customerId;
+    }
+
+    public UUID getCompanyId() {
+        return companyId;
+    }
+
+    public void setCompanyId(UUID companyId) {
+        this.companyId = companyId;
+    }
+
+    public OutboxStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OutboxStatus status) {
+        this.status = status;
+    }
+
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public void setClaimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+
+    public LocalDateTime getLeaseUntil() {
+        return leaseUntil;
+    }
+
+    public void setLeaseUntil(LocalDateTime leaseUntil) {
+        this.leaseUntil = leaseUntil;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
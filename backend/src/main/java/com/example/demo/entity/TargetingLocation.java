@@ -38,6 +38,10 @@ public class TargetingLocation {
     @Column(columnDefinition = "TEXT")
     private String memo;
     
+    // 여러 원/다각형 조합 도형 (JSON). 있으면 중심/반경 대신 이 도형으로 고객을 찾는다
+    @Column(name = "shape_json", columnDefinition = "TEXT")
+    private String shapeJson;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime createdAt;
@@ -113,6 +117,14 @@ public class TargetingLocation {
         this.memo = memo;
     }
     
+    public String getShapeJson() {
+        return shapeJson;
+    }
+    
+    public void setShapeJson(String shapeJson) {
+        this.shapeJson = shapeJson;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -131,6 +143,7 @@ public class TargetingLocation {
                 ", centerLng=" + centerLng +
                 ", radiusM=" + radiusM +
                 ", memo='" + memo + '\'' +
+                ", shapeJson='" + shapeJson + '\'' +
                 ", createdAt=" + createdAt +
                 '}';
     }
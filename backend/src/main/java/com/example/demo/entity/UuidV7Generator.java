@@ -0,0 +1,48 @@
+package com.example.demo.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 시간 순서 UUID (RFC 9562 version 7) 생성기
+ *
+ * 상위 48비트는 Unix 밀리초, 이어지는 12비트는 같은 밀리초 안에서 증가하는 카운터,
+ * 하위 62비트는 난수다. 한 JVM 안에서는 항상 증가하고, 노드 간 유일성은 난수 62비트로 보장된다.
+ * 새 키가 기본키 인덱스의 오른쪽 끝에 붙으므로 uuid2(무작위) 대비 삽입이 append 위주가 된다.
+ *
+ * 사용: {@code @GenericGenerator(name = "uuid7", type = UuidV7Generator.class)}
+ */
+public class UuidV7Generator implements IdentifierGenerator {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /** (밀리초 << 12) | 카운터 - 마지막으로 발급한 값 */
+    private static final AtomicLong LAST_TIMESTAMP_AND_COUNTER = new AtomicLong();
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return generate();
+    }
+
+    /**
+     * 새 UUIDv7 발급
+     */
+    public static UUID generate() {
+        long now = System.currentTimeMillis() << 12;
+        long next = LAST_TIMESTAMP_AND_COUNTER.updateAndGet(last -> Math.max(now, last + 1));
+
+        // 카운터가 넘치면 밀리초 자리로 올라가 순서가 유지된다
+        long timestampMs = next >>> 12;
+        long counter = next & 0xFFFL;
+
+        long msb = (timestampMs << 16) | 0x7000L | counter;
+        long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
@@ -4,6 +4,7 @@ import com.example.demo.entity.Campaign;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -28,6 +29,39 @@ public interface CampaignRepository extends JpaRepository<Campaign, UUID> {
     @Query("SELECT COUNT(c) FROM Campaign c WHERE c.company.id = :companyId")
     Long countByCompanyId(@Param("companyId") UUID companyId);
     
+    /**
+     * 최근 캠페인 10건 조회 (idx_campaigns_created_at 사용)
+     */
+    List<Campaign> findTop10ByOrderByCreatedAtDesc();
+    
+    /**
+     * 발송 시작 표시 (진행 중인 발송 작업이 없을 때만, 같은 캠페인을 여러 노드에서 동시에 시작하지 못하게 한다)
+     */
+    @Modifying
+    @Query("UPDATE Campaign c SET c.sendJobId = :jobId, c.sendStartedAt = :startedAt WHERE c.id = :id AND c.sendJobId IS NULL")
+    int markSending(@Param("id") UUID id, @Param("jobId") UUID jobId, @Param("startedAt") LocalDateTime startedAt);
+    
+    /**
+     * 발송 종료 표시와 상태 변경 (해당 작업이 아직 표시돼 있을 때만)
+     */
+    @Modifying
+    @Query("UPDATE Campaign c SET c.sendJobId = NULL, c.sendStartedAt = NULL, c.status = :status " +
+           "WHERE c.id = :id AND c.sendJobId = :jobId")
+    int finishSending(@Param("id") UUID id, @Param("jobId") UUID jobId, @Param("status") String status);
+    
+    /**
+     * 발송 종료 표시만 해제 (취소된 작업, 상태는 그대로 둔다)
+     */
+    @Modifying
+    @Query("UPDATE Campaign c SET c.sendJobId = NULL, c.sendStartedAt = NULL WHERE c.id = :id AND c.sendJobId = :jobId")
+    int releaseSending(@Param("id") UUID id, @Param("jobId") UUID jobId);
+    
+    /**
+     * 발송 작업이 표시된 캠페인 {id, 작업 ID}
+     */
+    @Query("SELECT c.id, c.sendJobId FROM Campaign c WHERE c.sendJobId IS NOT NULL")
+    List<Object[]> findSending();
+    
     /**
      * 이름으로 캠페인 검색
      */
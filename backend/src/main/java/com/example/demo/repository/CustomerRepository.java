@@ -1,16 +1,22 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.Customer;
+import com.example.demo.util.GeoBounds;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import java.util.Map;
+import java.util.stream.Stream;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, UUID> {
@@ -31,17 +37,91 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID> {
     List<Customer> findByDongCode(String dongCode);
     
     /**
-     * 위치 기반 고객 조회 (Haversine 공식 사용)
+     * 주어진 전화번호 중 이미 등록된 번호 조회 (CSV 일괄 등록 중복 검사)
      */
-    @Query(value = "SELECT c.* FROM customers c " +
-                   "WHERE (6371000 * acos(cos(radians(:lat)) * cos(radians(c.lat)) * " +
-                   "cos(radians(c.lng) - radians(:lng)) + sin(radians(:lat)) * sin(radians(c.lat)))) <= :radiusM " +
-                   "ORDER BY (6371000 * acos(cos(radians(:lat)) * cos(radians(c.lat)) * " +
-                   "cos(radians(c.lng) - radians(:lng)) + sin(radians(:lat)) * sin(radians(c.lat)))) ASC", 
+    @Query("SELECT c.phone FROM Customer c WHERE c.phone IN :phones")
+    List<String> findExistingPhones(@Param("phones") Collection<String> phones);
+    
+    /**
+     * 공간 인덱스 적재용 고객 위치 조회
+     */
+    @Query("SELECT c.id, c.name, c.phone, c.lat, c.lng, c.dongCode, c.createdAt FROM Customer c")
+    List<Object[]> findAllLocationRows();
+    
+    /**
+     * 내보내기용 고객 행 스트림 (엔티티가 아닌 값 배열이라 영속성 컨텍스트에 쌓이지 않는다).
+     * 트랜잭션 안에서 사용하고 반드시 닫아야 한다.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c.id, c.name, c.phone, c.lat, c.lng, c.dongCode, c.createdAt FROM Customer c")
+    Stream<Object[]> streamAllRows();
+    
+    /**
+     * 셀 히스토그램 적재용 고객 좌표 스트림 (트랜잭션 안에서 사용하고 반드시 닫아야 한다)
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c.lat, c.lng FROM Customer c")
+    Stream<Object[]> streamAllLocations();
+    
+    /**
+     * 구면 코사인 법칙 거리식 (m). 부동소수 오차로 acos 범위를 벗어나지 않도록 LEAST 로 보정
+     */
+    String DISTANCE_SQL = "(6371000 * acos(LEAST(1.0, cos(radians(:lat)) * cos(radians(c.lat)) * " +
+                          "cos(radians(c.lng) - radians(:lng)) + sin(radians(:lat)) * sin(radians(c.lat)))))";
+    
+    /**
+     * 바운딩 박스 조건 (idx_customers_lat_lng 인덱스 사용)
+     */
+    String BOUNDING_BOX_SQL = "c.lat BETWEEN :minLat AND :maxLat AND c.lng BETWEEN :minLng AND :maxLng";
+    
+    /**
+     * 위치 기반 고객 조회 (바운딩 박스로 후보를 좁힌 뒤 Haversine 공식 적용)
+     */
+    @Query(value = "SELECT t.id, t.name, t.phone, t.lat, t.lng, t.dong_code, t.created_at FROM (" +
+                   "SELECT c.*, " + DISTANCE_SQL + " AS distance_m FROM customers c " +
+                   "WHERE " + BOUNDING_BOX_SQL + ") t " +
+                   "WHERE t.distance_m <= :radiusM " +
+                   "ORDER BY t.distance_m ASC", 
            nativeQuery = true)
-    List<Customer> findCustomersNearLocation(@Param("lat") Double lat, 
-                                           @Param("lng") Double lng, 
-                                           @Param("radiusM") Integer radiusM);
+    List<Customer> findCustomersNearLocationInBox(@Param("lat") Double lat, 
+                                                @Param("lng") Double lng, 
+                                                @Param("radiusM") Integer radiusM,
+                                                @Param("minLat") Double minLat,
+                                                @Param("maxLat") Double maxLat,
+                                                @Param("minLng") Double minLng,
+                                                @Param("maxLng") Double maxLng);
+    
+    /**
+     * 위치 기반 고객 조회 (Haversine 공식 사용)
+     */
+    default List<Customer> findCustomersNearLocation(Double lat, Double lng, Integer radiusM) {
+        double[] box = GeoBounds.boundingBox(lat, lng, radiusM);
+        return findCustomersNearLocationInBox(lat, lng, radiusM, box[0], box[1], box[2], box[3]);
+    }
+    
+    /**
+     * 바운딩 박스 안 고객 조회 (타겟팅 도형 평가, idx_customers_lat_lng 인덱스 사용)
+     */
+    @Query("SELECT c FROM Customer c WHERE c.lat BETWEEN :minLat AND :maxLat AND c.lng BETWEEN :minLng AND :maxLng")
+    List<Customer> findInBoundingBox(@Param("minLat") Double minLat,
+                                     @Param("maxLat") Double maxLat,
+                                     @Param("minLng") Double minLng,
+                                     @Param("maxLng") Double maxLng);
+    
+    /**
+     * 바운딩 박스 안 고객 좌표 조회 {id, lat, lng} (타겟팅 도형 도달 수 계산, 엔티티를 만들지 않는다)
+     */
+    @Query("SELECT c.id, c.lat, c.lng FROM Customer c WHERE c.lat BETWEEN :minLat AND :maxLat AND c.lng BETWEEN :minLng AND :maxLng")
+    List<Object[]> findLocationsInBoundingBox(@Param("minLat") Double minLat,
+                                              @Param("maxLat") Double maxLat,
+                                              @Param("minLng") Double minLng,
+                                              @Param("maxLng") Double maxLng);
     
     /**
      * 간단한 거리 계산으로 고객 조회 (테스트용)
@@ -53,36 +133,51 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID> {
                                                  @Param("lng") Double lng);
 
     /**
-     * 반경 내 고객 수 계산
+     * 반경 내 고객 수 계산 (바운딩 박스 선필터)
      */
     @Query(value = "SELECT COUNT(*) FROM customers c " +
-                   "WHERE (6371000 * acos(cos(radians(:lat)) * cos(radians(c.lat)) * " +
-                   "cos(radians(c.lng) - radians(:lng)) + sin(radians(:lat)) * sin(radians(c.lat)))) <= :radiusM", 
+                   "WHERE " + BOUNDING_BOX_SQL + " AND " + DISTANCE_SQL + " <= :radiusM", 
            nativeQuery = true)
-    Long countCustomersInRadius(@Param("lat") Double lat, 
-                               @Param("lng") Double lng, 
-                               @Param("radiusM") Integer radiusM);
+    Long countCustomersInRadiusInBox(@Param("lat") Double lat, 
+                                    @Param("lng") Double lng, 
+                                    @Param("radiusM") Integer radiusM,
+                                    @Param("minLat") Double minLat,
+                                    @Param("maxLat") Double maxLat,
+                                    @Param("minLng") Double minLng,
+                                    @Param("maxLng") Double maxLng);
+
+    /**
+     * 반경 내 고객 수 계산
+     */
+    default Long countCustomersInRadius(Double lat, Double lng, Integer radiusM) {
+        double[] box = GeoBounds.boundingBox(lat, lng, radiusM);
+        return countCustomersInRadiusInBox(lat, lng, radiusM, box[0], box[1], box[2], box[3]);
+    }
 
     /**
-     * 반경 내 고객 조회 (거리 정보 포함)
+     * 반경 내 고객 조회 (거리 정보 포함, 바운딩 박스 선필터)
      */
-    @Query(value = "SELECT c.id, c.name, c.phone, c.lat, c.lng, " +
-                   "ROUND((6371000 * acos(cos(radians(:lat)) * cos(radians(c.lat)) * " +
-                   "cos(radians(c.lng) - radians(:lng)) + sin(radians(:lat)) * sin(radians(c.lat)))) / 1000, 2) as distance " +
+    @Query(value = "SELECT t.id, t.name, t.phone, t.lat, t.lng, ROUND(t.distance_m / 1000, 2) as distance FROM (" +
+                   "SELECT c.id, c.name, c.phone, c.lat, c.lng, " + DISTANCE_SQL + " AS distance_m " +
                    "FROM customers c " +
-                   "WHERE (6371000 * acos(cos(radians(:lat)) * cos(radians(c.lat)) * " +
-                   "cos(radians(c.lng) - radians(:lng)) + sin(radians(:lat)) * sin(radians(c.lat)))) <= :radiusM " +
-                   "ORDER BY distance ASC", 
+                   "WHERE " + BOUNDING_BOX_SQL + ") t " +
+                   "WHERE t.distance_m <= :radiusM " +
+                   "ORDER BY t.distance_m ASC", 
            nativeQuery = true)
     List<Object[]> findCustomersInRadiusWithDistanceRaw(@Param("lat") Double lat, 
                                                        @Param("lng") Double lng, 
-                                                       @Param("radiusM") Integer radiusM);
+                                                       @Param("radiusM") Integer radiusM,
+                                                       @Param("minLat") Double minLat,
+                                                       @Param("maxLat") Double maxLat,
+                                                       @Param("minLng") Double minLng,
+                                                       @Param("maxLng") Double maxLng);
 
     /**
      * 반경 내 고객 조회 (Map 형태로 반환)
      */
     default List<Map<String, Object>> findCustomersInRadiusWithDistance(Double lat, Double lng, Integer radiusM) {
-        List<Object[]> results = findCustomersInRadiusWithDistanceRaw(lat, lng, radiusM);
+        double[] box = GeoBounds.boundingBox(lat, lng, radiusM);
+        List<Object[]> results = findCustomersInRadiusWithDistanceRaw(lat, lng, radiusM, box[0], box[1], box[2], box[3]);
         return results.stream().map(row -> {
             Map<String, Object> customer = new java.util.HashMap<>();
             customer.put("id", row[0]);
@@ -0,0 +1,67 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.DeliveryOutbox;
+import com.example.demo.entity.DeliveryOutbox.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DeliveryOutboxRepository extends JpaRepository<DeliveryOutbox, UUID> {
+
+    /**
+     * 가져갈 수 있는 행(대기 중 또는 lease 만료)을 잠그고 조회.
+     * 다른 트랜잭션이 잠근 행은 건너뛰므로 여러 디스패처/노드가 같은 행을 가져가지 않는다.
+     */
+    @Query(value = "SELECT * FROM delivery_outbox " +
+           "WHERE status = 'PENDING' OR (status = 'CLAIMED' AND lease_until < :now) " +
+           "ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<DeliveryOutbox> lockClaimable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * lockClaimable 과 같되 주어진 캠페인의 행은 제외 (이 노드에서 속도 제한으로 미뤄 둔 캠페인)
+     */
+    @Query(value = "SELECT * FROM delivery_outbox " +
+           "WHERE (status = 'PENDING' OR (status = 'CLAIMED' AND lease_until < :now)) " +
+           "AND campaign_id NOT IN (:excludedCampaignIds) " +
+           "ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<DeliveryOutbox> lockClaimableExcluding(@Param("now") LocalDateTime now, @Param("limit") int limit,
+                                                @Param("excludedCampaignIds") Collection<UUID> excludedCampaignIds);
+
+    /**
+     * 가져간 행의 lease 연장.
+     * 그사이 lease 가 만료되어 다른 워커/노드가 다시 가져갔으면 attempts 또는 claimed_by 가 달라져 0 건이 갱신된다.
+     */
+    @Modifying
+    @Query("UPDATE DeliveryOutbox o SET o.leaseUntil = :leaseUntil " +
+           "WHERE o.id = :id AND o.status = :status AND o.claimedBy = :claimedBy AND o.attempts = :attempts")
+    int renewLease(@Param("id") UUID id, @Param("status") OutboxStatus status, @Param("claimedBy") String claimedBy,
+                   @Param("attempts") int attempts, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * 작업의 행 상태 일괄 변경 (일시정지 시 PENDING -> HELD, 재개 시 HELD -> PENDING)
+     */
+    @Modifying
+    @Query("UPDATE DeliveryOutbox o SET o.status = :to WHERE o.jobId = :jobId AND o.status = :from")
+    int updateStatusByJob(@Param("jobId") UUID jobId, @Param("from") OutboxStatus from, @Param("to") OutboxStatus to);
+
+    /**
+     * 작업의 아직 가져가지 않은 행 삭제 (취소)
+     */
+    @Modifying
+    @Query("DELETE FROM DeliveryOutbox o WHERE o.jobId = :jobId AND o.status IN :statuses")
+    int deleteByJobAndStatusIn(@Param("jobId") UUID jobId, @Param("statuses") Collection<OutboxStatus> statuses);
+
+    long countByJobId(UUID jobId);
+
+    long countByCampaignId(UUID campaignId);
+
+    long countByStatus(OutboxStatus status);
+}
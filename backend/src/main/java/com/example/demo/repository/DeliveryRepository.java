@@ -2,23 +2,48 @@ package com.example.demo.repository;
 
 import com.example.demo.entity.Delivery;
 import com.example.demo.entity.Delivery.DeliveryStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface DeliveryRepository extends JpaRepository<Delivery, UUID> {
+public interface DeliveryRepository extends JpaRepository<Delivery, UUID>, DeliveryRepositoryCustom {
     
     // 캠페인별 발송 목록 조회
     List<Delivery> findByCampaignIdOrderByCreatedAtDesc(UUID campaignId);
     
-    // 상태별 발송 목록 조회
-    List<Delivery> findByStatusOrderByCreatedAtDesc(DeliveryStatus status);
+    // 최근 발송 20건 조회 (idx_deliveries_created_at 사용)
+    List<Delivery> findTop20ByOrderByCreatedAtDesc();
+    
+    // 캠페인별 발송 목록 keyset 페이지 (created_at, id 내림차순, idx_deliveries_campaign_created_id 사용)
+    @Query("SELECT d FROM Delivery d WHERE d.campaign.id = :campaignId ORDER BY d.createdAt DESC, d.id DESC")
+    List<Delivery> findPageByCampaign(@Param("campaignId") UUID campaignId, Pageable pageable);
+    
+    @Query("SELECT d FROM Delivery d WHERE d.campaign.id = :campaignId AND (d.createdAt, d.id) < (:createdAt, :id) " +
+           "ORDER BY d.createdAt DESC, d.id DESC")
+    List<Delivery> findPageByCampaignAfter(@Param("campaignId") UUID campaignId, @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") UUID id, Pageable pageable);
+    
+    // 상태별 발송 목록 keyset 페이지 (created_at, id 내림차순, idx_deliveries_status_created_id 사용)
+    @Query("SELECT d FROM Delivery d WHERE d.status = :status ORDER BY d.createdAt DESC, d.id DESC")
+    List<Delivery> findPageByStatus(@Param("status") DeliveryStatus status, Pageable pageable);
+    
+    @Query("SELECT d FROM Delivery d WHERE d.status = :status AND (d.createdAt, d.id) < (:createdAt, :id) " +
+           "ORDER BY d.createdAt DESC, d.id DESC")
+    List<Delivery> findPageByStatusAfter(@Param("status") DeliveryStatus status, @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") UUID id, Pageable pageable);
     
     // 특정 시간 범위 내 발송 목록 조회
     @Query("SELECT d FROM Delivery d WHERE d.createdAt BETWEEN :startTime AND :endTime ORDER BY d.createdAt DESC")
@@ -76,4 +101,67 @@ public interface DeliveryRepository extends JpaRepository<Delivery, UUID> {
            "GROUP BY EXTRACT(HOUR FROM d.createdAt), d.status " +
            "ORDER BY hour, d.status")
     List<Object[]> getTodayHourlyStatsByStatus();
+    
+    // 상태별 전체 발송 건수 (실시간 카운터 재구성용)
+    @Query("SELECT d.status, COUNT(d) FROM Delivery d GROUP BY d.status")
+    List<Object[]> countGroupByStatus();
+    
+    // 특정 시각 이후 분 단위 상태별 발송 건수 (실시간 카운터 재구성용)
+    @Query("SELECT d.status, EXTRACT(YEAR FROM d.createdAt), EXTRACT(MONTH FROM d.createdAt), EXTRACT(DAY FROM d.createdAt), " +
+           "EXTRACT(HOUR FROM d.createdAt), EXTRACT(MINUTE FROM d.createdAt), COUNT(d) " +
+           "FROM Delivery d WHERE d.createdAt >= :since " +
+           "GROUP BY d.status, EXTRACT(YEAR FROM d.createdAt), EXTRACT(MONTH FROM d.createdAt), EXTRACT(DAY FROM d.createdAt), " +
+           "EXTRACT(HOUR FROM d.createdAt), EXTRACT(MINUTE FROM d.createdAt)")
+    List<Object[]> countGroupByStatusAndMinuteSince(@Param("since") LocalDateTime since);
+    
+    // 빈도 제한 재구성용 최근 발송 (고객 ID, 회사 ID, 발송 시각). 트랜잭션 안에서 사용하고 반드시 닫아야 한다
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT d.customer.id, co.id, d.createdAt FROM Delivery d JOIN d.campaign c LEFT JOIN c.company co " +
+           "WHERE d.createdAt >= :since AND d.status <> :excludedStatus")
+    Stream<Object[]> streamRecentSends(@Param("since") LocalDateTime since,
+                                       @Param("excludedStatus") DeliveryStatus excludedStatus);
+    
+    // 재시도 예정 시각이 until 이전인 실패 발송 (발송 ID, 재시도 예정 시각)
+    @Query("SELECT d.id, d.nextRetryAt FROM Delivery d WHERE d.status = :status AND d.nextRetryAt <= :until " +
+           "ORDER BY d.nextRetryAt")
+    List<Object[]> findRetryDue(@Param("status") DeliveryStatus status, @Param("until") LocalDateTime until, Pageable pageable);
+    
+    // 재시도 선점: 예정 시각이 지난 행만 lease 시각으로 미뤄 다른 노드가 동시에 가져가지 않게 한다
+    @Modifying
+    @Query("UPDATE Delivery d SET d.nextRetryAt = :leaseUntil " +
+           "WHERE d.id = :id AND d.status = :status AND d.nextRetryAt <= :now")
+    int claimRetry(@Param("id") UUID id, @Param("status") DeliveryStatus status,
+                   @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+    
+    // 재시도 발송 정보 (발송 ID, 고객 ID, 전화번호, 메시지, 재시도 횟수, 캠페인 ID, 회사 ID, 생성 시각)
+    @Query("SELECT d.id, cu.id, cu.phone, d.messageTextSent, d.retryCount, ca.id, co.id, d.createdAt " +
+           "FROM Delivery d JOIN d.customer cu JOIN d.campaign ca LEFT JOIN ca.company co WHERE d.id IN :ids")
+    List<Object[]> findRetryTargets(@Param("ids") Collection<UUID> ids);
+    
+    // 캠페인의 since 이후 발송 상태별 건수 (발송 작업 종료 시 캠페인 상태 결정용)
+    @Query("SELECT d.status, COUNT(d) FROM Delivery d WHERE d.campaign.id = :campaignId AND d.createdAt >= :since GROUP BY d.status")
+    List<Object[]> countByStatusForCampaignSince(@Param("campaignId") UUID campaignId, @Param("since") LocalDateTime since);
+    
+    // 발송의 캠페인 ID, 회사 ID (상태 변경 이벤트용, 캠페인/회사 엔티티를 로딩하지 않는다)
+    @Query("SELECT ca.id, co.id FROM Delivery d JOIN d.campaign ca LEFT JOIN ca.company co WHERE d.id = :id")
+    List<Object[]> findCampaignAndCompanyIds(@Param("id") UUID id);
+    
+    // 재시도 연기 (빈도 제한에 걸린 경우)
+    @Modifying
+    @Query("UPDATE Delivery d SET d.nextRetryAt = :nextRetryAt WHERE d.id = :id")
+    int updateNextRetryAt(@Param("id") UUID id, @Param("nextRetryAt") LocalDateTime nextRetryAt);
+    
+    // 재시도 결과 반영
+    @Modifying
+    @Query("UPDATE Delivery d SET d.status = :status, d.errorCode = :errorCode, d.sentAt = :sentAt, " +
+           "d.retryCount = :retryCount, d.nextRetryAt = :nextRetryAt WHERE d.id = :id")
+    int applyRetryResult(@Param("id") UUID id, @Param("status") DeliveryStatus status,
+                         @Param("errorCode") String errorCode, @Param("sentAt") LocalDateTime sentAt,
+                         @Param("retryCount") int retryCount, @Param("nextRetryAt") LocalDateTime nextRetryAt);
+    
+    // 재시도 대기 중인 발송 수
+    long countByStatusAndNextRetryAtIsNotNull(DeliveryStatus status);
 }
@@ -0,0 +1,19 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Delivery.DeliveryStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * DeliveryRepository 사용자 정의 쿼리
+ */
+public interface DeliveryRepositoryCustom {
+
+    /**
+     * start 부터 bucketSize 간격 bucketCount 개 구간의 상태별 발송 건수를 한 번의 집계 쿼리로 조회
+     * (구간은 [시작, 끝) 이며, 결과 배열의 i 번째 값이 i 번째 구간의 건수)
+     */
+    Map<DeliveryStatus, long[]> countByStatusInBuckets(LocalDateTime start, Duration bucketSize, int bucketCount);
+}
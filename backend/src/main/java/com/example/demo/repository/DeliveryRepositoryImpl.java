@@ -0,0 +1,52 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Delivery.DeliveryStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public class DeliveryRepositoryImpl implements DeliveryRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Map<DeliveryStatus, long[]> countByStatusInBuckets(LocalDateTime start, Duration bucketSize, int bucketCount) {
+        // SELECT d.status, SUM(CASE WHEN createdAt in bucket 0 ...), SUM(...bucket 1...), ... GROUP BY d.status
+        StringBuilder jpql = new StringBuilder("SELECT d.status");
+        for (int i = 0; i < bucketCount; i++) {
+            jpql.append(", SUM(CASE WHEN d.createdAt >= :b").append(i)
+                .append(" AND d.createdAt < :b").append(i + 1)
+                .append(" THEN 1 ELSE 0 END)");
+        }
+        jpql.append(" FROM Delivery d WHERE d.createdAt >= :b0 AND d.createdAt < :b").append(bucketCount)
+            .append(" GROUP BY d.status");
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        for (int i = 0; i <= bucketCount; i++) {
+            query.setParameter("b" + i, start.plus(bucketSize.multipliedBy(i)));
+        }
+
+        Map<DeliveryStatus, long[]> counts = new EnumMap<>(DeliveryStatus.class);
+        for (DeliveryStatus status : DeliveryStatus.values()) {
+            counts.put(status, new long[bucketCount]);
+        }
+        List<Object[]> rows = query.getResultList();
+        for (Object[] row : rows) {
+            long[] buckets = counts.get((DeliveryStatus) row[0]);
+            if (buckets == null) {
+                continue;
+            }
+            for (int i = 0; i < bucketCount; i++) {
+                buckets[i] = row[i + 1] != null ? ((Number) row[i + 1]).longValue() : 0L;
+            }
+        }
+        return counts;
+    }
+}
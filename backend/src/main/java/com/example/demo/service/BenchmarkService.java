@@ -0,0 +1,245 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.UuidV7Generator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+/**
+ * 성능 비교 실행 (TestController 의 /api/test/benchmark/* 에서 호출)
+ */
+@Service
+public class BenchmarkService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 발송 실행기 모드별 처리량 비교
+     *
+     * 게이트웨이 지연을 sleep 으로 흉내 낸 작업 taskCount 개를 fixed / virtual 모드에서 각각 실행하고
+     * 초당 처리 건수를 측정한다. 두 모드 모두 같은 시드의 지연 분포를 사용한다. DB 는 사용하지 않는다.
+     * 가상 스레드가 없는 런타임에서는 virtual 요청도 fixed 로 실행되며 결과의 requestedMode / mode 로 구분된다.
+     */
+    public List<Map<String, Object>> runDeliveryExecutorBenchmark(int taskCount, int minLatencyMs, int maxLatencyMs,
+                                                                 int poolSize, int maxConcurrency) throws InterruptedException {
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (String mode : List.of(DeliveryExecutor.MODE_FIXED, DeliveryExecutor.MODE_VIRTUAL)) {
+            DeliveryExecutor executor = new DeliveryExecutor(mode, poolSize, maxConcurrency);
+            try {
+                long[] latencies = latencies(taskCount, minLatencyMs, maxLatencyMs);
+                CountDownLatch done = new CountDownLatch(taskCount);
+                long started = System.nanoTime();
+                for (long latency : latencies) {
+                    executor.execute(() -> {
+                        try {
+                            Thread.sleep(latency);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } finally {
+                            done.countDown();
+                        }
+                    });
+                }
+                done.await();
+                double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+                Map<String, Object> result = new HashMap<>(executor.getStats());
+                result.remove("activeCount");
+                result.put("tasks", taskCount);
+                result.put("elapsedMs", Math.round(seconds * 1000));
+                result.put("deliveriesPerSecond", Math.round(taskCount / seconds * 10.0) / 10.0);
+                results.add(result);
+            } finally {
+                executor.shutdown();
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 기본키 UUID 방식별 삽입 비교 (uuid2 무작위 vs UUIDv7)
+     *
+     * 방식마다 임시 테이블을 만들어 rows 건을 batchSize 단위로 삽입하고 초당 삽입 건수를 측정한다.
+     * 먼저 실행되는 쪽이 JIT/커넥션 예열 비용을 떠안지 않도록 두 방식 모두 측정 없이 한 번 예열하고,
+     * uuid2 -> uuid7 -> uuid7 -> uuid2 순서로 두 번씩 측정해 합산한다.
+     * PostgreSQL 에서는 기본키 인덱스 크기도 함께 반환한다. 측정 후 테이블은 삭제된다.
+     */
+    public List<Map<String, Object>> runUuidInsertBenchmark(int rows, int batchSize) {
+        Map<String, Supplier<UUID>> strategies = new LinkedHashMap<>();
+        strategies.put("uuid2", UUID::randomUUID);
+        strategies.put("uuid7", UuidV7Generator::generate);
+
+        for (Map.Entry<String, Supplier<UUID>> strategy : strategies.entrySet()) {
+            String table = "bench_ids_" + strategy.getKey();
+            try {
+                insertIds(table, strategy.getValue(), Math.min(rows, 1000), batchSize);
+            } finally {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+            }
+        }
+
+        List<String> order = new ArrayList<>(strategies.keySet());
+        List<String> reversed = new ArrayList<>(order);
+        Collections.reverse(reversed);
+        order.addAll(reversed);
+
+        boolean postgres = isPostgres();
+        Map<String, Long> elapsedNanos = new HashMap<>();
+        Map<String, Long> indexBytes = new HashMap<>();
+        for (String name : order) {
+            String table = "bench_ids_" + name;
+            try {
+                elapsedNanos.merge(name, insertIds(table, strategies.get(name), rows, batchSize), Long::sum);
+                if (postgres) {
+                    indexBytes.put(name, jdbcTemplate.queryForObject("SELECT pg_relation_size('" + table + "_pkey')", Long.class));
+                }
+            } finally {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+            }
+        }
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (String name : strategies.keySet()) {
+            double seconds = elapsedNanos.get(name) / 1_000_000_000.0;
+            Map<String, Object> result = new HashMap<>();
+            result.put("strategy", name);
+            result.put("rows", rows);
+            result.put("batchSize", batchSize);
+            result.put("runs", 2);
+            result.put("elapsedMs", Math.round(seconds * 1000 / 2));
+            result.put("rowsPerSecond", Math.round(rows * 2 / seconds));
+            if (postgres) {
+                result.put("primaryKeyIndexBytes", indexBytes.get(name));
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * 새 테이블에 rows 건을 삽입하고 걸린 시간(ns)을 돌려준다. 테이블은 호출자가 삭제한다.
+     */
+    private long insertIds(String table, Supplier<UUID> ids, int rows, int batchSize) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+        jdbcTemplate.execute("CREATE TABLE " + table + " (id uuid PRIMARY KEY, payload varchar(64), created_at timestamp)");
+        long started = System.nanoTime();
+        for (int offset = 0; offset < rows; offset += batchSize) {
+            int size = Math.min(batchSize, rows - offset);
+            List<Object[]> batch = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                batch.add(new Object[] {ids.get(), "payload-" + (offset + i), new Timestamp(System.currentTimeMillis())});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO " + table + " (id, payload, created_at) VALUES (?, ?, ?)", batch);
+        }
+        return System.nanoTime() - started;
+    }
+
+    /**
+     * 스트림 이벤트 발행 비용 비교 (구독자마다 직렬화 vs 한 번 직렬화 후 공유)
+     *
+     * 구독자 1 / 50 / 500 명에 대해 DELIVERY_CREATED 형태의 이벤트 events 건을 발행할 때
+     * 직렬화와 프레임 쓰기에 드는 시간을 잰다. 네트워크 대신 메모리 버퍼에 쓴다.
+     */
+    public List<Map<String, Object>> runStreamPublishBenchmark(int events) {
+        List<Map<String, Object>> payloads = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("type", "DELIVERY_CREATED");
+            payload.put("id", UUID.randomUUID());
+            payload.put("campaignId", UUID.randomUUID());
+            payload.put("companyId", UUID.randomUUID());
+            payload.put("customerId", UUID.randomUUID());
+            payload.put("status", "SENT");
+            payload.put("createdAt", LocalDateTime.now());
+            payloads.add(payload);
+        }
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (int subscribers : List.of(1, 50, 500)) {
+            ByteArrayOutputStream sink = new ByteArrayOutputStream();
+            // JIT 예열
+            publishPerSubscriber(payloads.subList(0, Math.min(100, events)), subscribers, sink);
+            publishEncodedOnce(payloads.subList(0, Math.min(100, events)), subscribers, sink);
+
+            long started = System.nanoTime();
+            long perSubscriberBytes = publishPerSubscriber(payloads, subscribers, sink);
+            long perSubscriberNanos = System.nanoTime() - started;
+
+            started = System.nanoTime();
+            long encodedOnceBytes = publishEncodedOnce(payloads, subscribers, sink);
+            long encodedOnceNanos = System.nanoTime() - started;
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("subscribers", subscribers);
+            result.put("events", events);
+            result.put("perSubscriberMicrosPerPublish", Math.round(perSubscriberNanos / 1000.0 / events * 100.0) / 100.0);
+            result.put("encodedOnceMicrosPerPublish", Math.round(encodedOnceNanos / 1000.0 / events * 100.0) / 100.0);
+            result.put("speedup", Math.round((double) perSubscriberNanos / Math.max(1, encodedOnceNanos) * 100.0) / 100.0);
+            result.put("bytesWritten", Map.of("perSubscriber", perSubscriberBytes, "encodedOnce", encodedOnceBytes));
+            results.add(result);
+        }
+        return results;
+    }
+
+    /** 변경 전: 구독자마다 payload 를 다시 직렬화 */
+    private static long publishPerSubscriber(List<Map<String, Object>> payloads, int subscribers, ByteArrayOutputStream sink) {
+        long bytes = 0;
+        long eventId = 0;
+        for (Map<String, Object> payload : payloads) {
+            eventId++;
+            for (int i = 0; i < subscribers; i++) {
+                byte[] frame = DeliveryStreamEvent.frame(eventId, "delivery", DeliveryStreamEvent.encode(payload));
+                sink.reset();
+                sink.writeBytes(frame);
+                bytes += frame.length;
+            }
+        }
+        return bytes;
+    }
+
+    /** 변경 후: 이벤트당 한 번 직렬화한 프레임을 모든 구독자가 공유 */
+    private static long publishEncodedOnce(List<Map<String, Object>> payloads, int subscribers, ByteArrayOutputStream sink) {
+        long bytes = 0;
+        long eventId = 0;
+        for (Map<String, Object> payload : payloads) {
+            DeliveryStreamEvent event = new DeliveryStreamEvent(++eventId, payload);
+            for (int i = 0; i < subscribers; i++) {
+                byte[] frame = event.getFrame();
+                sink.reset();
+                sink.writeBytes(frame);
+                bytes += frame.length;
+            }
+        }
+        return bytes;
+    }
+
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute((Connection connection) -> connection.getMetaData().getDatabaseProductName());
+        return product != null && product.toLowerCase().contains("postgres");
+    }
+
+    private static long[] latencies(int count, int minMs, int maxMs) {
+        Random random = new Random(42);
+        long[] latencies = new long[count];
+        for (int i = 0; i < count; i++) {
+            latencies[i] = minMs + (long) (random.nextDouble() * Math.max(0, maxMs - minMs));
+        }
+        return latencies;
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.demo.service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 캠페인 비동기 발송 작업
+ *
+ * 발송 진행 상황(전체/성공/실패/대기 건수)과 일시정지/취소 상태를 보관한다.
+ * 상태 전이는 이 객체의 모니터로 보호된다. 이 객체는 상태만 바꾸고, CampaignSendJobService 의 코디네이터가
+ * 이를 발송 대기열에 반영한다. 일시정지는 아직 가져가지 않은 행을 HELD 로 보류하고 재개 시 PENDING 으로 되돌리며,
+ * 취소는 그 행들을 삭제한다. 이미 디스패처가 가져간 행은 그대로 발송된다.
+ */
+public class CampaignSendJob {
+
+    public enum JobStatus {
+        QUEUED, RUNNING, PAUSED, CANCELLED, COMPLETED, FAILED
+    }
+
+    private final UUID id;
+    private final UUID campaignId;
+    private final LocalDateTime createdAt;
+
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong skippedCount = new AtomicLong();
+
+    private volatile JobStatus status = JobStatus.QUEUED;
+    private volatile String campaignName;
+    private volatile long totalCount;
+    private volatile String message;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+
+    public CampaignSendJob(UUID campaignId) {
+        this.id = UUID.randomUUID();
+        this.campaignId = campaignId;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getCampaignId() {
+        return campaignId;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * 빈도 제한으로 발송하지 않은 건수
+     */
+    public long getSkippedCount() {
+        return skippedCount.get();
+    }
+
+    public long getPendingCount() {
+        return Math.max(0, totalCount - sentCount.get() - failedCount.get() - skippedCount.get());
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * 작업 종료 여부 (취소된 작업은 제출된 발송이 모두 끝나야 종료)
+     */
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    public boolean isCancelled() {
+        return status == JobStatus.CANCELLED;
+    }
+
+    public boolean isPaused() {
+        return status == JobStatus.PAUSED;
+    }
+
+    synchronized void start(String campaignName, long totalCount) {
+        this.campaignName = campaignName;
+        this.totalCount = totalCount;
+        this.startedAt = LocalDateTime.now();
+        this.startedNanos = System.nanoTime();
+        if (status == JobStatus.QUEUED) {
+            status = JobStatus.RUNNING;
+        }
+    }
+
+    void recordSent() {
+        sentCount.incrementAndGet();
+    }
+
+    void recordFailed() {
+        failedCount.incrementAndGet();
+    }
+
+    void recordSkipped() {
+        skippedCount.incrementAndGet();
+    }
+
+    /**
+     * 일시정지 (실행 중/대기 중일 때만)
+     */
+    public synchronized boolean pause() {
+        if (status == JobStatus.RUNNING || status == JobStatus.QUEUED) {
+            status = JobStatus.PAUSED;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 재개 (일시정지 상태일 때만)
+     */
+    public synchronized boolean resume() {
+        if (status == JobStatus.PAUSED) {
+            status = startedAt != null ? JobStatus.RUNNING : JobStatus.QUEUED;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 취소 (아직 끝나지 않았을 때만). 제출되지 않은 대상은 발송되지 않는다.
+     */
+    public synchronized boolean cancel() {
+        if (isFinished() || status == JobStatus.CANCELLED) {
+            return false;
+        }
+        status = JobStatus.CANCELLED;
+        message = "발송이 취소되었습니다.";
+        return true;
+    }
+
+    synchronized void finish(JobStatus finalStatus, String message) {
+        if (status != JobStatus.CANCELLED) {
+            status = finalStatus;
+            this.message = message;
+        }
+        finishedAt = LocalDateTime.now();
+        finishedNanos = System.nanoTime();
+    }
+
+    /**
+     * 초당 처리 건수
+     */
+    public double getThroughput() {
+        if (startedNanos == 0) {
+            return 0.0;
+        }
+        long end = finishedNanos != 0 ? finishedNanos : System.nanoTime();
+        double seconds = (end - startedNanos) / 1_000_000_000.0;
+        if (seconds <= 0) {
+            return 0.0;
+        }
+        return Math.round((sentCount.get() + failedCount.get()) / seconds * 100.0) / 100.0;
+    }
+
+    /**
+     * API 응답용 스냅샷
+     */
+    public Map<String, Object> toMap() {
+        long sent = sentCount.get();
+        long failed = failedCount.get();
+        long skipped = skippedCount.get();
+        long total = totalCount;
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("jobId", id);
+        result.put("campaignId", campaignId);
+        result.put("campaignName", campaignName);
+        result.put("status", status.name());
+        result.put("totalDeliveries", total);
+        result.put("sentCount", sent);
+        result.put("failedCount", failed);
+        result.put("skippedCount", skipped);
+        result.put("pendingCount", Math.max(0, total - sent - failed - skipped));
+        result.put("successRate", sent + failed > 0 ? (double) sent / (sent + failed) * 100 : 0.0);
+        result.put("throughputPerSecond", getThroughput());
+        result.put("createdAt", createdAt);
+        result.put("startedAt", startedAt);
+        result.put("finishedAt", finishedAt);
+        result.put("message", message);
+        return result;
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Campaign;
+import com.example.demo.entity.Customer;
+import com.example.demo.service.CampaignSendJob.JobStatus;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 캠페인 비동기 발송 작업 관리
+ *
+ * 발송 요청은 작업 ID 를 즉시 반환하고, 작업별 코디네이터 스레드가 대상 고객을 발송 대기열(delivery_outbox)에
+ * 일괄 저장한 뒤 대기열이 비워질 때까지 기다린다. 실제 발송은 DeliveryOutboxDispatcher 가 대기열에서 가져가 처리한다.
+ * 일시정지는 남은 대기열 행을 보류(HELD)하고, 취소는 아직 가져가지 않은 행을 삭제한다.
+ *
+ * 대기열 저장과 캠페인의 작업 표시(sendJobId)는 한 트랜잭션이라, 표시가 남아 있는 한 대기열도 남아 있다.
+ * 재시작 등으로 코디네이터가 없어진 작업은 finishDrainedCampaigns() 가 대기열이 빈 것을 확인하고
+ * DB 의 발송 결과로 캠페인을 종료한다. 대기열이나 표시가 남은 캠페인은 다시 시작할 수 없다.
+ */
+@Service
+public class CampaignSendJobService {
+
+    @Autowired
+    private DeliveryService deliveryService;
+
+    @Autowired
+    private DeliveryOutboxService deliveryOutboxService;
+
+    @Autowired
+    private DeliveryOutboxDispatcher deliveryOutboxDispatcher;
+
+    private final long drainCheckIntervalMs;
+    private final int retainedJobs;
+
+    private final Map<UUID, CampaignSendJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger threadCounter = new AtomicInteger();
+    private final ExecutorService coordinatorExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "send-job-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CampaignSendJobService(@Value("${marketreach.send-job.drain-check-interval-ms:200}") long drainCheckIntervalMs,
+                                  @Value("${marketreach.send-job.retained-jobs:100}") int retainedJobs) {
+        this.drainCheckIntervalMs = drainCheckIntervalMs;
+        this.retainedJobs = retainedJobs;
+    }
+
+    /**
+     * 캠페인 발송 작업 시작 (즉시 반환)
+     */
+    public CampaignSendJob startJob(UUID campaignId) {
+        // 존재하지 않거나 이전 발송이 끝나지 않은 캠페인은 요청 스레드에서 바로 오류 처리
+        Campaign campaign = deliveryService.getCampaignForSend(campaignId);
+        if (campaign.getSendJobId() != null || deliveryOutboxService.countRemainingForCampaign(campaignId) > 0) {
+            throw new RuntimeException("이전 발송이 아직 끝나지 않은 캠페인입니다.");
+        }
+
+        CampaignSendJob job;
+        synchronized (jobs) {
+            boolean alreadyRunning = jobs.values().stream()
+                    .anyMatch(existing -> existing.getCampaignId().equals(campaignId) && !existing.isFinished());
+            if (alreadyRunning) {
+                throw new RuntimeException("이미 발송 중인 캠페인입니다.");
+            }
+            job = new CampaignSendJob(campaignId);
+            jobs.put(job.getId(), job);
+            evictFinishedJobs();
+        }
+
+        CampaignSendJob submitted = job;
+        coordinatorExecutor.execute(() -> run(submitted));
+        return job;
+    }
+
+    /**
+     * 작업 조회
+     */
+    public Optional<CampaignSendJob> getJob(UUID jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * 전체 작업 조회 (최근 생성 순)
+     */
+    public List<CampaignSendJob> getJobs() {
+        List<CampaignSendJob> result = new ArrayList<>(jobs.values());
+        result.sort(Comparator.comparing(CampaignSendJob::getCreatedAt).reversed());
+        return result;
+    }
+
+    public boolean cancel(UUID jobId) {
+        CampaignSendJob job = jobs.get(jobId);
+        return job != null && job.cancel();
+    }
+
+    public boolean pause(UUID jobId) {
+        CampaignSendJob job = jobs.get(jobId);
+        return job != null && job.pause();
+    }
+
+    public boolean resume(UUID jobId) {
+        CampaignSendJob job = jobs.get(jobId);
+        return job != null && job.resume();
+    }
+
+    private void run(CampaignSendJob job) {
+        try {
+            Campaign campaign = deliveryService.getCampaignForSend(job.getCampaignId());
+            if (campaign.getTargetingLocation() == null) {
+                job.start(campaign.getName(), 0);
+                job.finish(JobStatus.COMPLETED, "타겟팅 위치가 설정되지 않았습니다.");
+                return;
+            }
+
+            List<Customer> targetCustomers = deliveryService.resolveTargetCustomers(campaign);
+            job.start(campaign.getName(), targetCustomers.size());
+            if (targetCustomers.isEmpty()) {
+                job.finish(JobStatus.COMPLETED, "타겟 고객이 없습니다.");
+                return;
+            }
+
+            deliveryOutboxDispatcher.register(job);
+            try {
+                deliveryOutboxService.enqueue(campaign, job.getId(), targetCustomers);
+                awaitDrained(job);
+            } finally {
+                deliveryOutboxDispatcher.unregister(job.getId());
+            }
+            deliveryService.flushPendingDeliveries();
+
+            if (job.isCancelled()) {
+                deliveryService.releaseCampaignSend(campaign.getId(), job.getId());
+                job.finish(JobStatus.CANCELLED, null);
+                System.out.println("캠페인 발송 취소: " + campaign.getName() + " (" + job.getSentCount() + "/" + job.getTotalCount() + ")");
+                return;
+            }
+
+            // 캠페인 상태는 이 노드의 집계가 아니라 DB 의 발송 결과로 정한다 (다른 노드가 먼저 종료했으면 null)
+            String campaignStatus = deliveryService.finishCampaignSend(campaign.getId(), job.getId());
+            job.finish(JobStatus.COMPLETED, "캠페인 발송이 완료되었습니다.");
+
+            long processed = job.getSentCount() + job.getFailedCount();
+            System.out.println("발송 결과 (이 노드, 캠페인 상태 " + (campaignStatus != null ? campaignStatus : "다른 노드에서 반영") + "):");
+            System.out.println("- 총 발송: " + processed + "건");
+            System.out.println("- 성공: " + job.getSentCount() + "건");
+            System.out.println("- 실패: " + job.getFailedCount() + "건");
+            System.out.println("- 빈도 제한 제외: " + job.getSkippedCount() + "건");
+            System.out.println("- 처리량: " + job.getThroughput() + "건/초");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish(JobStatus.FAILED, "발송 작업이 중단되었습니다.");
+        } catch (Exception e) {
+            System.err.println("캠페인 발송 작업 중 오류: " + e.getMessage());
+            job.finish(JobStatus.FAILED, "캠페인 발송 중 오류가 발생했습니다: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 작업의 대기열 행이 모두 처리되고 이 노드의 결과 반영이 끝날 때까지 대기.
+     * 기다리는 동안 일시정지/재개/취소를 대기열에 반영한다.
+     */
+    private void awaitDrained(CampaignSendJob job) throws InterruptedException {
+        boolean held = false;
+        boolean cancelled = false;
+        while (true) {
+            if (job.isCancelled() && !cancelled) {
+                deliveryOutboxService.cancel(job.getId());
+                cancelled = true;
+            } else if (!cancelled && job.isPaused() != held) {
+                held = job.isPaused();
+                deliveryOutboxService.hold(job.getId(), held);
+            }
+            if (deliveryOutboxService.countRemaining(job.getId()) == 0
+                    && deliveryOutboxDispatcher.getInFlight(job.getId()) == 0) {
+                return;
+            }
+            Thread.sleep(drainCheckIntervalMs);
+        }
+    }
+
+    /**
+     * 코디네이터가 없는 발송 작업(재시작 전 작업, 다른 노드가 죽은 작업) 중 대기열이 빈 것을 종료 처리
+     */
+    @Scheduled(fixedDelayString = "${marketreach.send-job.sweep-interval-ms:10000}")
+    public void finishDrainedCampaigns() {
+        for (Object[] row : deliveryService.findSendingCampaigns()) {
+            UUID campaignId = (UUID) row[0];
+            UUID jobId = (UUID) row[1];
+            CampaignSendJob local = jobs.get(jobId);
+            if (local != null && !local.isFinished()) {
+                continue;
+            }
+            if (deliveryOutboxService.countRemaining(jobId) > 0 || deliveryOutboxDispatcher.getInFlight(jobId) > 0) {
+                continue;
+            }
+            String status = deliveryService.finishCampaignSend(campaignId, jobId);
+            if (status != null) {
+                System.out.println("코디네이터 없는 발송 작업 종료: 캠페인 " + campaignId + " -> " + status);
+            }
+        }
+    }
+
+    /**
+     * 종료된 작업이 retainedJobs 를 넘으면 오래된 것부터 제거
+     */
+    private void evictFinishedJobs() {
+        List<CampaignSendJob> finished = jobs.values().stream()
+                .filter(CampaignSendJob::isFinished)
+                .sorted(Comparator.comparing(CampaignSendJob::getFinishedAt))
+                .toList();
+        for (int i = 0; i < finished.size() - retainedJobs; i++) {
+            jobs.remove(finished.get(i).getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinatorExecutor.shutdownNow();
+    }
+}
@@ -20,6 +20,9 @@ public class CampaignService {
     @Autowired
     private CampaignRepository campaignRepository;
 
+    @Autowired
+    private DeliveryCounterService deliveryCounterService;
+
     public Campaign createCampaign(Campaign campaign) {
         return campaignRepository.save(campaign);
     }
@@ -104,6 +107,7 @@ public class CampaignService {
                     // 이 부분은 DeliveryService를 주입받아서 처리하는 것이 좋지만,
                     // 현재는 간단히 JPA의 cascade 설정을 활용
                     campaignRepository.delete(campaign);
+                    deliveryCounterService.rebuild();
                 }
                 
                 System.out.println("CampaignService - 캠페인 및 관련 데이터 삭제 완료");
@@ -143,10 +147,7 @@ public class CampaignService {
      * 최근 캠페인 조회
      */
     public List<Campaign> getRecentCampaigns() {
-        return campaignRepository.findAll().stream()
-                .sorted((c1, c2) -> c2.getCreatedAt().compareTo(c1.getCreatedAt()))
-                .limit(10)
-                .toList();
+        return campaignRepository.findTop10ByOrderByCreatedAtDesc();
     }
     
     /**
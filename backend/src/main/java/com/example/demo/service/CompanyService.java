@@ -17,6 +17,9 @@ public class CompanyService {
     @Autowired
     private CompanyRepository companyRepository;
     
+    @Autowired
+    private DeliveryCounterService deliveryCounterService;
+    
     /**
      * 회사 생성
      */
@@ -76,6 +79,8 @@ public class CompanyService {
     public void deleteCompany(UUID id) {
         if (companyRepository.existsById(id)) {
             companyRepository.deleteById(id);
+            // 회사 삭제 시 캠페인/발송 데이터도 함께 삭제되므로 카운터를 다시 만든다
+            deliveryCounterService.rebuild();
         } else {
             throw new RuntimeException("회사를 찾을 수 없습니다: " + id);
         }
@@ -0,0 +1,120 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.CustomerRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opencsv.CSVWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 고객 전체 내보내기 (NDJSON / CSV)
+ *
+ * 트랜잭션 안에서 고정 fetch size 로 고객 행을 스트림으로 읽어 응답 스트림에 바로 쓴다.
+ * 엔티티 대신 값 배열을 읽으므로 영속성 컨텍스트가 커지지 않고, 고객 수와 무관하게 메모리 사용량이 일정하다.
+ * CSV 헤더는 일괄 등록(CustomerImportService)과 같아 내보낸 파일을 그대로 다시 등록할 수 있다.
+ */
+@Service
+public class CustomerExportService {
+
+    private static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+    private static final DateTimeFormatter CREATED_AT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String[] CSV_HEADER = {"id", "name", "phone", "lat", "lng", "dong_code", "created_at"};
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * 한 줄에 고객 하나씩 JSON 으로 쓴다 (필드는 고객 조회 API 와 동일)
+     */
+    public long writeNdjson(OutputStream out) throws IOException {
+        JsonGenerator generator = OBJECT_MAPPER.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        long count = forEachRow(row -> {
+            generator.writeStartObject();
+            generator.writeObjectField("id", row[0]);
+            generator.writeObjectField("name", row[1]);
+            generator.writeObjectField("phone", row[2]);
+            generator.writeObjectField("lat", row[3]);
+            generator.writeObjectField("lng", row[4]);
+            generator.writeObjectField("dongCode", row[5]);
+            generator.writeObjectField("createdAt", formatCreatedAt(row[6]));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        });
+        generator.flush();
+        return count;
+    }
+
+    /**
+     * CSV 로 쓴다 (UTF-8 BOM 포함, 엑셀에서 한글이 깨지지 않도록)
+     */
+    public long writeCsv(OutputStream out) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write('\uFEFF');
+        CSVWriter csv = new CSVWriter(writer);
+        csv.writeNext(CSV_HEADER, false);
+        long count = forEachRow(row -> csv.writeNext(new String[] {
+                String.valueOf(row[0]),
+                (String) row[1],
+                (String) row[2],
+                String.valueOf(row[3]),
+                String.valueOf(row[4]),
+                row[5] != null ? (String) row[5] : "",
+                formatCreatedAt(row[6])
+        }, false));
+        csv.flush();
+        if (csv.checkError()) {
+            throw new IOException("CSV 쓰기 중 오류가 발생했습니다.");
+        }
+        return count;
+    }
+
+    private long forEachRow(RowWriter rowWriter) throws IOException {
+        try {
+            Long count = transactionTemplate.execute(status -> {
+                long written = 0;
+                try (Stream<Object[]> rows = customerRepository.streamAllRows()) {
+                    Iterator<Object[]> iterator = rows.iterator();
+                    while (iterator.hasNext()) {
+                        rowWriter.write(iterator.next());
+                        written++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return written;
+            });
+            return count != null ? count : 0;
+        } catch (UncheckedIOException e) {
+            // 클라이언트가 연결을 끊은 경우 등
+            throw e.getCause();
+        }
+    }
+
+    private static String formatCreatedAt(Object value) {
+        return value instanceof LocalDateTime createdAt ? createdAt.format(CREATED_AT_FORMAT) : null;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(Object[] row) throws IOException;
+    }
+}
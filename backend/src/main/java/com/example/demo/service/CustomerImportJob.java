@@ -0,0 +1,170 @@
+package com.example.demo.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 고객 CSV 일괄 등록 작업
+ *
+ * 읽은 바이트/행 수와 등록/중복/오류 건수를 보관한다.
+ * 행 오류는 maxErrors 건까지만 상세 내용을 남기고 이후는 건수만 센다.
+ */
+public class CustomerImportJob {
+
+    public enum JobStatus {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final UUID id;
+    private final String fileName;
+    private final long totalBytes;
+    private final int maxErrors;
+    private final LocalDateTime createdAt;
+
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong importedCount = new AtomicLong();
+    private final AtomicLong duplicateCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final List<Map<String, Object>> errors = new ArrayList<>();
+
+    private volatile JobStatus status = JobStatus.QUEUED;
+    private volatile String message;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+
+    public CustomerImportJob(String fileName, long totalBytes, int maxErrors) {
+        this.id = UUID.randomUUID();
+        this.fileName = fileName;
+        this.totalBytes = totalBytes;
+        this.maxErrors = maxErrors;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+
+    public long getImportedCount() {
+        return importedCount.get();
+    }
+
+    public long getDuplicateCount() {
+        return duplicateCount.get();
+    }
+
+    public long getErrorCount() {
+        return errorCount.get();
+    }
+
+    void start() {
+        startedAt = LocalDateTime.now();
+        startedNanos = System.nanoTime();
+        status = JobStatus.RUNNING;
+    }
+
+    void updateProgress(long bytesRead, long rowsRead) {
+        this.bytesRead.set(bytesRead);
+        this.rowsRead.set(rowsRead);
+    }
+
+    void recordImported(long count) {
+        importedCount.addAndGet(count);
+    }
+
+    void recordDuplicate() {
+        duplicateCount.incrementAndGet();
+    }
+
+    /**
+     * 행 오류 기록 (line 은 헤더를 1 로 하는 CSV 레코드 번호)
+     */
+    void recordError(long line, String message) {
+        errorCount.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxErrors) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("line", line);
+                error.put("message", message);
+                errors.add(error);
+            }
+        }
+    }
+
+    void finish(JobStatus finalStatus, String message) {
+        this.message = message;
+        finishedAt = LocalDateTime.now();
+        finishedNanos = System.nanoTime();
+        status = finalStatus;
+    }
+
+    /**
+     * 초당 처리 행 수
+     */
+    public double getRowsPerSecond() {
+        if (startedNanos == 0) {
+            return 0.0;
+        }
+        long end = finishedNanos != 0 ? finishedNanos : System.nanoTime();
+        double seconds = (end - startedNanos) / 1_000_000_000.0;
+        if (seconds <= 0) {
+            return 0.0;
+        }
+        return Math.round(rowsRead.get() / seconds * 100.0) / 100.0;
+    }
+
+    /**
+     * API 응답용 스냅샷
+     */
+    public Map<String, Object> toMap() {
+        long read = bytesRead.get();
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("jobId", id);
+        result.put("fileName", fileName);
+        result.put("status", status.name());
+        result.put("totalBytes", totalBytes);
+        result.put("bytesRead", read);
+        result.put("progress", totalBytes > 0 ? Math.min(100.0, Math.round(read * 10000.0 / totalBytes) / 100.0) : 0.0);
+        result.put("rowsRead", rowsRead.get());
+        result.put("importedCount", importedCount.get());
+        result.put("duplicateCount", duplicateCount.get());
+        result.put("errorCount", errorCount.get());
+        synchronized (errors) {
+            result.put("errors", new ArrayList<>(errors));
+        }
+        result.put("rowsPerSecond", getRowsPerSecond());
+        result.put("createdAt", createdAt);
+        result.put("startedAt", startedAt);
+        result.put("finishedAt", finishedAt);
+        result.put("message", message);
+        return result;
+    }
+}
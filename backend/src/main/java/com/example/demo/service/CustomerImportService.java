@@ -0,0 +1,372 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Customer;
+import com.example.demo.repository.CustomerRepository;
+import com.example.demo.service.CustomerImportJob.JobStatus;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.exceptions.CsvMalformedLineException;
+import com.opencsv.exceptions.CsvValidationException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 고객 CSV 일괄 등록
+ *
+ * 업로드 파일을 임시 파일로 옮긴 뒤 작업 ID 를 즉시 반환하고, 전용 스레드가 opencsv 로 한 행씩 읽는다.
+ * batchSize 건마다 파일 내 중복과 기존 고객 전화번호를 걸러낸 뒤 한 트랜잭션에서 saveAll 로 저장하므로
+ * 메모리에는 한 배치만 올라간다. 저장된 고객은 공간 인덱스, 셀 히스토그램, 도달 수 캐시에도 바로 반영된다.
+ *
+ * 헤더: name, phone, lat, lng, dong_code(선택). 헤더 이름은 대소문자를 구분하지 않으며 dongCode 도 허용한다.
+ * 값이 잘못된 행과 따옴표가 깨진 레코드는 작업을 멈추지 않고 행 오류로 기록한다.
+ */
+@Service
+public class CustomerImportService {
+
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 200;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerSpatialIndex customerSpatialIndex;
+
+    @Autowired
+    private ReachEstimateCache reachEstimateCache;
+
+    @Autowired
+    private CustomerReachHistogram customerReachHistogram;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+    private final int maxErrors;
+    private final int retainedJobs;
+
+    private final Map<UUID, CustomerImportJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService importExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "customer-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CustomerImportService(@Value("${marketreach.customer-import.batch-size:1000}") int batchSize,
+                                 @Value("${marketreach.customer-import.max-errors:100}") int maxErrors,
+                                 @Value("${marketreach.customer-import.retained-jobs:20}") int retainedJobs) {
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+        this.retainedJobs = retainedJobs;
+    }
+
+    /**
+     * CSV 등록 작업 시작 (즉시 반환, 작업은 순서대로 하나씩 실행)
+     */
+    public CustomerImportJob startImport(MultipartFile file) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new RuntimeException("업로드된 파일이 없습니다.");
+        }
+        Path tempFile = Files.createTempFile("customer-import-", ".csv");
+        try {
+            file.transferTo(tempFile);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+
+        CustomerImportJob job = new CustomerImportJob(file.getOriginalFilename(), Files.size(tempFile), maxErrors);
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+            evictFinishedJobs();
+        }
+        importExecutor.execute(() -> run(job, tempFile));
+        return job;
+    }
+
+    /**
+     * 작업 조회
+     */
+    public Optional<CustomerImportJob> getJob(UUID jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * 전체 작업 조회 (최근 생성 순)
+     */
+    public List<CustomerImportJob> getJobs() {
+        List<CustomerImportJob> result = new ArrayList<>(jobs.values());
+        result.sort(Comparator.comparing(CustomerImportJob::getCreatedAt).reversed());
+        return result;
+    }
+
+    private void run(CustomerImportJob job, Path file) {
+        job.start();
+        try (CountingInputStream input = new CountingInputStream(new BufferedInputStream(Files.newInputStream(file)));
+             CSVReader reader = new CSVReaderBuilder(new InputStreamReader(input, StandardCharsets.UTF_8)).build()) {
+
+            String[] header = reader.readNext();
+            if (header == null) {
+                job.finish(JobStatus.FAILED, "빈 파일입니다.");
+                return;
+            }
+            Map<String, Integer> columns = mapColumns(header);
+            for (String required : List.of("name", "phone", "lat", "lng")) {
+                if (!columns.containsKey(required)) {
+                    job.finish(JobStatus.FAILED, "필수 컬럼이 없습니다: " + required);
+                    return;
+                }
+            }
+
+            // 전화번호 -> (CSV 레코드 번호, 고객). 파일 내 중복은 먼저 나온 행을 남긴다
+            LinkedHashMap<String, PendingRow> batch = new LinkedHashMap<>();
+            long line = 1;
+            long malformedAt = -1;
+            while (true) {
+                String[] row;
+                try {
+                    row = reader.readNext();
+                } catch (CsvValidationException | CsvMalformedLineException e) {
+                    if (reader.getLinesRead() == malformedAt) {
+                        // 더 읽지 못하고 같은 자리에서 다시 실패하면 남은 내용은 복구할 수 없다
+                        break;
+                    }
+                    // 따옴표가 닫히지 않는 등 형식이 깨진 레코드도 행 오류로 세고 다음 레코드로 넘어간다
+                    line++;
+                    job.recordError(line, "CSV 형식 오류: " + abbreviate(e.getMessage()));
+                    malformedAt = reader.getLinesRead();
+                    continue;
+                }
+                if (row == null) {
+                    break;
+                }
+                line++;
+                if (row.length == 1 && row[0].isBlank()) {
+                    continue;
+                }
+                try {
+                    Customer customer = parseRow(row, columns);
+                    if (batch.putIfAbsent(customer.getPhone(), new PendingRow(line, customer)) != null) {
+                        job.recordDuplicate();
+                    }
+                } catch (RuntimeException e) {
+                    job.recordError(line, e.getMessage());
+                }
+                if (batch.size() >= batchSize) {
+                    writeBatch(job, batch);
+                    batch.clear();
+                }
+                job.updateProgress(input.getCount(), line - 1);
+            }
+            writeBatch(job, batch);
+            job.updateProgress(input.getCount(), line - 1);
+
+            job.finish(JobStatus.COMPLETED, "고객 일괄 등록이 완료되었습니다.");
+            System.out.println("고객 CSV 등록 완료: " + job.getRowsRead() + "행, 등록 " + job.getImportedCount()
+                    + "건, 중복 " + job.getDuplicateCount() + "건, 오류 " + job.getErrorCount() + "건 ("
+                    + job.getRowsPerSecond() + "행/초)");
+        } catch (Exception e) {
+            System.err.println("고객 CSV 등록 중 오류: " + e.getMessage());
+            job.finish(JobStatus.FAILED, "고객 일괄 등록 중 오류가 발생했습니다: " + e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {}
+        }
+    }
+
+    /**
+     * 기존 고객과 전화번호가 겹치는 행을 제외하고 한 트랜잭션으로 저장
+     */
+    private void writeBatch(CustomerImportJob job, LinkedHashMap<String, PendingRow> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Set<String> existing = new HashSet<>(customerRepository.findExistingPhones(batch.keySet()));
+        List<PendingRow> rows = new ArrayList<>(batch.size());
+        for (PendingRow row : batch.values()) {
+            if (existing.contains(row.customer.getPhone())) {
+                job.recordDuplicate();
+            } else {
+                rows.add(row);
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<Customer> customers = rows.stream().map(row -> row.customer).toList();
+        List<Customer> saved;
+        try {
+            saved = transactionTemplate.execute(status -> customerRepository.saveAll(customers));
+        } catch (Exception e) {
+            // 동시에 등록된 전화번호 등으로 배치 전체가 롤백되면 건별로 다시 저장한다
+            saved = new ArrayList<>(rows.size());
+            for (PendingRow row : rows) {
+                row.customer.setId(null);
+                try {
+                    saved.add(customerRepository.save(row.customer));
+                } catch (Exception rowError) {
+                    job.recordError(row.line, "저장 실패: " + rowError.getMessage());
+                }
+            }
+        }
+        job.recordImported(saved.size());
+        for (Customer customer : saved) {
+            customerSpatialIndex.put(customer);
+            customerReachHistogram.add(customer.getLat(), customer.getLng());
+            reachEstimateCache.invalidate(customer.getLat(), customer.getLng());
+        }
+    }
+
+    /**
+     * 오류 메시지 길이 제한 (opencsv 는 잃어버린 나머지 내용을 메시지에 붙인다)
+     */
+    private static String abbreviate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_MESSAGE_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_MESSAGE_LENGTH) + "...";
+    }
+
+    private Map<String, Integer> mapColumns(String[] header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            String name = header[i].replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            if (name.equals("dongcode")) {
+                name = "dong_code";
+            }
+            columns.putIfAbsent(name, i);
+        }
+        return columns;
+    }
+
+    private Customer parseRow(String[] row, Map<String, Integer> columns) {
+        String name = column(row, columns, "name");
+        String phone = column(row, columns, "phone");
+        if (name == null) {
+            throw new RuntimeException("이름이 비어 있습니다.");
+        }
+        if (phone == null) {
+            throw new RuntimeException("전화번호가 비어 있습니다.");
+        }
+        if (phone.length() > 255 || name.length() > 255) {
+            throw new RuntimeException("이름 또는 전화번호가 너무 깁니다.");
+        }
+        double lat = parseCoordinate(column(row, columns, "lat"), "위도", 90);
+        double lng = parseCoordinate(column(row, columns, "lng"), "경도", 180);
+        return new Customer(name, phone, lat, lng, column(row, columns, "dong_code"));
+    }
+
+    private double parseCoordinate(String value, String label, double limit) {
+        if (value == null) {
+            throw new RuntimeException(label + "가 비어 있습니다.");
+        }
+        double parsed;
+        try {
+            parsed = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException(label + " 형식이 올바르지 않습니다: " + value);
+        }
+        if (Double.isNaN(parsed) || Math.abs(parsed) > limit) {
+            throw new RuntimeException(label + " 범위를 벗어났습니다: " + value);
+        }
+        return parsed;
+    }
+
+    private String column(String[] row, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= row.length) {
+            return null;
+        }
+        String value = row[index].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * 종료된 작업이 retainedJobs 를 넘으면 오래된 것부터 제거
+     */
+    private void evictFinishedJobs() {
+        List<CustomerImportJob> finished = jobs.values().stream()
+                .filter(CustomerImportJob::isFinished)
+                .sorted(Comparator.comparing(CustomerImportJob::getFinishedAt))
+                .toList();
+        for (int i = 0; i < finished.size() - retainedJobs; i++) {
+            jobs.remove(finished.get(i).getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importExecutor.shutdownNow();
+    }
+
+    private record PendingRow(long line, Customer customer) {}
+
+    /**
+     * 진행률 계산용으로 읽은 바이트 수를 세는 스트림
+     */
+    private static class CountingInputStream extends FilterInputStream {
+
+        private volatile long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.CustomerRepository;
+import com.example.demo.util.GeoBounds;
+import com.example.demo.util.GeoGrid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * 격자 셀별 고객 수 히스토그램 (근사 도달 수 계산용)
+ *
+ * 위경도를 cellSizeDeg 크기의 셀로 나누어 셀마다 고객 수만 보관한다.
+ * 원에 완전히 들어가는 셀은 그대로 더하고, 경계에 걸친 셀은 셀 안 samples x samples 개 점 중
+ * 원 안에 든 비율(면적 비율 근사)만큼 더한다. 경계 셀의 실제 기여는 0 ~ 셀 고객 수 사이이므로
+ * 하한(완전 포함 셀 합)과 상한(하한 + 경계 셀 합)을 함께 돌려준다. 후보 셀은 원을 빠짐없이 덮는 GeoBounds 박스로 고르고,
+ * 셀 분류는 구면 위 최근접/최원점 근사 오차를 감안해 EDGE_TOLERANCE_M 만큼 경계 쪽으로 넓혀 판단한다.
+ *
+ * 시작 시 DB 에서 만들고, 이후 CustomerService / CustomerImportService 의 쓰기마다 셀 단위로 갱신된다.
+ */
+@Component
+public class CustomerReachHistogram {
+
+    /** 셀 최근접점/최원 꼭짓점 거리 근사 오차 여유 (m) */
+    private static final double EDGE_TOLERANCE_M = 0.5;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final GeoGrid grid;
+    private final double cellSizeDeg;
+    private final int samples;
+
+    private final Map<Long, Long> counts = new ConcurrentHashMap<>();
+
+    private volatile boolean ready = false;
+
+    public CustomerReachHistogram(@Value("${marketreach.reach-histogram.cell-size-deg:0.002}") double cellSizeDeg,
+                                  @Value("${marketreach.reach-histogram.boundary-samples:4}") int samples) {
+        this.grid = new GeoGrid(cellSizeDeg);
+        this.cellSizeDeg = cellSizeDeg;
+        this.samples = Math.max(1, samples);
+    }
+
+    /**
+     * DB 의 고객 위치로 히스토그램 재구성
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        ready = false;
+        counts.clear();
+        transactionTemplate.execute(status -> {
+            try (Stream<Object[]> rows = customerRepository.streamAllLocations()) {
+                rows.forEach(row -> add((Double) row[0], (Double) row[1]));
+            }
+            return null;
+        });
+        ready = true;
+        System.out.println("고객 셀 히스토그램 적재 완료: " + counts.size() + "개 셀, "
+                + (System.currentTimeMillis() - startedAt) + "ms");
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 고객 위치 추가
+     */
+    public void add(Double lat, Double lng) {
+        if (lat != null && lng != null) {
+            counts.merge(cellKey(lat, lng), 1L, Long::sum);
+        }
+    }
+
+    /**
+     * 고객 위치 제거
+     */
+    public void remove(Double lat, Double lng) {
+        if (lat != null && lng != null) {
+            counts.computeIfPresent(cellKey(lat, lng), (key, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    /**
+     * 원 안 고객 수 근사치와 오차 범위
+     */
+    public Map<String, Object> estimate(double lat, double lng, double radiusM) {
+        double[] box = GeoBounds.boundingBox(lat, lng, radiusM);
+        long[] range = grid.cellRange(box);
+
+        Accumulator acc = new Accumulator();
+        long boxCells = (range[1] - range[0] + 1) * (range[3] - range[2] + 1);
+        if (boxCells > counts.size()) {
+            // 반경이 매우 크면 상자 안 빈 셀까지 도는 대신 채워진 셀만 확인한다
+            counts.forEach((key, count) -> {
+                long x = GeoGrid.cellX(key);
+                long y = GeoGrid.cellY(key);
+                if (x >= range[0] && x <= range[1] && y >= range[2] && y <= range[3]) {
+                    acc.addCell(lat, lng, radiusM, x, y, count);
+                }
+            });
+        } else {
+            grid.forEachCell(box, (x, y, key) -> {
+                Long count = counts.get(key);
+                if (count != null) {
+                    acc.addCell(lat, lng, radiusM, x, y, count);
+                }
+            });
+        }
+
+        long estimate = Math.round(acc.full + acc.weighted);
+        long upperBound = acc.full + acc.boundary;
+        Map<String, Object> result = new HashMap<>();
+        result.put("mode", "approx");
+        result.put("estimate", estimate);
+        result.put("lowerBound", acc.full);
+        result.put("upperBound", upperBound);
+        result.put("errorBound", Math.max(estimate - acc.full, upperBound - estimate));
+        result.put("fullCells", acc.fullCells);
+        result.put("boundaryCells", acc.boundaryCells);
+        result.put("cellSizeDeg", cellSizeDeg);
+        return result;
+    }
+
+    /**
+     * 셀 수 (메모리 사용량 확인용)
+     */
+    public int size() {
+        return counts.size();
+    }
+
+    private long cellKey(double lat, double lng) {
+        return grid.cellKey(lat, lng);
+    }
+
+    /**
+     * 셀 분류 및 합산
+     */
+    private class Accumulator {
+        long full;
+        long boundary;
+        double weighted;
+        int fullCells;
+        int boundaryCells;
+
+        void addCell(double lat, double lng, double radiusM, long x, long y, long count) {
+            double south = x * cellSizeDeg;
+            double west = y * cellSizeDeg;
+            double north = south + cellSizeDeg;
+            double east = west + cellSizeDeg;
+
+            // 셀 안에서 중심과 가장 가까운 점 / 가장 먼 꼭짓점까지의 거리
+            double nearest = GeoBounds.distanceM(lat, lng,
+                    Math.min(Math.max(lat, south), north), Math.min(Math.max(lng, west), east));
+            if (nearest > radiusM + EDGE_TOLERANCE_M) {
+                return;
+            }
+            double farthest = GeoBounds.distanceM(lat, lng,
+                    Math.abs(lat - south) > Math.abs(lat - north) ? south : north,
+                    Math.abs(lng - west) > Math.abs(lng - east) ? west : east);
+            if (farthest <= radiusM - EDGE_TOLERANCE_M) {
+                full += count;
+                fullCells++;
+                return;
+            }
+
+            int inside = 0;
+            for (int i = 0; i < samples; i++) {
+                double sampleLat = south + (i + 0.5) * cellSizeDeg / samples;
+                for (int j = 0; j < samples; j++) {
+                    double sampleLng = west + (j + 0.5) * cellSizeDeg / samples;
+                    if (GeoBounds.distanceM(lat, lng, sampleLat, sampleLng) <= radiusM) {
+                        inside++;
+                    }
+                }
+            }
+            boundary += count;
+            boundaryCells++;
+            weighted += count * (double) inside / (samples * samples);
+        }
+    }
+}
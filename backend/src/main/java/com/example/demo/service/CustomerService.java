@@ -7,8 +7,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -17,11 +22,24 @@ public class CustomerService {
     @Autowired
     private CustomerRepository customerRepository;
     
+    @Autowired
+    private CustomerSpatialIndex customerSpatialIndex;
+    
+    @Autowired
+    private ReachEstimateCache reachEstimateCache;
+    
+    @Autowired
+    private CustomerReachHistogram customerReachHistogram;
+    
     /**
      * 고객 생성
      */
     public Customer createCustomer(Customer customer) {
-        return customerRepository.save(customer);
+        Customer saved = customerRepository.save(customer);
+        customerSpatialIndex.put(saved);
+        customerReachHistogram.add(saved.getLat(), saved.getLng());
+        reachEstimateCache.invalidate(saved.getLat(), saved.getLng());
+        return saved;
     }
     
     /**
@@ -70,15 +88,61 @@ public class CustomerService {
      * 위치 기반 고객 조회
      */
     public List<Customer> getCustomersNearLocation(Double lat, Double lng, Integer radiusM) {
+        if (customerSpatialIndex.isReady()) {
+            return customerSpatialIndex.findWithinRadius(lat, lng, radiusM).stream()
+                    .map(hit -> hit.getEntry().toCustomer())
+                    .toList();
+        }
         return customerRepository.findCustomersNearLocation(lat, lng, radiusM);
     }
     
+    /**
+     * 타겟팅 도형 안의 고객 조회 (중복 없음)
+     */
+    public List<Customer> getCustomersInShape(TargetingShape shape) {
+        if (customerSpatialIndex.isReady()) {
+            return customerSpatialIndex.findInShape(shape).stream()
+                    .map(CustomerSpatialIndex.Entry::toCustomer)
+                    .toList();
+        }
+        Map<UUID, Customer> customers = new LinkedHashMap<>();
+        for (double[] box : shape.coveringBoxes()) {
+            for (Customer customer : customerRepository.findInBoundingBox(box[0], box[1], box[2], box[3])) {
+                if (shape.contains(customer.getLat(), customer.getLng())) {
+                    customers.putIfAbsent(customer.getId(), customer);
+                }
+            }
+        }
+        return new ArrayList<>(customers.values());
+    }
+    
+    /**
+     * 타겟팅 도형 안의 고객 수 (중복 없음, 고객 목록을 만들지 않는다)
+     */
+    public long countCustomersInShape(TargetingShape shape) {
+        if (customerSpatialIndex.isReady()) {
+            return customerSpatialIndex.countInShape(shape);
+        }
+        Set<UUID> counted = new HashSet<>();
+        for (double[] box : shape.coveringBoxes()) {
+            for (Object[] row : customerRepository.findLocationsInBoundingBox(box[0], box[1], box[2], box[3])) {
+                if (row[1] != null && row[2] != null && shape.contains((Double) row[1], (Double) row[2])) {
+                    counted.add((UUID) row[0]);
+                }
+            }
+        }
+        return counted.size();
+    }
+    
     /**
      * 고객 정보 수정
      */
     public Customer updateCustomer(UUID id, Customer customerDetails) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("고객을 찾을 수 없습니다."));
+        // 히스토그램/캐시는 공간 인덱스 적재 여부와 관계없이 DB 의 이전 위치 기준으로 갱신한다
+        Double previousLat = customer.getLat();
+        Double previousLng = customer.getLng();
         
         customer.setName(customerDetails.getName());
         customer.setPhone(customerDetails.getPhone());
@@ -86,15 +150,26 @@ public class CustomerService {
         customer.setLng(customerDetails.getLng());
         customer.setDongCode(customerDetails.getDongCode());
         
-        return customerRepository.save(customer);
+        Customer saved = customerRepository.save(customer);
+        customerSpatialIndex.put(saved);
+        customerReachHistogram.remove(previousLat, previousLng);
+        reachEstimateCache.invalidate(previousLat, previousLng);
+        customerReachHistogram.add(saved.getLat(), saved.getLng());
+        reachEstimateCache.invalidate(saved.getLat(), saved.getLng());
+        return saved;
     }
     
     /**
      * 고객 삭제
      */
     public boolean deleteCustomer(UUID id) {
-        if (customerRepository.existsById(id)) {
+        Optional<Customer> existing = customerRepository.findById(id);
+        if (existing.isPresent()) {
+            Customer customer = existing.get();
             customerRepository.deleteById(id);
+            customerSpatialIndex.remove(id);
+            customerReachHistogram.remove(customer.getLat(), customer.getLng());
+            reachEstimateCache.invalidate(customer.getLat(), customer.getLng());
             return true;
         }
         return false;
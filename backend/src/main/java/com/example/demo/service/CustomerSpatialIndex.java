@@ -0,0 +1,299 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Customer;
+import com.example.demo.repository.CustomerRepository;
+import com.example.demo.util.GeoBounds;
+import com.example.demo.util.GeoGrid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * 고객 위치 공간 인덱스 (균등 격자)
+ *
+ * 위경도를 cellSizeDeg 크기의 격자 셀로 나누어 고객을 보관하고,
+ * 반경 조회 시 원을 감싸는 셀들만 확인한 뒤 정확한 거리로 걸러낸다.
+ * CustomerService 의 생성/수정/삭제 시점에 함께 갱신된다.
+ */
+@Component
+public class CustomerSpatialIndex {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private final GeoGrid grid;
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Entry>> cells = new ConcurrentHashMap<>();
+
+    private volatile boolean ready = false;
+
+    public CustomerSpatialIndex(@Value("${marketreach.spatial-index.cell-size-deg:0.01}") double cellSizeDeg) {
+        this.grid = new GeoGrid(cellSizeDeg);
+    }
+
+    /**
+     * 애플리케이션 기동 후 DB 에서 전체 고객 위치를 적재
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        ready = false;
+        entries.clear();
+        cells.clear();
+        for (Object[] row : customerRepository.findAllLocationRows()) {
+            Entry entry = new Entry((UUID) row[0], (String) row[1], (String) row[2],
+                    (Double) row[3], (Double) row[4], (String) row[5], (LocalDateTime) row[6]);
+            add(entry);
+        }
+        ready = true;
+        System.out.println("고객 공간 인덱스 적재 완료: " + entries.size() + "명, "
+                + cells.size() + "개 셀, " + (System.currentTimeMillis() - startedAt) + "ms");
+    }
+
+    /**
+     * 인덱스 적재 완료 여부 (적재 전에는 DB 조회로 대체해야 한다)
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 고객 추가 또는 위치 갱신. 이전 항목을 반환한다.
+     */
+    public Entry put(Customer customer) {
+        if (customer == null || customer.getId() == null || customer.getLat() == null || customer.getLng() == null) {
+            return null;
+        }
+        Entry entry = new Entry(customer.getId(), customer.getName(), customer.getPhone(),
+                customer.getLat(), customer.getLng(), customer.getDongCode(), customer.getCreatedAt());
+        Entry previous = entries.put(entry.id, entry);
+        if (previous != null) {
+            removeFromCell(previous);
+        }
+        cells.computeIfAbsent(cellKey(entry.lat, entry.lng), k -> ConcurrentHashMap.newKeySet()).add(entry);
+        return previous;
+    }
+
+    /**
+     * 고객 제거. 제거된 항목을 반환한다.
+     */
+    public Entry remove(UUID customerId) {
+        Entry previous = entries.remove(customerId);
+        if (previous != null) {
+            removeFromCell(previous);
+        }
+        return previous;
+    }
+
+    /**
+     * 반경 내 고객 조회 (거리 오름차순)
+     */
+    public List<Hit> findWithinRadius(double lat, double lng, double radiusM) {
+        List<Hit> hits = new ArrayList<>();
+        scan(lat, lng, radiusM, (entry, distance) -> hits.add(new Hit(entry, distance)));
+        hits.sort(Comparator.comparingDouble(Hit::getDistanceM));
+        return hits;
+    }
+
+    /**
+     * 반경 내 고객 수 (결과 목록을 만들지 않는다)
+     */
+    public long countWithinRadius(double lat, double lng, double radiusM) {
+        long[] count = new long[1];
+        scan(lat, lng, radiusM, (entry, distance) -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * 타겟팅 도형 안의 고객 조회. 도형의 바운딩 박스들이 덮는 셀을 한 번씩만 확인하므로
+     * 겹치는 도형이 있어도 고객이 중복되지 않는다.
+     */
+    public List<Entry> findInShape(TargetingShape shape) {
+        List<Entry> result = new ArrayList<>();
+        scanShape(shape, result::add);
+        return result;
+    }
+
+    /**
+     * 타겟팅 도형 안의 고객 수 (결과 목록을 만들지 않는다)
+     */
+    public long countInShape(TargetingShape shape) {
+        long[] count = new long[1];
+        scanShape(shape, entry -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * 전체 인덱스 고객 수
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 셀 크기 (도 단위)
+     */
+    public double getCellSizeDeg() {
+        return grid.getCellSizeDeg();
+    }
+
+    /**
+     * 좌표가 속한 셀 키
+     */
+    public long cellKey(double lat, double lng) {
+        return grid.cellKey(lat, lng);
+    }
+
+    /**
+     * 원을 감싸는 셀들만 확인해 반경 안의 고객마다 visitor 호출
+     * (반경이 커서 셀이 채워진 셀보다 많으면 채워진 셀만 훑는다)
+     */
+    private void scan(double lat, double lng, double radiusM, ObjDoubleConsumer<Entry> visitor) {
+        grid.forEachOccupiedCell(GeoBounds.boundingBox(lat, lng, radiusM), cells.keySet(), (x, y, key) -> {
+            Set<Entry> cell = cells.get(key);
+            if (cell == null) {
+                return;
+            }
+            for (Entry entry : cell) {
+                double distance = GeoBounds.distanceM(lat, lng, entry.lat, entry.lng);
+                if (distance <= radiusM) {
+                    visitor.accept(entry, distance);
+                }
+            }
+        });
+    }
+
+    /**
+     * 도형의 바운딩 박스들이 덮는 채워진 셀을 한 번씩만 확인해 도형 안의 고객마다 visitor 호출
+     * (visited 에는 채워진 셀만 들어가므로 인덱스 크기를 넘지 않는다)
+     */
+    private void scanShape(TargetingShape shape, Consumer<Entry> visitor) {
+        Set<Long> visited = new HashSet<>();
+        for (double[] box : shape.coveringBoxes()) {
+            grid.forEachOccupiedCell(box, cells.keySet(), (x, y, key) -> {
+                if (!visited.add(key)) {
+                    return;
+                }
+                Set<Entry> cell = cells.get(key);
+                if (cell == null) {
+                    return;
+                }
+                for (Entry entry : cell) {
+                    if (shape.contains(entry.lat, entry.lng)) {
+                        visitor.accept(entry);
+                    }
+                }
+            });
+        }
+    }
+
+    private void add(Entry entry) {
+        entries.put(entry.id, entry);
+        cells.computeIfAbsent(cellKey(entry.lat, entry.lng), k -> ConcurrentHashMap.newKeySet()).add(entry);
+    }
+
+    private void removeFromCell(Entry entry) {
+        long key = cellKey(entry.lat, entry.lng);
+        cells.computeIfPresent(key, (k, cell) -> {
+            cell.remove(entry);
+            return cell.isEmpty() ? null : cell;
+        });
+    }
+
+    /**
+     * 인덱스에 보관되는 고객 위치 스냅샷
+     */
+    public static final class Entry {
+        private final UUID id;
+        private final String name;
+        private final String phone;
+        private final double lat;
+        private final double lng;
+        private final String dongCode;
+        private final LocalDateTime createdAt;
+
+        Entry(UUID id, String name, String phone, double lat, double lng, String dongCode, LocalDateTime createdAt) {
+            this.id = id;
+            this.name = name;
+            this.phone = phone;
+            this.lat = lat;
+            this.lng = lng;
+            this.dongCode = dongCode;
+            this.createdAt = createdAt;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getPhone() {
+            return phone;
+        }
+
+        public double getLat() {
+            return lat;
+        }
+
+        public double getLng() {
+            return lng;
+        }
+
+        public String getDongCode() {
+            return dongCode;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        /**
+         * DB 조회 없이 사용할 수 있는 분리(detached) 고객 엔티티로 변환
+         */
+        public Customer toCustomer() {
+            Customer customer = new Customer(name, phone, lat, lng, dongCode);
+            customer.setId(id);
+            customer.setCreatedAt(createdAt);
+            return customer;
+        }
+    }
+
+    /**
+     * 반경 조회 결과 (고객 + 중심으로부터의 거리)
+     */
+    public static final class Hit {
+        private final Entry entry;
+        private final double distanceM;
+
+        Hit(Entry entry, double distanceM) {
+            this.entry = entry;
+            this.distanceM = distanceM;
+        }
+
+        public Entry getEntry() {
+            return entry;
+        }
+
+        public double getDistanceM() {
+            return distanceM;
+        }
+    }
+}
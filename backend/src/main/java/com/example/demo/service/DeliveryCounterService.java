@@ -0,0 +1,297 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Delivery;
+import com.example.demo.entity.Delivery.DeliveryStatus;
+import com.example.demo.repository.DeliveryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * 대시보드용 실시간 발송 카운터
+ *
+ * 전체 상태별 누적 건수와 최근 24시간의 분 단위 상태별 건수(링 버퍼)를 메모리에 유지한다.
+ * 발송 이벤트를 발행하는 지점(DeliveryWriteBuffer 저장 완료, 상태 변경)에서 갱신되고,
+ * 시작 시와 캠페인/회사 삭제 후 DB 에서 다시 만든다. 조회는 SQL 없이 고정 크기 배열만 읽는다.
+ *
+ * 재구성은 쓰기 락을 잡고 DB 를 읽어 바꿔 끼우고, 발송 저장/상태 변경은 커밋부터 카운터 반영까지 읽기 락을 잡는다
+ * (recording(), 또는 트랜잭션 안에서 호출되면 커밋 후 반영). 따라서 재구성은 커밋됐지만 아직 반영되지 않은 건이
+ * 없을 때만 DB 를 읽으므로 같은 건을 두 번 세거나 놓치지 않는다(쓰기끼리는 서로 막지 않는다).
+ *
+ * 분 버킷은 createdAt(LocalDateTime) 기준이며 시간대 변환 없이 그대로 분 단위로 자른다.
+ */
+@Service
+public class DeliveryCounterService {
+
+    private static final int MINUTES = 24 * 60;
+    private static final DeliveryStatus[] STATUSES = DeliveryStatus.values();
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    private final AtomicLongArray totals = new AtomicLongArray(STATUSES.length);
+    /** 버킷 i 가 현재 담고 있는 분 (epoch minute) */
+    private final AtomicLongArray bucketMinutes = new AtomicLongArray(MINUTES);
+    /** 버킷 i, 상태 s 의 건수는 [i * STATUSES.length + s] */
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(MINUTES * STATUSES.length);
+    private final Object[] bucketLocks = new Object[64];
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    public DeliveryCounterService() {
+        for (int i = 0; i < bucketLocks.length; i++) {
+            bucketLocks[i] = new Object();
+        }
+        for (int i = 0; i < MINUTES; i++) {
+            bucketMinutes.set(i, -1);
+        }
+    }
+
+    /**
+     * DB 에서 카운터 재구성 (시작 시 및 발송 데이터 일괄 삭제 후)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            long currentMinute = epochMinute(LocalDateTime.now());
+            LocalDateTime since = toLocalDateTime(currentMinute - MINUTES + 1);
+
+            List<Object[]> statusTotals = deliveryRepository.countGroupByStatus();
+            List<Object[]> minuteCounts = deliveryRepository.countGroupByStatusAndMinuteSince(since);
+
+            for (int i = 0; i < STATUSES.length; i++) {
+                totals.set(i, 0);
+            }
+            for (int i = 0; i < MINUTES; i++) {
+                bucketMinutes.set(i, -1);
+            }
+            for (Object[] row : statusTotals) {
+                if (row[0] != null) {
+                    totals.set(((DeliveryStatus) row[0]).ordinal(), ((Number) row[1]).longValue());
+                }
+            }
+            for (Object[] row : minuteCounts) {
+                if (row[0] == null) {
+                    continue;
+                }
+                LocalDateTime minute = LocalDateTime.of(
+                        ((Number) row[1]).intValue(), ((Number) row[2]).intValue(), ((Number) row[3]).intValue(),
+                        ((Number) row[4]).intValue(), ((Number) row[5]).intValue());
+                addToBucket(epochMinute(minute), ((DeliveryStatus) row[0]).ordinal(), ((Number) row[6]).longValue());
+            }
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+        System.out.println("발송 카운터 재구성 완료: 전체 " + getTotal() + "건");
+    }
+
+    /**
+     * 발송을 저장(커밋)하고 카운터에 반영하는 작업을 재구성과 겹치지 않게 실행
+     */
+    public <T> T recording(Supplier<T> write) {
+        rebuildLock.readLock().lock();
+        try {
+            return write.get();
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 새 발송 저장 반영 (트랜잭션 안이면 커밋 후)
+     */
+    public void recordCreated(Delivery delivery) {
+        if (delivery.getStatus() == null || deferUntilCommit(() -> applyCreated(delivery))) {
+            return;
+        }
+        applyCreated(delivery);
+    }
+
+    private void applyCreated(Delivery delivery) {
+        int status = delivery.getStatus().ordinal();
+        rebuildLock.readLock().lock();
+        try {
+            totals.incrementAndGet(status);
+            if (delivery.getCreatedAt() != null) {
+                addToBucket(epochMinute(delivery.getCreatedAt()), status, 1);
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 발송 상태 변경 반영 (건수를 이전 상태에서 새 상태로 옮긴다, 트랜잭션 안이면 커밋 후)
+     */
+    public void recordStatusChange(Delivery delivery, DeliveryStatus previousStatus) {
+        DeliveryStatus newStatus = delivery.getStatus();
+        if (previousStatus == newStatus || newStatus == null
+                || deferUntilCommit(() -> applyStatusChange(delivery, previousStatus))) {
+            return;
+        }
+        applyStatusChange(delivery, previousStatus);
+    }
+
+    private void applyStatusChange(Delivery delivery, DeliveryStatus previousStatus) {
+        DeliveryStatus newStatus = delivery.getStatus();
+        long minute = delivery.getCreatedAt() != null ? epochMinute(delivery.getCreatedAt()) : -1;
+        rebuildLock.readLock().lock();
+        try {
+            if (previousStatus != null) {
+                totals.decrementAndGet(previousStatus.ordinal());
+                if (minute >= 0) {
+                    addToBucket(minute, previousStatus.ordinal(), -1);
+                }
+            }
+            totals.incrementAndGet(newStatus.ordinal());
+            if (minute >= 0) {
+                addToBucket(minute, newStatus.ordinal(), 1);
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    public long getTotal() {
+        long total = 0;
+        for (int i = 0; i < STATUSES.length; i++) {
+            total += totals.get(i);
+        }
+        return total;
+    }
+
+    public long getTotal(DeliveryStatus status) {
+        return totals.get(status.ordinal());
+    }
+
+    /**
+     * 오늘 0시 이후 발송 건수
+     */
+    public long getTodayTotal() {
+        long currentMinute = epochMinute(LocalDateTime.now());
+        long todayStart = epochMinute(LocalDate.now().atStartOfDay());
+        long total = 0;
+        for (DeliveryStatus status : STATUSES) {
+            total += sum(todayStart, currentMinute + 1, status);
+        }
+        return total;
+    }
+
+    /**
+     * 발송 통계 요약 (getDeliverySummary 와 같은 형태)
+     */
+    public Map<String, Object> getSummary() {
+        long totalDeliveries = getTotal();
+        long sentCount = getTotal(DeliveryStatus.SENT);
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("totalDeliveries", totalDeliveries);
+        summary.put("sentCount", sentCount);
+        summary.put("successCount", getTotal(DeliveryStatus.SUCCESS));
+        summary.put("failedCount", getTotal(DeliveryStatus.FAILED));
+        summary.put("pendingCount", getTotal(DeliveryStatus.PENDING));
+        summary.put("todayDeliveries", getTodayTotal());
+        summary.put("successRate", totalDeliveries > 0 ? (double) sentCount / totalDeliveries * 100 : 0.0);
+        return summary;
+    }
+
+    /**
+     * 최근 30분 5분 단위 통계 (timeSlot 0 은 30분 전 구간, 30 은 현재 분)
+     */
+    public List<Map<String, Object>> getRealtimeSlots() {
+        long startMinute = epochMinute(LocalDateTime.now()) - 30;
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (int i = 0; i <= 6; i++) {
+            long from = startMinute + i * 5L;
+            long to = Math.min(from + 5, startMinute + 31);
+            Map<String, Object> timeSlot = new HashMap<>();
+            timeSlot.put("timeSlot", i * 5);
+            timeSlot.put("sent", sum(from, to, DeliveryStatus.SENT));
+            timeSlot.put("failed", sum(from, to, DeliveryStatus.FAILED));
+            timeSlot.put("pending", sum(from, to, DeliveryStatus.PENDING));
+            result.add(timeSlot);
+        }
+        return result;
+    }
+
+    /**
+     * [fromMinute, toMinute) 구간의 상태별 합계 (24시간을 벗어난 분은 0)
+     */
+    private long sum(long fromMinute, long toMinute, DeliveryStatus status) {
+        long total = 0;
+        for (long minute = fromMinute; minute < toMinute; minute++) {
+            int index = (int) Math.floorMod(minute, (long) MINUTES);
+            if (bucketMinutes.get(index) == minute) {
+                total += bucketCounts.get(index * STATUSES.length + status.ordinal());
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 트랜잭션 안이면 커밋 후 record 를 실행하도록 예약하고 true. 커밋이 끝날 때까지 읽기 락을 잡아 둔다
+     */
+    private boolean deferUntilCommit(Runnable record) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        rebuildLock.readLock().lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                rebuildLock.readLock().unlock();
+            }
+        });
+        return true;
+    }
+
+    /**
+     * 분 버킷에 더하기. 확인과 더하기를 같은 락 안에서 해야 그사이 다른 분으로 재사용된 버킷에 더하지 않는다
+     */
+    private void addToBucket(long minute, int status, long delta) {
+        int index = (int) Math.floorMod(minute, (long) MINUTES);
+        synchronized (bucketLocks[index % bucketLocks.length]) {
+            long current = bucketMinutes.get(index);
+            if (current > minute) {
+                // 24시간보다 오래된 분은 버킷에 남기지 않는다
+                return;
+            }
+            if (current < minute) {
+                for (int s = 0; s < STATUSES.length; s++) {
+                    bucketCounts.set(index * STATUSES.length + s, 0);
+                }
+                bucketMinutes.set(index, minute);
+            }
+            bucketCounts.addAndGet(index * STATUSES.length + status, delta);
+        }
+    }
+
+    private static long epochMinute(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60L);
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+}
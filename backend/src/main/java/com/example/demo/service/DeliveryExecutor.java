@@ -0,0 +1,153 @@
+package com.example.demo.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 발송 작업 실행기
+ *
+ * marketreach.delivery.executor.mode 로 실행 방식을 고른다.
+ * - fixed: 기존과 같은 고정 크기 스레드 풀 (pool-size)
+ * - virtual: 작업마다 가상 스레드를 만들고 max-concurrency 로 동시 실행 수를 제한.
+ *   게이트웨이 대기(I/O)가 스레드 수에 묶이지 않는다.
+ *   가상 스레드가 없는 런타임(Java 21 미만)에서는 fixed 모드로 대체된다. 동시 실행 한도만큼
+ *   플랫폼 스레드를 늘리지 않기 위해서다.
+ */
+@Component
+public class DeliveryExecutor implements Executor {
+
+    public static final String MODE_FIXED = "fixed";
+    public static final String MODE_VIRTUAL = "virtual";
+
+    private final String requestedMode;
+    private final String mode;
+    private final int poolSize;
+    private final int maxConcurrency;
+    private final boolean virtualThreads;
+    private final ExecutorService delegate;
+    private final Semaphore limiter;
+    private final AtomicInteger activeCount = new AtomicInteger();
+
+    public DeliveryExecutor(@Value("${marketreach.delivery.executor.mode:virtual}") String mode,
+                            @Value("${marketreach.delivery.executor.pool-size:5}") int poolSize,
+                            @Value("${marketreach.delivery.executor.max-concurrency:500}") int maxConcurrency) {
+        this.requestedMode = MODE_FIXED.equalsIgnoreCase(mode) ? MODE_FIXED : MODE_VIRTUAL;
+        this.poolSize = poolSize;
+        this.maxConcurrency = maxConcurrency;
+        ExecutorService virtual = MODE_VIRTUAL.equals(requestedMode) ? newVirtualThreadExecutor() : null;
+        if (virtual != null) {
+            this.mode = MODE_VIRTUAL;
+            this.delegate = virtual;
+            this.limiter = new Semaphore(maxConcurrency);
+            this.virtualThreads = true;
+        } else {
+            if (MODE_VIRTUAL.equals(requestedMode)) {
+                System.out.println("⚠️ 가상 스레드를 지원하지 않는 런타임입니다 (Java " + Runtime.version().feature()
+                        + "). 크기 " + poolSize + "의 고정 스레드 풀(fixed)로 대체합니다.");
+            }
+            this.mode = MODE_FIXED;
+            this.delegate = Executors.newFixedThreadPool(poolSize, namedThreadFactory("delivery-"));
+            this.limiter = null;
+            this.virtualThreads = false;
+        }
+    }
+
+    /**
+     * 작업 실행. virtual 모드에서는 동시 실행 한도에 도달하면 호출 스레드가 대기한다.
+     */
+    @Override
+    public void execute(Runnable task) {
+        if (limiter == null) {
+            delegate.execute(() -> runTracked(task));
+            return;
+        }
+        try {
+            limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("발송 작업 제출 중 인터럽트가 발생했습니다.", e);
+        }
+        try {
+            delegate.execute(() -> {
+                try {
+                    runTracked(task);
+                } finally {
+                    limiter.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            limiter.release();
+            throw e;
+        }
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    /**
+     * 실행기 상태
+     */
+    public Map<String, Object> getStats() {
+        return Map.of(
+            "mode", mode,
+            "requestedMode", requestedMode,
+            "virtualThreads", virtualThreads,
+            "poolSize", poolSize,
+            "maxConcurrency", maxConcurrency,
+            "activeCount", activeCount.get()
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        delegate.shutdown();
+        try {
+            if (!delegate.awaitTermination(5, TimeUnit.SECONDS)) {
+                delegate.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            delegate.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runTracked(Runnable task) {
+        activeCount.incrementAndGet();
+        try {
+            task.run();
+        } finally {
+            activeCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Java 21+ 의 Executors.newVirtualThreadPerTaskExecutor() (빌드 대상이 17 이라 리플렉션으로 호출)
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
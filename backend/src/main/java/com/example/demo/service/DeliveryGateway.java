@@ -0,0 +1,61 @@
+package com.example.demo.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * 메시지 발송 게이트웨이 SPI
+ *
+ * submitBatch 는 메시지 묶음을 한 번의 왕복으로 제출하고 바로 반환하며, 결과는 나중에 callback 으로 전달한다.
+ * callback 은 배치당 한 번, 메시지마다 하나의 Result 를 담아 호출해야 한다 (빠진 메시지는 호출 측에서 실패 처리).
+ * 구현체는 marketreach.gateway.type 으로 선택한다.
+ */
+public interface DeliveryGateway {
+
+    String ERROR_NETWORK_TIMEOUT = "NETWORK_TIMEOUT";
+    String ERROR_INVALID_PHONE = "INVALID_PHONE";
+    String ERROR_SERVICE_UNAVAILABLE = "SERVICE_UNAVAILABLE";
+    String ERROR_QUOTA_EXCEEDED = "QUOTA_EXCEEDED";
+    String ERROR_BLOCKED_NUMBER = "BLOCKED_NUMBER";
+
+    /**
+     * 게이트웨이 이름 (통계 표시용)
+     */
+    String getName();
+
+    /**
+     * 한 번에 제출할 수 있는 최대 메시지 수
+     */
+    int getMaxBatchSize();
+
+    /**
+     * 메시지 묶음 제출 (배치 크기 초과 등 제출 자체가 거부되면 RuntimeException)
+     */
+    void submitBatch(List<Message> messages, Consumer<List<Result>> callback);
+
+    /**
+     * 게이트웨이 상태
+     */
+    Map<String, Object> getStats();
+
+    /**
+     * 발송 메시지
+     */
+    record Message(UUID messageId, UUID customerId, String phone, String text) {}
+
+    /**
+     * 메시지별 발송 결과 (실패 시 errorCode)
+     */
+    record Result(UUID messageId, boolean success, String errorCode) {
+
+        public static Result success(UUID messageId) {
+            return new Result(messageId, true, null);
+        }
+
+        public static Result failure(UUID messageId, String errorCode) {
+            return new Result(messageId, false, errorCode);
+        }
+    }
+}
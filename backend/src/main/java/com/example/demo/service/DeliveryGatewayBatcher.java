@@ -0,0 +1,190 @@
+package com.example.demo.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 발송 메시지를 묶어 DeliveryGateway 에 제출
+ *
+ * 호출 측은 메시지 한 건씩 send() 하고 결과 future 를 받는다. 전용 batcher 스레드가 batchSize 건이 모이거나
+ * lingerMs 가 지나면 한 배치로 묶어 DeliveryExecutor 에서 submitBatch 를 호출한다 (게이트웨이 호출 동시 수는 실행기가 제한).
+ * 제출이 거부되면 배치 전체를 SERVICE_UNAVAILABLE, resultTimeoutMs 안에 결과가 오지 않으면 NETWORK_TIMEOUT 으로 실패 처리한다.
+ */
+@Component
+public class DeliveryGatewayBatcher {
+
+    @Autowired
+    private DeliveryGateway deliveryGateway;
+
+    @Autowired
+    private DeliveryExecutor deliveryExecutor;
+
+    private final int configuredBatchSize;
+    private final long lingerMs;
+    private final long resultTimeoutMs;
+    private final BlockingQueue<PendingMessage> queue;
+
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong messageCount = new AtomicLong();
+    private final AtomicLong submitErrors = new AtomicLong();
+    private final AtomicLong missingResults = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    private volatile boolean running = true;
+    private int batchSize;
+    private Thread batcher;
+
+    public DeliveryGatewayBatcher(@Value("${marketreach.gateway.batch-size:100}") int batchSize,
+                                  @Value("${marketreach.gateway.linger-ms:20}") long lingerMs,
+                                  @Value("${marketreach.gateway.result-timeout-ms:30000}") long resultTimeoutMs,
+                                  @Value("${marketreach.gateway.queue-capacity:10000}") int queueCapacity) {
+        this.configuredBatchSize = Math.max(1, batchSize);
+        this.lingerMs = lingerMs;
+        this.resultTimeoutMs = resultTimeoutMs;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        batchSize = Math.min(configuredBatchSize, deliveryGateway.getMaxBatchSize());
+        batcher = new Thread(this::runBatcher, "delivery-gateway-batcher");
+        batcher.setDaemon(true);
+        batcher.start();
+        System.out.println("발송 게이트웨이: " + deliveryGateway.getName() + " (배치 " + batchSize + "건, 대기 " + lingerMs + "ms)");
+    }
+
+    /**
+     * 메시지 1건 발송 요청 (대기열이 가득 차면 빈 자리가 생길 때까지 대기)
+     */
+    public CompletableFuture<DeliveryGateway.Result> send(DeliveryGateway.Message message) {
+        PendingMessage pending = new PendingMessage(message, new CompletableFuture<>());
+        try {
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("발송 대기열 추가 중 인터럽트가 발생했습니다.", e);
+        }
+        return pending.future;
+    }
+
+    /**
+     * 배치 제출 현황과 게이트웨이 상태
+     */
+    public Map<String, Object> getStats() {
+        long batches = batchCount.get();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("batchSize", batchSize);
+        stats.put("lingerMs", lingerMs);
+        stats.put("queued", queue.size());
+        stats.put("batchCount", batches);
+        stats.put("messageCount", messageCount.get());
+        stats.put("avgBatchSize", batches > 0 ? Math.round(messageCount.get() * 100.0 / batches) / 100.0 : 0.0);
+        stats.put("submitErrors", submitErrors.get());
+        stats.put("missingResults", missingResults.get());
+        stats.put("timeouts", timeouts.get());
+        stats.put("gateway", deliveryGateway.getStats());
+        return stats;
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (batcher != null) {
+            batcher.interrupt();
+        }
+        List<PendingMessage> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (PendingMessage pending : remaining) {
+            pending.future.complete(DeliveryGateway.Result.failure(pending.message.messageId(), DeliveryGateway.ERROR_SERVICE_UNAVAILABLE));
+        }
+    }
+
+    private void runBatcher() {
+        while (running) {
+            try {
+                PendingMessage first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<PendingMessage> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingMessage next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                deliveryExecutor.execute(() -> submit(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                System.err.println("발송 배치 제출 중 오류: " + e.getMessage());
+            }
+        }
+    }
+
+    private void submit(List<PendingMessage> batch) {
+        batchCount.incrementAndGet();
+        messageCount.addAndGet(batch.size());
+
+        Map<UUID, PendingMessage> byId = new HashMap<>();
+        List<DeliveryGateway.Message> messages = new ArrayList<>(batch.size());
+        for (PendingMessage pending : batch) {
+            byId.put(pending.message.messageId(), pending);
+            messages.add(pending.message);
+            DeliveryGateway.Result timeout = DeliveryGateway.Result.failure(pending.message.messageId(), DeliveryGateway.ERROR_NETWORK_TIMEOUT);
+            pending.future.completeOnTimeout(timeout, resultTimeoutMs, TimeUnit.MILLISECONDS)
+                    .thenAccept(result -> {
+                        if (result == timeout) {
+                            timeouts.incrementAndGet();
+                        }
+                    });
+        }
+
+        try {
+            deliveryGateway.submitBatch(messages, results -> {
+                for (DeliveryGateway.Result result : results) {
+                    PendingMessage pending = byId.remove(result.messageId());
+                    if (pending != null) {
+                        pending.future.complete(result);
+                    }
+                }
+                // 결과가 빠진 메시지는 실패 처리
+                for (PendingMessage pending : byId.values()) {
+                    missingResults.incrementAndGet();
+                    pending.future.complete(DeliveryGateway.Result.failure(pending.message.messageId(), DeliveryGateway.ERROR_NETWORK_TIMEOUT));
+                }
+            });
+        } catch (RuntimeException e) {
+            submitErrors.incrementAndGet();
+            System.err.println("게이트웨이 배치 제출 거부: " + e.getMessage());
+            for (PendingMessage pending : batch) {
+                pending.future.complete(DeliveryGateway.Result.failure(pending.message.messageId(), DeliveryGateway.ERROR_SERVICE_UNAVAILABLE));
+            }
+        }
+    }
+
+    private record PendingMessage(DeliveryGateway.Message message, CompletableFuture<DeliveryGateway.Result> future) {}
+}
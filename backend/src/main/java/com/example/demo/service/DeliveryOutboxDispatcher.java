@@ -0,0 +1,421 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Campaign;
+import com.example.demo.entity.Customer;
+import com.example.demo.entity.Delivery.DeliveryStatus;
+import com.example.demo.entity.DeliveryOutbox;
+import com.example.demo.repository.CustomerRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 발송 대기열 디스패처
+ *
+ * workers 개의 스레드가 대기열에서 claimBatchSize 건씩 가져가(SELECT ... FOR UPDATE SKIP LOCKED) 발송한다.
+ * 빈도 제한 -> 동시 발송 수(maxInFlight) -> 속도 제한 순으로 통과한 건만 게이트웨이에 제출한다.
+ * 회사/캠페인 속도 제한에 걸린 행은 기다리지 않고 워커가 캠페인별로 미뤄 두었다가 토큰이 생기면 순서대로 보내며,
+ * 그동안 그 캠페인의 행은 새로 가져가지 않는다. 따라서 TPS 가 낮은 회사 하나가 배치 안의 다른 회사 발송을 막지 않는다.
+ * 가져간 행에는 leaseSeconds 동안의 lease 가 잡히고, 그 안에 결과가 저장되지 않으면(노드 종료 등) 어느 노드든 다시 가져간다.
+ * 전체 속도 제한이나 미뤄 둔 행 때문에 오래 기다리는 경우를 위해, 제출 직전 남은 lease 가 절반 미만이면 아직 보내지 않은 행 전체를 연장하고
+ * 그사이 다른 워커가 다시 가져간 행은 보내지 않는다 (중복 발송 방지).
+ * 따라서 재시작 후에도 남은 행은 자동으로 이어서 발송되고, 여러 노드가 같은 대기열을 함께 처리할 수 있다.
+ *
+ * 이 노드에서 시작한 작업은 register() 로 등록되어 진행 건수가 CampaignSendJob 에 반영된다.
+ */
+@Component
+public class DeliveryOutboxDispatcher {
+
+    @Autowired
+    private DeliveryOutboxService deliveryOutboxService;
+
+    @Autowired
+    private DeliveryService deliveryService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private FrequencyCapService frequencyCapService;
+
+    @Autowired
+    private DeliveryRateLimiter deliveryRateLimiter;
+
+    private final String nodeId;
+    private final int workers;
+    private final int claimBatchSize;
+    private final long leaseSeconds;
+    private final long pollIntervalMs;
+    private final Semaphore inFlight;
+
+    private final Map<UUID, CampaignSendJob> activeJobs = new ConcurrentHashMap<>();
+    private final Map<UUID, AtomicInteger> inFlightByJob = new ConcurrentHashMap<>();
+    private final List<Thread> threads = new ArrayList<>();
+
+    private final AtomicLong claimedRows = new AtomicLong();
+    private final AtomicLong reclaimedRows = new AtomicLong();
+    private final AtomicLong submittedRows = new AtomicLong();
+    private final AtomicLong skippedRows = new AtomicLong();
+    private final AtomicLong renewedLeases = new AtomicLong();
+    private final AtomicLong lostLeaseRows = new AtomicLong();
+    private final AtomicLong deferredRows = new AtomicLong();
+
+    /** 회사/캠페인 속도 제한으로 워커가 행을 미뤄 둔 캠페인 (값은 미뤄 둔 워커 수). 이 캠페인의 행은 새로 가져가지 않는다 */
+    private final Map<UUID, Integer> deferredCampaigns = new ConcurrentHashMap<>();
+
+    private volatile boolean running = true;
+
+    public DeliveryOutboxDispatcher(@Value("${marketreach.outbox.node-id:}") String nodeId,
+                                    @Value("${marketreach.outbox.workers:2}") int workers,
+                                    @Value("${marketreach.outbox.claim-batch-size:200}") int claimBatchSize,
+                                    @Value("${marketreach.outbox.lease-seconds:120}") long leaseSeconds,
+                                    @Value("${marketreach.outbox.poll-interval-ms:500}") long pollIntervalMs,
+                                    @Value("${marketreach.send-job.max-in-flight:100}") int maxInFlight) {
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.workers = Math.max(1, workers);
+        this.claimBatchSize = Math.max(1, claimBatchSize);
+        this.leaseSeconds = leaseSeconds;
+        this.pollIntervalMs = pollIntervalMs;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * DB 준비 후 디스패처 시작 (이전 실행에서 남은 행도 이때부터 발송된다)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Map<String, Object> remaining = deliveryOutboxService.getStats();
+        System.out.println("발송 대기열 디스패처 시작: node=" + nodeId + ", workers=" + workers + ", 남은 행=" + remaining);
+        for (int i = 1; i <= workers; i++) {
+            Thread thread = new Thread(this::runWorker, "outbox-dispatcher-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+    }
+
+    /**
+     * 이 노드에서 시작한 작업 등록 (진행 건수 반영용)
+     */
+    public void register(CampaignSendJob job) {
+        activeJobs.put(job.getId(), job);
+        inFlightByJob.putIfAbsent(job.getId(), new AtomicInteger());
+    }
+
+    public void unregister(UUID jobId) {
+        activeJobs.remove(jobId);
+        inFlightByJob.remove(jobId);
+    }
+
+    /**
+     * 작업 중 이 노드에서 제출했지만 아직 결과가 반영되지 않은 건수
+     */
+    public int getInFlight(UUID jobId) {
+        AtomicInteger count = inFlightByJob.get(jobId);
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * 디스패처 상태
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("nodeId", nodeId);
+        stats.put("workers", workers);
+        stats.put("claimBatchSize", claimBatchSize);
+        stats.put("leaseSeconds", leaseSeconds);
+        stats.put("activeJobs", activeJobs.size());
+        stats.put("claimedRows", claimedRows.get());
+        stats.put("reclaimedRows", reclaimedRows.get());
+        stats.put("submittedRows", submittedRows.get());
+        stats.put("skippedRows", skippedRows.get());
+        stats.put("renewedLeases", renewedLeases.get());
+        stats.put("lostLeaseRows", lostLeaseRows.get());
+        stats.put("deferredRows", deferredRows.get());
+        stats.put("deferredCampaigns", deferredCampaigns.size());
+        stats.put("outbox", deliveryOutboxService.getStats());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        threads.forEach(Thread::interrupt);
+    }
+
+    private void runWorker() {
+        // 속도 제한으로 미룬 행 (이 워커 전용이라 동기화하지 않는다)
+        Map<UUID, Lane> lanes = new LinkedHashMap<>();
+        while (running) {
+            try {
+                long nextReadyAt = drainLanes(lanes);
+                List<DeliveryOutbox> rows = deliveryOutboxService.claim(nodeId, claimBatchSize, leaseSeconds,
+                        deferredCampaigns.keySet());
+                if (rows.isEmpty()) {
+                    long sleepMs = pollIntervalMs;
+                    if (!lanes.isEmpty()) {
+                        sleepMs = Math.min(sleepMs, TimeUnit.NANOSECONDS.toMillis(nextReadyAt - System.nanoTime()) + 1);
+                    }
+                    Thread.sleep(Math.max(1, sleepMs));
+                    continue;
+                }
+                dispatch(rows, lanes);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                System.err.println("발송 대기열 처리 중 오류: " + e.getMessage());
+                try {
+                    Thread.sleep(pollIntervalMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(List<DeliveryOutbox> rows, Map<UUID, Lane> lanes) throws InterruptedException {
+        claimedRows.addAndGet(rows.size());
+        Map<UUID, Customer> customers = customerRepository.findAllById(
+                rows.stream().map(DeliveryOutbox::getCustomerId).distinct().toList()
+        ).stream().collect(Collectors.toMap(Customer::getId, Function.identity()));
+        Map<UUID, Campaign> campaigns = new HashMap<>();
+        List<UUID> skipped = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < rows.size(); i++) {
+                DeliveryOutbox row = rows.get(i);
+                if (row.getAttempts() > 1) {
+                    reclaimedRows.incrementAndGet();
+                }
+                CampaignSendJob job = row.getJobId() != null ? activeJobs.get(row.getJobId()) : null;
+                Customer customer = customers.get(row.getCustomerId());
+                Campaign campaign = campaigns.computeIfAbsent(row.getCampaignId(), this::loadCampaign);
+                if (customer == null || campaign == null) {
+                    skip(row, job, skipped);
+                    continue;
+                }
+                Pending pending = new Pending(row, campaign, customer, job);
+                // 이미 미룬 캠페인은 순서를 지키도록 뒤에 붙인다
+                Lane lane = lanes.get(row.getCampaignId());
+                if (lane != null) {
+                    lane.add(pending);
+                    continue;
+                }
+                List<DeliveryOutbox> remaining = rows.subList(i, rows.size());
+                long waitNanos = send(pending, () -> remaining, skipped);
+                if (waitNanos > 0) {
+                    lane = new Lane(System.nanoTime() + waitNanos);
+                    lane.add(pending);
+                    lanes.put(row.getCampaignId(), lane);
+                    deferredCampaigns.merge(row.getCampaignId(), 1, Integer::sum);
+                }
+            }
+        } finally {
+            deliveryOutboxService.complete(skipped);
+        }
+    }
+
+    /**
+     * 토큰이 생긴 캠페인의 미룬 행을 순서대로 보내고, 가장 먼저 토큰이 생길 시각(nanoTime)을 돌려준다
+     */
+    private long drainLanes(Map<UUID, Lane> lanes) throws InterruptedException {
+        long nextReadyAt = Long.MAX_VALUE;
+        List<UUID> skipped = new ArrayList<>();
+        try {
+            Iterator<Map.Entry<UUID, Lane>> iterator = lanes.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<UUID, Lane> entry = iterator.next();
+                Lane lane = entry.getValue();
+                if (lane.readyAt <= System.nanoTime()) {
+                    while (!lane.isEmpty()) {
+                        long waitNanos = send(lane.peek(), lane::remainingRows, skipped);
+                        if (waitNanos > 0) {
+                            lane.readyAt = System.nanoTime() + waitNanos;
+                            break;
+                        }
+                        lane.poll();
+                    }
+                } else {
+                    // 기다리는 동안 lease 가 만료되지 않도록
+                    holdLease(lane.peek().row(), lane::remainingRows);
+                }
+                if (lane.isEmpty()) {
+                    iterator.remove();
+                    deferredCampaigns.computeIfPresent(entry.getKey(), (id, count) -> count > 1 ? count - 1 : null);
+                } else {
+                    nextReadyAt = Math.min(nextReadyAt, lane.readyAt);
+                }
+            }
+        } finally {
+            deliveryOutboxService.complete(skipped);
+        }
+        return nextReadyAt;
+    }
+
+    /**
+     * 한 건 발송 시도. 회사/캠페인 속도 제한에 걸리면 보내지 않고 토큰이 생길 때까지 남은 나노초를 돌려준다 (처리했으면 0)
+     */
+    private long send(Pending pending, Supplier<List<DeliveryOutbox>> remaining, List<UUID> skipped) throws InterruptedException {
+        DeliveryOutbox row = pending.row();
+        Customer customer = pending.customer();
+        // 같은 고객에게 겹치는 캠페인이 연달아 가지 않도록 빈도 제한 확인 (메모리 조회만)
+        if (!frequencyCapService.tryAcquire(customer.getId(), row.getCompanyId())) {
+            skip(row, pending.job(), skipped);
+            return 0;
+        }
+        inFlight.acquire();
+        long waitNanos;
+        try {
+            waitNanos = deliveryRateLimiter.tryAcquire(row.getCompanyId(), row.getCampaignId(), null);
+        } catch (InterruptedException e) {
+            inFlight.release();
+            frequencyCapService.release(customer.getId(), row.getCompanyId());
+            throw e;
+        }
+        if (waitNanos > 0) {
+            inFlight.release();
+            frequencyCapService.release(customer.getId(), row.getCompanyId());
+            deferredRows.incrementAndGet();
+            return waitNanos;
+        }
+        if (!holdLease(row, remaining)) {
+            // 대기 중 lease 가 만료되어 다른 워커가 가져간 행 (그쪽에서 발송된다)
+            inFlight.release();
+            frequencyCapService.release(customer.getId(), row.getCompanyId());
+            lostLeaseRows.incrementAndGet();
+            return 0;
+        }
+        submit(row, pending.campaign(), customer, pending.job());
+        return 0;
+    }
+
+    private void submit(DeliveryOutbox row, Campaign campaign, Customer customer, CampaignSendJob job) {
+        AtomicInteger jobInFlight = row.getJobId() != null ? inFlightByJob.get(row.getJobId()) : null;
+        if (jobInFlight != null) {
+            jobInFlight.incrementAndGet();
+        }
+        submittedRows.incrementAndGet();
+        deliveryService.submitDelivery(campaign, customer, row.getId()).whenComplete((delivery, error) -> {
+            try {
+                if (delivery != null && delivery.getStatus() != DeliveryStatus.FAILED) {
+                    if (job != null) {
+                        job.recordSent();
+                    }
+                } else {
+                    frequencyCapService.release(customer.getId(), row.getCompanyId());
+                    if (job != null) {
+                        job.recordFailed();
+                    }
+                    if (delivery == null) {
+                        // 결과가 저장되지 않았으므로 대기열 행을 직접 정리 (남겨 두면 lease 만료 후 재발송됨)
+                        deliveryOutboxService.complete(List.of(row.getId()));
+                    }
+                }
+            } finally {
+                if (jobInFlight != null) {
+                    jobInFlight.decrementAndGet();
+                }
+                inFlight.release();
+            }
+        });
+    }
+
+    /**
+     * 제출 직전 lease 확인: 절반 이상 남았으면 그대로, 아니면 아직 보내지 않은 행(remaining, row 부터)을 함께 연장
+     * (게이트웨이 결과 대기와 저장이 lease 안에 끝나고, 뒤쪽 행도 대기 중 만료되지 않도록)
+     */
+    private boolean holdLease(DeliveryOutbox row, Supplier<List<DeliveryOutbox>> remaining) {
+        if (row.getLeaseUntil() == null) {
+            return false;
+        }
+        if (row.getLeaseUntil().isAfter(LocalDateTime.now().plusSeconds(leaseSeconds / 2))) {
+            return true;
+        }
+        renewedLeases.addAndGet(deliveryOutboxService.renewLeases(remaining.get(), nodeId, leaseSeconds));
+        return row.getLeaseUntil() != null;
+    }
+
+    private void skip(DeliveryOutbox row, CampaignSendJob job, List<UUID> skipped) {
+        skipped.add(row.getId());
+        skippedRows.incrementAndGet();
+        if (job != null) {
+            job.recordSkipped();
+        }
+    }
+
+    private Campaign loadCampaign(UUID campaignId) {
+        try {
+            return deliveryService.getCampaignForSend(campaignId);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private record Pending(DeliveryOutbox row, Campaign campaign, Customer customer, CampaignSendJob job) {}
+
+    /**
+     * 회사/캠페인 속도 제한으로 미룬 한 캠페인의 행 (가져온 순서대로)
+     */
+    private static final class Lane {
+        private final ArrayDeque<Pending> rows = new ArrayDeque<>();
+        private long readyAt;
+
+        Lane(long readyAt) {
+            this.readyAt = readyAt;
+        }
+
+        void add(Pending pending) {
+            rows.add(pending);
+        }
+
+        Pending peek() {
+            return rows.peek();
+        }
+
+        void poll() {
+            rows.poll();
+        }
+
+        boolean isEmpty() {
+            return rows.isEmpty();
+        }
+
+        List<DeliveryOutbox> remainingRows() {
+            return rows.stream().map(Pending::row).toList();
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
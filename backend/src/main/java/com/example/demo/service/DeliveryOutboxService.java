@@ -0,0 +1,187 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Campaign;
+import com.example.demo.entity.Customer;
+import com.example.demo.entity.DeliveryOutbox;
+import com.example.demo.entity.DeliveryOutbox.OutboxStatus;
+import com.example.demo.repository.CampaignRepository;
+import com.example.demo.repository.DeliveryOutboxRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 발송 대기열(delivery_outbox) 관리
+ *
+ * 발송 시작 시 대상 전체를 한 트랜잭션에서 batchSize 건씩 저장하고 캠페인에 작업을 표시하므로,
+ * 저장 도중 서버가 죽으면 대기열도 표시도 남지 않는다. 디스패처는 claim() 으로 행을 잠가 lease 를 잡는다.
+ * 행은 발송 결과가 저장될 때 DeliveryWriteBuffer 의 같은 트랜잭션에서 삭제된다.
+ */
+@Service
+public class DeliveryOutboxService {
+
+    @Autowired
+    private DeliveryOutboxRepository deliveryOutboxRepository;
+
+    @Autowired
+    private CampaignRepository campaignRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int batchSize;
+
+    public DeliveryOutboxService(@Value("${marketreach.outbox.insert-batch-size:1000}") int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * 캠페인 대상 고객을 대기열에 저장하고 캠페인에 발송 작업을 표시 (전부 저장되거나 아무것도 저장되지 않는다).
+     * 이미 표시된 작업이 있거나 이전 발송의 대기열 행이 남아 있으면 RuntimeException.
+     */
+    public long enqueue(Campaign campaign, UUID jobId, List<Customer> customers) {
+        Long written = transactionTemplate.execute(status -> {
+            // 표시를 먼저 걸어 캠페인 행을 잠가 두므로 다른 노드의 동시 시작은 여기서 순서가 정해진다
+            if (campaignRepository.markSending(campaign.getId(), jobId, LocalDateTime.now()) == 0
+                    || deliveryOutboxRepository.countByCampaignId(campaign.getId()) > 0) {
+                throw new RuntimeException("이미 발송 중이거나 이전 발송 대기열이 남아 있는 캠페인입니다.");
+            }
+            long count = 0;
+            List<DeliveryOutbox> batch = new ArrayList<>(batchSize);
+            for (Customer customer : customers) {
+                batch.add(new DeliveryOutbox(jobId, campaign.getId(), customer.getId(), campaign.getCompanyId()));
+                if (batch.size() >= batchSize) {
+                    count += saveBatch(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                count += saveBatch(batch);
+            }
+            return count;
+        });
+        return written != null ? written : 0;
+    }
+
+    /**
+     * 캠페인에 남은 대기열 행 수 (이전 발송 포함)
+     */
+    public long countRemainingForCampaign(UUID campaignId) {
+        return deliveryOutboxRepository.countByCampaignId(campaignId);
+    }
+
+    /**
+     * 가져갈 수 있는 행을 최대 limit 건 잠가 이 노드 소유로 표시 (excludedCampaignIds 의 행은 가져가지 않는다)
+     */
+    public List<DeliveryOutbox> claim(String nodeId, int limit, long leaseSeconds, Collection<UUID> excludedCampaignIds) {
+        List<UUID> excluded = List.copyOf(excludedCampaignIds);
+        List<DeliveryOutbox> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<DeliveryOutbox> rows = excluded.isEmpty()
+                    ? deliveryOutboxRepository.lockClaimable(now, limit)
+                    : deliveryOutboxRepository.lockClaimableExcluding(now, limit, excluded);
+            // 변경 내용은 커밋 시 UPDATE 로 반영된다
+            for (DeliveryOutbox row : rows) {
+                row.setStatus(OutboxStatus.CLAIMED);
+                row.setClaimedBy(nodeId);
+                row.setLeaseUntil(now.plusSeconds(leaseSeconds));
+                row.setAttempts(row.getAttempts() + 1);
+            }
+            return rows;
+        });
+        return claimed != null ? claimed : List.of();
+    }
+
+    /**
+     * 가져간 행들의 lease 를 지금부터 leaseSeconds 로 연장하고 연장된 행 수를 돌려준다.
+     * 이미 다른 워커/노드가 다시 가져간 행은 lease_until 을 null 로 표시한다.
+     */
+    public int renewLeases(List<DeliveryOutbox> rows, String nodeId, long leaseSeconds) {
+        LocalDateTime leaseUntil = LocalDateTime.now().plusSeconds(leaseSeconds);
+        Integer renewed = transactionTemplate.execute(status -> {
+            int count = 0;
+            for (DeliveryOutbox row : rows) {
+                if (row.getLeaseUntil() == null) {
+                    continue;
+                }
+                if (deliveryOutboxRepository.renewLease(row.getId(), OutboxStatus.CLAIMED, nodeId,
+                        row.getAttempts(), leaseUntil) == 1) {
+                    row.setLeaseUntil(leaseUntil);
+                    count++;
+                } else {
+                    row.setLeaseUntil(null);
+                }
+            }
+            return count;
+        });
+        return renewed != null ? renewed : 0;
+    }
+
+    /**
+     * 처리가 끝난 행 삭제 (발송 결과를 저장하지 않는 경우용: 빈도 제한 제외, 고객 없음 등)
+     */
+    public void complete(Collection<UUID> ids) {
+        if (!ids.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> deliveryOutboxRepository.deleteAllByIdInBatch(ids));
+        }
+    }
+
+    /**
+     * 작업 일시정지/재개 (아직 가져가지 않은 행만 보류하거나 풀어준다)
+     */
+    public int hold(UUID jobId, boolean held) {
+        Integer updated = transactionTemplate.execute(status -> held
+                ? deliveryOutboxRepository.updateStatusByJob(jobId, OutboxStatus.PENDING, OutboxStatus.HELD)
+                : deliveryOutboxRepository.updateStatusByJob(jobId, OutboxStatus.HELD, OutboxStatus.PENDING));
+        return updated != null ? updated : 0;
+    }
+
+    /**
+     * 작업 취소 (아직 가져가지 않은 행 삭제, 이미 가져간 행은 그대로 발송된다)
+     */
+    public int cancel(UUID jobId) {
+        Integer deleted = transactionTemplate.execute(status ->
+                deliveryOutboxRepository.deleteByJobAndStatusIn(jobId, List.of(OutboxStatus.PENDING, OutboxStatus.HELD)));
+        return deleted != null ? deleted : 0;
+    }
+
+    /**
+     * 작업의 남은 행 수
+     */
+    public long countRemaining(UUID jobId) {
+        return deliveryOutboxRepository.countByJobId(jobId);
+    }
+
+    /**
+     * 상태별 남은 행 수
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        for (OutboxStatus status : OutboxStatus.values()) {
+            stats.put(status.name().toLowerCase(), deliveryOutboxRepository.countByStatus(status));
+        }
+        return stats;
+    }
+
+    /** 트랜잭션 안에서 호출 (배치마다 내보내고 영속성 컨텍스트를 비워 메모리를 일정하게 유지) */
+    private int saveBatch(List<DeliveryOutbox> batch) {
+        deliveryOutboxRepository.saveAll(batch);
+        deliveryOutboxRepository.flush();
+        entityManager.clear();
+        return batch.size();
+    }
+}
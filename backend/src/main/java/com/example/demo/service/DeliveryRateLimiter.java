@@ -0,0 +1,319 @@
+package com.example.demo.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 발송 속도 제한 (전체 / 회사별 / 캠페인별 토큰 버킷)
+ *
+ * 발송 한 건마다 세 버킷에서 토큰을 하나씩 예약하고, 가장 늦게 토큰이 생기는 버킷의 시각까지 대기한다.
+ * 버킷은 토큰이 모자라면 음수로 내려가 다음 예약자의 대기 시간을 늘리는 방식이라 대기 순서가 보장되고,
+ * 대기는 LockSupport.parkNanos 로 스레드를 재운다(가상 스레드면 캐리어 스레드를 반납한다).
+ * 대기 중 인터럽트되면 예약한 토큰을 모든 버킷에 돌려준다.
+ *
+ * 여러 회사의 발송을 차례로 처리하는 스레드는 tryAcquire() 를 쓴다. 회사/캠페인 버킷 때문에 기다려야 하면
+ * 기다리지 않고 남은 시간을 돌려주므로, TPS 가 낮은 회사 하나가 같은 스레드의 다른 회사 발송을 막지 않는다.
+ *
+ * TPS 가 0 이하인 단계는 제한하지 않는다. 설정은 updateLimits() 로 재시작 없이 바꿀 수 있으며,
+ * 기존 버킷은 쌓인 토큰을 유지한 채 새 속도로 채워진다.
+ */
+@Component
+public class DeliveryRateLimiter {
+
+    private static final long IDLE_BUCKET_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private volatile double globalTps;
+    private volatile double companyTps;
+    private volatile double campaignTps;
+    private volatile double burstSeconds;
+    private volatile Map<UUID, Double> companyOverrides = Map.of();
+
+    private final TokenBucket globalBucket;
+    private final Map<UUID, TokenBucket> companyBuckets = new ConcurrentHashMap<>();
+    private final Map<UUID, TokenBucket> campaignBuckets = new ConcurrentHashMap<>();
+
+    private final AtomicLong acquiredCount = new AtomicLong();
+    private final AtomicLong throttledCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong globalLimitedCount = new AtomicLong();
+    private final AtomicLong companyLimitedCount = new AtomicLong();
+    private final AtomicLong campaignLimitedCount = new AtomicLong();
+    private final AtomicLong extraLimitedCount = new AtomicLong();
+    private final AtomicLong deferredCount = new AtomicLong();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public DeliveryRateLimiter(@Value("${marketreach.rate-limit.global-tps:1000}") double globalTps,
+                               @Value("${marketreach.rate-limit.company-tps:200}") double companyTps,
+                               @Value("${marketreach.rate-limit.campaign-tps:100}") double campaignTps,
+                               @Value("${marketreach.rate-limit.burst-seconds:1}") double burstSeconds) {
+        this.globalTps = globalTps;
+        this.companyTps = companyTps;
+        this.campaignTps = campaignTps;
+        this.burstSeconds = burstSeconds;
+        this.globalBucket = new TokenBucket(globalTps, burstSeconds);
+    }
+
+    /**
+     * 발송 1건의 토큰을 예약하고 사용 가능 시각까지 대기
+     */
+    public void acquire(UUID companyId, UUID campaignId) throws InterruptedException {
+        acquire(companyId, campaignId, null);
+    }
+
+    /**
+     * 전체/회사/캠페인 버킷에 더해 호출자 전용 버킷(재시도 발송 상한 등)에서도 토큰을 예약하고 대기
+     */
+    public void acquire(UUID companyId, UUID campaignId, TokenBucket extraBucket) throws InterruptedException {
+        acquire(companyId, campaignId, extraBucket, false);
+    }
+
+    /**
+     * acquire 와 같지만 회사/캠페인 버킷에 토큰이 없으면 기다리지 않고 예약을 모두 돌려준 뒤
+     * 그 버킷에 토큰이 생길 때까지 남은 나노초를 돌려준다. 토큰을 얻었으면 0.
+     * 전체/전용 버킷 대기는 그 스레드의 모든 발송에 똑같이 걸리므로 그대로 기다린다.
+     */
+    public long tryAcquire(UUID companyId, UUID campaignId, TokenBucket extraBucket) throws InterruptedException {
+        return acquire(companyId, campaignId, extraBucket, true);
+    }
+
+    private long acquire(UUID companyId, UUID campaignId, TokenBucket extraBucket, boolean deferLocal) throws InterruptedException {
+        long now = System.nanoTime();
+        TokenBucket companyBucket = companyId != null ? companyBucket(companyId) : null;
+        TokenBucket campaignBucket = campaignId != null ? campaignBucket(campaignId) : null;
+        long globalReady = globalBucket.reserve(now);
+        long companyReady = companyBucket != null ? companyBucket.reserve(now) : now;
+        long campaignReady = campaignBucket != null ? campaignBucket.reserve(now) : now;
+        long extraReady = extraBucket != null ? extraBucket.reserve(now) : now;
+        long localReady = Math.max(companyReady, campaignReady);
+        if (deferLocal && localReady > now) {
+            refund(globalBucket, companyBucket, campaignBucket, extraBucket);
+            deferredCount.incrementAndGet();
+            return localReady - now;
+        }
+        long readyAt = Math.max(Math.max(globalReady, extraReady), localReady);
+        acquiredCount.incrementAndGet();
+        if (readyAt <= now) {
+            return 0;
+        }
+
+        throttledCount.incrementAndGet();
+        if (readyAt == extraReady && extraBucket != null) {
+            extraLimitedCount.incrementAndGet();
+        } else if (readyAt == globalReady) {
+            globalLimitedCount.incrementAndGet();
+        } else if (readyAt == companyReady) {
+            companyLimitedCount.incrementAndGet();
+        } else {
+            campaignLimitedCount.incrementAndGet();
+        }
+        waiting.incrementAndGet();
+        try {
+            long remaining;
+            while ((remaining = readyAt - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remaining);
+                if (Thread.interrupted()) {
+                    // 발송하지 않으므로 예약한 토큰을 돌려줘 뒤 예약자의 대기가 늘어나지 않게 한다
+                    refund(globalBucket, companyBucket, campaignBucket, extraBucket);
+                    throw new InterruptedException();
+                }
+            }
+        } finally {
+            waiting.decrementAndGet();
+            long waited = System.nanoTime() - now;
+            totalWaitNanos.addAndGet(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+        }
+        return 0;
+    }
+
+    /**
+     * 제한 변경 (null 인 항목은 유지, companyOverrides 가 있으면 회사별 TPS 를 통째로 교체)
+     */
+    public synchronized void updateLimits(Double globalTps, Double companyTps, Double campaignTps,
+                                          Double burstSeconds, Map<UUID, Double> companyOverrides) {
+        if (globalTps != null) {
+            this.globalTps = globalTps;
+        }
+        if (companyTps != null) {
+            this.companyTps = companyTps;
+        }
+        if (campaignTps != null) {
+            this.campaignTps = campaignTps;
+        }
+        if (burstSeconds != null) {
+            if (burstSeconds <= 0) {
+                throw new RuntimeException("burstSeconds 는 0 보다 커야 합니다.");
+            }
+            this.burstSeconds = burstSeconds;
+        }
+        if (companyOverrides != null) {
+            this.companyOverrides = Map.copyOf(companyOverrides);
+        }
+
+        globalBucket.configure(this.globalTps, this.burstSeconds);
+        companyBuckets.forEach((companyId, bucket) -> bucket.configure(companyRate(companyId), this.burstSeconds));
+        campaignBuckets.values().forEach(bucket -> bucket.configure(this.campaignTps, this.burstSeconds));
+        System.out.println("발송 속도 제한 변경: " + getLimits());
+    }
+
+    /**
+     * 현재 제한 설정
+     */
+    public Map<String, Object> getLimits() {
+        Map<String, Object> limits = new HashMap<>();
+        limits.put("globalTps", globalTps);
+        limits.put("companyTps", companyTps);
+        limits.put("campaignTps", campaignTps);
+        limits.put("burstSeconds", burstSeconds);
+        limits.put("companyOverrides", companyOverrides);
+        return limits;
+    }
+
+    /**
+     * 제한 설정과 대기 통계
+     */
+    public Map<String, Object> getStats() {
+        long acquired = acquiredCount.get();
+        long throttled = throttledCount.get();
+        Map<String, Object> stats = new HashMap<>(getLimits());
+        stats.put("acquiredCount", acquired);
+        stats.put("throttledCount", throttled);
+        stats.put("waitingNow", waiting.get());
+        stats.put("avgWaitMs", acquired > 0 ? Math.round(totalWaitNanos.get() / 10_000.0 / acquired) / 100.0 : 0.0);
+        stats.put("avgThrottledWaitMs", throttled > 0 ? Math.round(totalWaitNanos.get() / 10_000.0 / throttled) / 100.0 : 0.0);
+        stats.put("maxWaitMs", Math.round(maxWaitNanos.get() / 10_000.0) / 100.0);
+        stats.put("totalWaitMs", totalWaitNanos.get() / 1_000_000);
+        stats.put("globalLimitedCount", globalLimitedCount.get());
+        stats.put("companyLimitedCount", companyLimitedCount.get());
+        stats.put("campaignLimitedCount", campaignLimitedCount.get());
+        stats.put("extraLimitedCount", extraLimitedCount.get());
+        stats.put("deferredCount", deferredCount.get());
+        stats.put("companyBuckets", companyBuckets.size());
+        stats.put("campaignBuckets", campaignBuckets.size());
+        return stats;
+    }
+
+    /**
+     * 오래 쓰이지 않은 회사/캠페인 버킷 정리
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        companyBuckets.values().removeIf(bucket -> bucket.isIdle(now, IDLE_BUCKET_NANOS));
+        campaignBuckets.values().removeIf(bucket -> bucket.isIdle(now, IDLE_BUCKET_NANOS));
+    }
+
+    private static void refund(TokenBucket... buckets) {
+        for (TokenBucket bucket : buckets) {
+            if (bucket != null) {
+                bucket.refund();
+            }
+        }
+    }
+
+    private TokenBucket companyBucket(UUID companyId) {
+        return companyBuckets.computeIfAbsent(companyId, id -> new TokenBucket(companyRate(id), burstSeconds));
+    }
+
+    private TokenBucket campaignBucket(UUID campaignId) {
+        return campaignBuckets.computeIfAbsent(campaignId, id -> new TokenBucket(campaignTps, burstSeconds));
+    }
+
+    private double companyRate(UUID companyId) {
+        return companyOverrides.getOrDefault(companyId, companyTps);
+    }
+
+    /**
+     * 예약형 토큰 버킷
+     *
+     * tokens 는 음수가 될 수 있고, 음수 만큼이 이미 예약된 미래 토큰이다.
+     * reserve() 는 토큰 하나를 가져가고 그 토큰이 생기는 시각(nanoTime)을 돌려준다.
+     */
+    static final class TokenBucket {
+        private double ratePerNano;
+        private double capacity;
+        private double tokens;
+        private long lastRefill;
+        private long lastReserve;
+
+        TokenBucket(double tps, double burstSeconds) {
+            this(tps, burstSeconds, System.nanoTime());
+        }
+
+        TokenBucket(double tps, double burstSeconds, long now) {
+            this.lastRefill = now;
+            this.lastReserve = now;
+            configure(tps, burstSeconds, now);
+            this.tokens = capacity;
+        }
+
+        void configure(double tps, double burstSeconds) {
+            configure(tps, burstSeconds, System.nanoTime());
+        }
+
+        /**
+         * 속도 변경. 쌓인 토큰은 유지하되, 제한 없음(0)에서 제한으로 바뀌면 새 버킷처럼 가득 찬 상태로 시작한다
+         */
+        synchronized void configure(double tps, double burstSeconds, long now) {
+            refill(now);
+            boolean wasUnlimited = ratePerNano == 0;
+            this.ratePerNano = tps > 0 ? tps / 1_000_000_000.0 : 0;
+            this.capacity = tps > 0 ? Math.max(1.0, tps * burstSeconds) : 0;
+            if (ratePerNano == 0) {
+                tokens = 0;
+            } else if (wasUnlimited) {
+                tokens = capacity;
+            } else {
+                tokens = Math.min(tokens, capacity);
+            }
+        }
+
+        synchronized long reserve(long now) {
+            lastReserve = now;
+            if (ratePerNano == 0) {
+                return now;
+            }
+            refill(now);
+            tokens -= 1;
+            if (tokens >= 0) {
+                return now;
+            }
+            return now + (long) Math.ceil(-tokens / ratePerNano);
+        }
+
+        /**
+         * 쓰지 않은 예약 1건 반환
+         */
+        synchronized void refund() {
+            if (ratePerNano > 0) {
+                tokens = Math.min(capacity, tokens + 1);
+            }
+        }
+
+        /**
+         * 오래 예약이 없고 토큰이 가득 차 있으면 지워도 새로 만든 버킷과 같다
+         */
+        synchronized boolean isIdle(long now, long idleNanos) {
+            refill(now);
+            return now - lastReserve >= idleNanos && tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            if (now > lastRefill) {
+                tokens = Math.min(capacity, tokens + (now - lastRefill) * ratePerNano);
+                lastRefill = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.demo.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * 발송 실패 재시도 정책
+ *
+ * retryable-codes 에 있는 오류 코드(일시적 오류)만 재시도하고, 나머지(INVALID_PHONE, BLOCKED_NUMBER 등)는 영구 실패로 본다.
+ * n 번째 재시도 대기 시간은 min(maxDelay, baseDelay * multiplier^n) 에서 jitter 비율만큼 무작위로 줄인 값이라
+ * 같은 시각에 실패한 발송들이 한꺼번에 다시 몰리지 않는다.
+ */
+@Component
+public class DeliveryRetryPolicy {
+
+    private final Set<String> retryableCodes;
+    private final int maxRetries;
+    private final long baseDelayMs;
+    private final double multiplier;
+    private final long maxDelayMs;
+    private final double jitter;
+
+    public DeliveryRetryPolicy(@Value("${marketreach.retry.retryable-codes:NETWORK_TIMEOUT,SERVICE_UNAVAILABLE,QUOTA_EXCEEDED}") String retryableCodes,
+                               @Value("${marketreach.retry.max-retries:5}") int maxRetries,
+                               @Value("${marketreach.retry.base-delay-ms:30000}") long baseDelayMs,
+                               @Value("${marketreach.retry.multiplier:2.0}") double multiplier,
+                               @Value("${marketreach.retry.max-delay-ms:1800000}") long maxDelayMs,
+                               @Value("${marketreach.retry.jitter:0.5}") double jitter) {
+        this.retryableCodes = Arrays.stream(retryableCodes.split(","))
+                .map(code -> code.trim().toUpperCase(Locale.ROOT))
+                .filter(code -> !code.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.maxRetries = maxRetries;
+        this.baseDelayMs = baseDelayMs;
+        this.multiplier = multiplier;
+        this.maxDelayMs = maxDelayMs;
+        this.jitter = Math.min(Math.max(jitter, 0.0), 1.0);
+    }
+
+    /**
+     * 일시적 오류(재시도 대상)인지
+     */
+    public boolean isRetryable(String errorCode) {
+        return errorCode != null && retryableCodes.contains(errorCode);
+    }
+
+    /**
+     * 다음 재시도 예정 시각 (재시도하지 않으면 null)
+     *
+     * @param retryCount 지금까지 재시도한 횟수
+     */
+    public LocalDateTime nextRetryAt(String errorCode, int retryCount) {
+        if (!isRetryable(errorCode) || retryCount >= maxRetries) {
+            return null;
+        }
+        return LocalDateTime.now().plusNanos(delayMs(retryCount) * 1_000_000L);
+    }
+
+    /**
+     * retryCount 번째 재시도 대기 시간 (jitter 적용)
+     */
+    long delayMs(int retryCount) {
+        double exponential = Math.min((double) maxDelayMs, baseDelayMs * Math.pow(multiplier, retryCount));
+        double factor = 1.0 - jitter * ThreadLocalRandom.current().nextDouble();
+        return Math.max(1L, Math.round(exponential * factor));
+    }
+
+    /**
+     * 정책 설정
+     */
+    public Map<String, Object> getSettings() {
+        Map<String, Object> settings = new HashMap<>();
+        settings.put("retryableCodes", retryableCodes);
+        settings.put("maxRetries", maxRetries);
+        settings.put("baseDelayMs", baseDelayMs);
+        settings.put("multiplier", multiplier);
+        settings.put("maxDelayMs", maxDelayMs);
+        settings.put("jitter", jitter);
+        return settings;
+    }
+}
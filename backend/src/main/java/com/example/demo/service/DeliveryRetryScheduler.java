@@ -0,0 +1,411 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Delivery;
+import com.example.demo.entity.Delivery.DeliveryStatus;
+import com.example.demo.repository.DeliveryRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 실패 발송 자동 재시도
+ *
+ * 재시도할 발송은 DB 의 deliveries.next_retry_at 에 기록되고(영속), 그중 horizonSeconds 안에 예정된 것만
+ * 예정 시각 순으로 정렬된 메모리 큐(최대 maxQueued 건)에 올려 전용 스레드가 시각이 되면 꺼낸다.
+ * 메모리 큐는 새 실패가 저장될 때(DeliveryWriteBuffer) 바로 채워지고, 시작 시와 loadIntervalMs 마다 DB 에서 다시 채워진다.
+ *
+ * 꺼낸 발송은 next_retry_at 을 lease 시각으로 미루는 조건부 UPDATE 로 선점한 뒤 보내므로 여러 노드가 같은 건을 보내지 않고,
+ * 도중에 노드가 죽으면 lease 가 지난 뒤 다시 재시도된다.
+ * 재시도 발송도 DeliveryRateLimiter 의 전체/회사/캠페인 제한을 함께 쓰므로 게이트웨이 한도를 넘지 않고,
+ * 추가로 전용 토큰 버킷(maxTps)과 동시 발송 수(maxInFlight)로 제한되어 새 캠페인 발송을 밀어내지 않는다.
+ * 회사/캠페인 제한에 걸린 건은 기다리지 않고 토큰이 생기는 시각으로 미루므로 한 회사가 다른 회사의 재시도를 막지 않는다.
+ */
+@Component
+public class DeliveryRetryScheduler {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private DeliveryGatewayBatcher deliveryGatewayBatcher;
+
+    @Autowired
+    private DeliveryRetryPolicy deliveryRetryPolicy;
+
+    @Autowired
+    private FrequencyCapService frequencyCapService;
+
+    @Autowired
+    private DeliveryCounterService deliveryCounterService;
+
+    @Autowired
+    private DeliveryStreamService deliveryStreamService;
+
+    @Autowired
+    private DeliveryRateLimiter deliveryRateLimiter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final double maxTps;
+    private final int batchSize;
+    private final long leaseSeconds;
+    private final long horizonSeconds;
+    private final int maxQueued;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final DeliveryRateLimiter.TokenBucket bucket;
+
+    /** 예정 시각 순 메모리 큐와 중복 방지용 ID 집합 */
+    private final NavigableSet<RetryEntry> queue = new ConcurrentSkipListSet<>(
+            Comparator.comparingLong(RetryEntry::dueMillis).thenComparing(RetryEntry::deliveryId));
+    private final Set<UUID> queuedIds = ConcurrentHashMap.newKeySet();
+    private final Object signal = new Object();
+
+    private final AtomicLong scheduled = new AtomicLong();
+    private final AtomicLong attempted = new AtomicLong();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failedAgain = new AtomicLong();
+    private final AtomicLong exhausted = new AtomicLong();
+    private final AtomicLong claimLost = new AtomicLong();
+    private final AtomicLong postponed = new AtomicLong();
+    private final AtomicLong rateDeferred = new AtomicLong();
+    private final AtomicLong throttleWaitNanos = new AtomicLong();
+
+    private volatile boolean running = true;
+    private Thread worker;
+
+    public DeliveryRetryScheduler(@Value("${marketreach.retry.enabled:true}") boolean enabled,
+                                  @Value("${marketreach.retry.max-tps:50}") double maxTps,
+                                  @Value("${marketreach.retry.max-in-flight:50}") int maxInFlight,
+                                  @Value("${marketreach.retry.batch-size:100}") int batchSize,
+                                  @Value("${marketreach.retry.lease-seconds:300}") long leaseSeconds,
+                                  @Value("${marketreach.retry.horizon-seconds:300}") long horizonSeconds,
+                                  @Value("${marketreach.retry.max-queued:10000}") int maxQueued) {
+        this.enabled = enabled;
+        this.maxTps = maxTps;
+        this.batchSize = Math.max(1, batchSize);
+        this.leaseSeconds = leaseSeconds;
+        this.horizonSeconds = horizonSeconds;
+        this.maxQueued = maxQueued;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.inFlight = new Semaphore(this.maxInFlight);
+        this.bucket = new DeliveryRateLimiter.TokenBucket(maxTps, 1.0);
+    }
+
+    /**
+     * DB 준비 후 재시도 스레드 시작 및 예정된 재시도 적재
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        worker = new Thread(this::runWorker, "delivery-retry");
+        worker.setDaemon(true);
+        worker.start();
+        loadDue();
+        System.out.println("발송 재시도 스케줄러 시작: 메모리 큐 " + queue.size() + "건, 전체 대기 "
+                + deliveryRepository.countByStatusAndNextRetryAtIsNotNull(DeliveryStatus.FAILED) + "건");
+    }
+
+    /**
+     * 새로 저장된 실패 발송의 재시도 예약 (horizon 밖이면 이후 DB 적재 때 올라온다)
+     */
+    public void offer(Delivery delivery) {
+        if (delivery.getId() != null && delivery.getNextRetryAt() != null) {
+            offer(delivery.getId(), delivery.getNextRetryAt());
+        }
+    }
+
+    /**
+     * horizon 안에 예정된 재시도를 DB 에서 메모리 큐로 적재
+     */
+    @Scheduled(fixedDelayString = "${marketreach.retry.load-interval-ms:30000}")
+    public void loadDue() {
+        if (!enabled || worker == null) {
+            return;
+        }
+        int capacity = maxQueued - queuedIds.size();
+        if (capacity <= 0) {
+            return;
+        }
+        List<Object[]> rows = deliveryRepository.findRetryDue(DeliveryStatus.FAILED,
+                LocalDateTime.now().plusSeconds(horizonSeconds), PageRequest.of(0, capacity));
+        for (Object[] row : rows) {
+            offer((UUID) row[0], (LocalDateTime) row[1]);
+        }
+    }
+
+    /**
+     * 재시도 현황
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>(deliveryRetryPolicy.getSettings());
+        stats.put("enabled", enabled);
+        stats.put("maxTps", maxTps);
+        stats.put("queued", queuedIds.size());
+        stats.put("pendingInDb", deliveryRepository.countByStatusAndNextRetryAtIsNotNull(DeliveryStatus.FAILED));
+        stats.put("inFlight", maxInFlight - inFlight.availablePermits());
+        stats.put("scheduled", scheduled.get());
+        stats.put("attempted", attempted.get());
+        stats.put("succeeded", succeeded.get());
+        stats.put("failedAgain", failedAgain.get());
+        stats.put("exhausted", exhausted.get());
+        stats.put("claimLost", claimLost.get());
+        stats.put("postponed", postponed.get());
+        stats.put("rateDeferred", rateDeferred.get());
+        stats.put("throttleWaitMs", throttleWaitNanos.get() / 1_000_000);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private void offer(UUID deliveryId, LocalDateTime dueAt) {
+        if (!enabled) {
+            return;
+        }
+        // ms 미만을 올림해야 꺼낼 때 DB 의 next_retry_at <= now 조건(claimRetry)을 만족한다
+        Instant dueInstant = dueAt.atZone(ZONE).toInstant();
+        long dueMillis = dueInstant.toEpochMilli() + (dueInstant.getNano() % 1_000_000 != 0 ? 1 : 0);
+        if (dueMillis > System.currentTimeMillis() + horizonSeconds * 1000 || queuedIds.size() >= maxQueued) {
+            return;
+        }
+        if (!queuedIds.add(deliveryId)) {
+            return;
+        }
+        RetryEntry entry = new RetryEntry(dueMillis, deliveryId);
+        queue.add(entry);
+        scheduled.incrementAndGet();
+        if (queue.first() == entry) {
+            synchronized (signal) {
+                signal.notifyAll();
+            }
+        }
+    }
+
+    private void runWorker() {
+        while (running) {
+            try {
+                List<UUID> due = takeDue();
+                if (due.isEmpty()) {
+                    continue;
+                }
+                process(due);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                System.err.println("발송 재시도 처리 중 오류: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 가장 이른 예정 시각까지 기다린 뒤 시각이 된 항목을 최대 batchSize 건 꺼낸다
+     */
+    private List<UUID> takeDue() throws InterruptedException {
+        long now = System.currentTimeMillis();
+        RetryEntry first = queue.isEmpty() ? null : queue.first();
+        if (first == null || first.dueMillis() > now) {
+            long waitMs = first == null ? 1000 : Math.min(1000, first.dueMillis() - now);
+            synchronized (signal) {
+                signal.wait(Math.max(1, waitMs));
+            }
+            return List.of();
+        }
+        List<UUID> due = new ArrayList<>(batchSize);
+        RetryEntry entry;
+        while (due.size() < batchSize && (entry = queue.pollFirst()) != null) {
+            if (entry.dueMillis() > now) {
+                queue.add(entry);
+                break;
+            }
+            queuedIds.remove(entry.deliveryId());
+            due.add(entry.deliveryId());
+        }
+        return due;
+    }
+
+    private void process(List<UUID> due) throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plusSeconds(leaseSeconds);
+        List<UUID> claimed = transactionTemplate.execute(status -> {
+            List<UUID> ids = new ArrayList<>(due.size());
+            for (UUID id : due) {
+                if (deliveryRepository.claimRetry(id, DeliveryStatus.FAILED, now, leaseUntil) == 1) {
+                    ids.add(id);
+                }
+            }
+            return ids;
+        });
+        if (claimed == null || claimed.isEmpty()) {
+            claimLost.addAndGet(due.size());
+            return;
+        }
+        claimLost.addAndGet(due.size() - claimed.size());
+
+        // 회사/캠페인 속도 제한에 걸린 캠페인과 토큰이 생기는 시각 (이 배치의 같은 캠페인 건은 함께 미룬다)
+        Map<UUID, LocalDateTime> throttledUntil = new HashMap<>();
+        for (Object[] row : deliveryRepository.findRetryTargets(claimed)) {
+            RetryTarget target = new RetryTarget((UUID) row[0], (UUID) row[1], (String) row[2], (String) row[3],
+                    ((Number) row[4]).intValue(), (UUID) row[5], (UUID) row[6], (LocalDateTime) row[7]);
+            LocalDateTime throttled = throttledUntil.get(target.campaignId());
+            if (throttled != null) {
+                defer(target, throttled);
+                continue;
+            }
+            if (!frequencyCapService.tryAcquire(target.customerId(), target.companyId())) {
+                postpone(target);
+                continue;
+            }
+            inFlight.acquire();
+            long waitStarted = System.nanoTime();
+            long deferNanos;
+            try {
+                deferNanos = deliveryRateLimiter.tryAcquire(target.companyId(), target.campaignId(), bucket);
+            } catch (InterruptedException e) {
+                inFlight.release();
+                frequencyCapService.release(target.customerId(), target.companyId());
+                throw e;
+            }
+            throttleWaitNanos.addAndGet(System.nanoTime() - waitStarted);
+            if (deferNanos > 0) {
+                // 기다리면 다른 회사의 재시도까지 막히므로 토큰이 생길 때로 미룬다 (재시도 횟수는 쓰지 않는다)
+                inFlight.release();
+                frequencyCapService.release(target.customerId(), target.companyId());
+                LocalDateTime next = LocalDateTime.now().plusNanos(deferNanos);
+                throttledUntil.put(target.campaignId(), next);
+                defer(target, next);
+                continue;
+            }
+            attempted.incrementAndGet();
+            DeliveryGateway.Message message = new DeliveryGateway.Message(
+                    UUID.randomUUID(), target.customerId(), target.phone(), target.message());
+            deliveryGatewayBatcher.send(message).whenComplete((result, error) -> {
+                try {
+                    applyResult(target, result != null ? result
+                            : DeliveryGateway.Result.failure(message.messageId(), DeliveryGateway.ERROR_SERVICE_UNAVAILABLE));
+                } catch (Exception e) {
+                    System.err.println("발송 재시도 결과 반영 중 오류: " + e.getMessage());
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * 빈도 제한에 걸린 재시도는 횟수를 쓰지 않고 다음 간격으로 미룬다
+     */
+    private void postpone(RetryTarget target) {
+        LocalDateTime next = LocalDateTime.now().plusNanos(deliveryRetryPolicy.delayMs(target.retryCount()) * 1_000_000L);
+        transactionTemplate.executeWithoutResult(status -> deliveryRepository.updateNextRetryAt(target.deliveryId(), next));
+        postponed.incrementAndGet();
+        offer(target.deliveryId(), next);
+    }
+
+    /**
+     * 회사/캠페인 속도 제한에 걸린 재시도는 횟수를 쓰지 않고 토큰이 생기는 시각으로 미룬다
+     */
+    private void defer(RetryTarget target, LocalDateTime next) {
+        transactionTemplate.executeWithoutResult(status -> deliveryRepository.updateNextRetryAt(target.deliveryId(), next));
+        rateDeferred.incrementAndGet();
+        offer(target.deliveryId(), next);
+    }
+
+    private void applyResult(RetryTarget target, DeliveryGateway.Result result) {
+        int retryCount = target.retryCount() + 1;
+        DeliveryStatus status;
+        String errorCode;
+        LocalDateTime sentAt;
+        LocalDateTime nextRetryAt;
+        if (result.success()) {
+            status = DeliveryStatus.SENT;
+            errorCode = null;
+            sentAt = LocalDateTime.now();
+            nextRetryAt = null;
+            succeeded.incrementAndGet();
+        } else {
+            status = DeliveryStatus.FAILED;
+            errorCode = result.errorCode();
+            sentAt = null;
+            nextRetryAt = deliveryRetryPolicy.nextRetryAt(errorCode, retryCount);
+            frequencyCapService.release(target.customerId(), target.companyId());
+            if (nextRetryAt != null) {
+                failedAgain.incrementAndGet();
+            } else {
+                exhausted.incrementAndGet();
+            }
+        }
+        // 결과 저장과 카운터 반영을 한 트랜잭션에 묶어 커밋 후 반영되게 한다 (카운터 재구성과 겹치지 않도록)
+        transactionTemplate.executeWithoutResult(tx -> {
+            deliveryRepository.applyRetryResult(target.deliveryId(), status, errorCode, sentAt, retryCount, nextRetryAt);
+            if (status != DeliveryStatus.FAILED) {
+                Delivery changed = new Delivery();
+                changed.setStatus(status);
+                changed.setCreatedAt(target.createdAt());
+                deliveryCounterService.recordStatusChange(changed, DeliveryStatus.FAILED);
+            }
+        });
+        publishUpdated(target, status, errorCode, sentAt, retryCount);
+        if (nextRetryAt != null) {
+            offer(target.deliveryId(), nextRetryAt);
+        }
+    }
+
+    private void publishUpdated(RetryTarget target, DeliveryStatus status, String errorCode,
+                                LocalDateTime sentAt, int retryCount) {
+        try {
+            Map<String, Object> event = new HashMap<>();
+            event.put("type", "DELIVERY_UPDATED");
+            event.put("id", target.deliveryId());
+            event.put("campaignId", target.campaignId());
+            if (target.companyId() != null) {
+                event.put("companyId", target.companyId());
+            }
+            event.put("status", status.name());
+            event.put("errorCode", errorCode);
+            event.put("sentAt", sentAt);
+            event.put("retryCount", retryCount);
+            event.put("updatedAt", LocalDateTime.now());
+            deliveryStreamService.publish(event);
+        } catch (Exception ignored) {}
+    }
+
+    private record RetryEntry(long dueMillis, UUID deliveryId) {}
+
+    private record RetryTarget(UUID deliveryId, UUID customerId, String phone, String message, int retryCount,
+                               UUID campaignId, UUID companyId, LocalDateTime createdAt) {}
+}
@@ -8,18 +8,19 @@ import com.example.demo.repository.DeliveryRepository;
 import com.example.demo.repository.CampaignRepository;
 import com.example.demo.repository.CustomerRepository;
 import com.example.demo.repository.TargetingLocationRepository;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.stream.Collectors;
 
 @Service
 public class DeliveryService {
@@ -39,191 +40,160 @@ public class DeliveryService {
     @Autowired
     private DeliveryStreamService deliveryStreamService;
     
-    private final ExecutorService executorService = Executors.newFixedThreadPool(5);
+    @Autowired
+    private CustomerService customerService;
+    
+    @Autowired
+    private DeliveryGatewayBatcher deliveryGatewayBatcher;
+    
+    @Autowired
+    private DeliveryWriteBuffer deliveryWriteBuffer;
+    
+    @Autowired
+    private DeliveryCounterService deliveryCounterService;
+    
+    @Autowired
+    private DeliveryRetryPolicy deliveryRetryPolicy;
+    
+    @Autowired
+    private DeliveryRetryScheduler deliveryRetryScheduler;
     
     /**
-     * 캠페인 발송 시뮬레이션
+     * 발송 대상 캠페인 조회 (백그라운드 스레드에서 쓸 수 있도록 타겟팅 위치까지 로딩)
      */
-    @Transactional
-    public Map<String, Object> simulateCampaignDelivery(UUID campaignId) {
+    @Transactional(readOnly = true)
+    public Campaign getCampaignForSend(UUID campaignId) {
         Campaign campaign = campaignRepository.findById(campaignId)
                 .orElseThrow(() -> new RuntimeException("캠페인을 찾을 수 없습니다."));
-        
+        Hibernate.initialize(campaign.getTargetingLocation());
+        // 발송 이벤트의 회사 구분용 (companyId 는 @Transient 라 조회 시 채워지지 않음)
+        if (campaign.getCompany() != null) {
+            campaign.setCompanyId(campaign.getCompany().getId());
+        }
+        return campaign;
+    }
+    
+    /**
+     * 캠페인 타겟팅 위치의 반경(또는 조합 도형) 내 고객 조회 (공간 인덱스 우선)
+     */
+    public List<Customer> resolveTargetCustomers(Campaign campaign) {
         if (campaign.getTargetingLocation() == null) {
-            Map<String, Object> result = new HashMap<>();
-            result.put("totalDeliveries", 0);
-            result.put("sentCount", 0);
-            result.put("failedCount", 0);
-            result.put("pendingCount", 0);
-            result.put("successRate", 0.0);
-            result.put("message", "타겟팅 위치가 설정되지 않았습니다.");
-            return result;
+            return List.of();
         }
-        
-        // 타겟팅 위치의 반경 내 고객들 조회
-        List<Customer> targetCustomers = customerRepository.findCustomersNearLocation(
+        if (campaign.getTargetingLocation().getShapeJson() != null) {
+            return customerService.getCustomersInShape(TargetingShape.parse(campaign.getTargetingLocation().getShapeJson()));
+        }
+        return customerService.getCustomersNearLocation(
                 campaign.getTargetingLocation().getCenterLat(),
                 campaign.getTargetingLocation().getCenterLng(),
                 campaign.getTargetingLocation().getRadiusM()
         );
-        
-        if (targetCustomers.isEmpty()) {
-            Map<String, Object> result = new HashMap<>();
-            result.put("totalDeliveries", 0);
-            result.put("sentCount", 0);
-            result.put("failedCount", 0);
-            result.put("pendingCount", 0);
-            result.put("successRate", 0.0);
-            result.put("message", "타겟 고객이 없습니다.");
-            return result;
-        }
-        
-        List<Delivery> deliveries = new ArrayList<>();
-        List<CompletableFuture<Delivery>> futures = new ArrayList<>();
-        
-        // 각 고객에 대해 발송 시뮬레이션
-        for (Customer customer : targetCustomers) {
-            CompletableFuture<Delivery> future = CompletableFuture.supplyAsync(() -> {
-                return simulateDeliveryToCustomer(campaign, customer);
-            }, executorService);
-            
-            futures.add(future);
-        }
-        
-        // 모든 발송 완료 대기
-        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
-        
-        // 결과 수집
-        for (CompletableFuture<Delivery> future : futures) {
-            try {
-                Delivery delivery = future.get();
-                if (delivery != null) {
-                    deliveries.add(delivery);
-                }
-            } catch (Exception e) {
-                System.err.println("발송 처리 중 오류: " + e.getMessage());
-                // 실패한 발송 처리
-                Delivery failedDelivery = new Delivery(campaign, null);
-                failedDelivery.setStatus(DeliveryStatus.FAILED);
-                failedDelivery.setErrorCode("SIMULATION_ERROR");
-                failedDelivery.setCreatedAt(LocalDateTime.now());
-                failedDelivery.setMessageTextSent(campaign.getMessage());
-                deliveries.add(deliveryRepository.save(failedDelivery));
-            }
+    }
+    
+    /**
+     * 개별 고객 발송을 게이트웨이 배치 대기열에 제출 (결과가 오면 저장 버퍼에 넣고 완료)
+     * outboxId 가 있으면 결과 저장 시 해당 발송 대기열 행도 함께 삭제된다.
+     */
+    public CompletableFuture<Delivery> submitDelivery(Campaign campaign, Customer customer, UUID outboxId) {
+        Delivery delivery = new Delivery(campaign, customer);
+        delivery.setOutboxId(outboxId);
+        delivery.setMessageTextSent(campaign.getMessage());
+        delivery.setCreatedAt(LocalDateTime.now());
+        DeliveryGateway.Message message = new DeliveryGateway.Message(
+                UUID.randomUUID(), customer.getId(), customer.getPhone(), campaign.getMessage());
+        return deliveryGatewayBatcher.send(message).thenApply(result -> recordGatewayResult(delivery, result));
+    }
+    
+    /**
+     * 저장 대기 중인 발송 결과를 모두 저장
+     */
+    public void flushPendingDeliveries() {
+        deliveryWriteBuffer.flush();
+    }
+    
+    /**
+     * 발송 결과 저장 버퍼 상태
+     */
+    public Map<String, Object> getWriteBufferStats() {
+        return deliveryWriteBuffer.getStats();
+    }
+    
+    /**
+     * 실패 발송 재시도 현황
+     */
+    public Map<String, Object> getRetryStats() {
+        return deliveryRetryScheduler.getStats();
+    }
+    
+    /**
+     * 발송 작업 종료 처리: 이번 발송분(sendStartedAt 이후)의 DB 발송 결과로 캠페인 상태를 정하고 작업 표시를 해제한다.
+     * 여러 노드가 나눠 처리해도 결과가 같고, 다른 곳에서 이미 종료했으면 null 을 돌려준다.
+     */
+    @Transactional
+    public String finishCampaignSend(UUID campaignId, UUID jobId) {
+        Campaign campaign = campaignRepository.findById(campaignId).orElse(null);
+        if (campaign == null || !jobId.equals(campaign.getSendJobId())) {
+            return null;
         }
-        
-        // 통계 계산
-        long sentCount = 0;
-        long failedCount = 0;
-        long pendingCount = 0;
-        
-        for (Delivery delivery : deliveries) {
-            try {
-                switch (delivery.getStatus()) {
-                    case SENT:
-                    case SUCCESS:
-                        sentCount++;
-                        break;
-                    case FAILED:
-                        failedCount++;
-                        break;
-                    case PENDING:
-                        pendingCount++;
-                        break;
-                    default:
-                        failedCount++;
-                        break;
-                }
-            } catch (Exception e) {
-                failedCount++;
+        long sent = 0;
+        long failed = 0;
+        LocalDateTime since = campaign.getSendStartedAt() != null ? campaign.getSendStartedAt() : campaign.getCreatedAt();
+        for (Object[] row : deliveryRepository.countByStatusForCampaignSince(campaignId, since)) {
+            long count = ((Number) row[1]).longValue();
+            if (row[0] == DeliveryStatus.FAILED) {
+                failed += count;
+            } else if (row[0] == DeliveryStatus.SENT || row[0] == DeliveryStatus.SUCCESS) {
+                sent += count;
             }
         }
-        
-        double successRate = calculateSuccessRate(deliveries);
-        
-        System.out.println("발송 결과:");
-        System.out.println("- 총 발송: " + deliveries.size() + "건");
-        System.out.println("- 성공: " + sentCount + "건");
-        System.out.println("- 실패: " + failedCount + "건");
-        System.out.println("- 성공률: " + successRate + "%");
-        
-        // 캠페인 상태 업데이트
-        if (failedCount == deliveries.size()) {
-            campaign.setStatus("FAILED");
-        } else {
-            campaign.setStatus("COMPLETED");
-        }
-        campaignRepository.save(campaign);
-        
-        Map<String, Object> result = new HashMap<>();
-        result.put("totalDeliveries", deliveries.size());
-        result.put("sentCount", sentCount);
-        result.put("failedCount", failedCount);
-        result.put("pendingCount", pendingCount);
-        result.put("successRate", successRate);
-        result.put("message", "캠페인 발송이 완료되었습니다.");
-        
-        return result;
+        String status = sent == 0 && failed > 0 ? "FAILED" : "COMPLETED";
+        return campaignRepository.finishSending(campaignId, jobId, status) == 1 ? status : null;
     }
     
     /**
-     * 개별 고객 발송 시뮬레이션
+     * 발송 작업이 표시된 캠페인 {캠페인 ID, 작업 ID}
      */
-    private Delivery simulateDeliveryToCustomer(Campaign campaign, Customer customer) {
+    public List<Object[]> findSendingCampaigns() {
+        return campaignRepository.findSending();
+    }
+    
+    /**
+     * 취소된 발송 작업의 표시만 해제 (캠페인 상태는 바꾸지 않는다)
+     */
+    @Transactional
+    public void releaseCampaignSend(UUID campaignId, UUID jobId) {
+        campaignRepository.releaseSending(campaignId, jobId);
+    }
+    
+    /**
+     * 게이트웨이 발송 결과 반영
+     */
+    private Delivery recordGatewayResult(Delivery delivery, DeliveryGateway.Result result) {
         try {
-            Delivery delivery = new Delivery(campaign, customer);
-            delivery.setMessageTextSent(campaign.getMessage());
-            delivery.setCreatedAt(LocalDateTime.now());
-            
-            // 랜덤하게 성공/실패 결정 (85% 성공률)
-            double random = Math.random();
-            if (random < 0.85) {
-                // 성공
+            if (result.success()) {
                 delivery.setStatus(DeliveryStatus.SENT);
                 delivery.setSentAt(LocalDateTime.now());
-                
-                // 약간의 지연 시뮬레이션 (0.1~2초)
-                try {
-                    Thread.sleep((long) (Math.random() * 1900 + 100));
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
             } else {
-                // 실패
                 delivery.setStatus(DeliveryStatus.FAILED);
-                delivery.setErrorCode("SIMULATION_FAILED");
+                delivery.setErrorCode(result.errorCode());
+                // 일시적 오류면 재시도 예약 (영구 실패는 null)
+                delivery.setNextRetryAt(deliveryRetryPolicy.nextRetryAt(result.errorCode(), 0));
             }
             
-            Delivery saved = deliveryRepository.save(delivery);
-            try {
-                Map<String, Object> event = new HashMap<>();
-                event.put("type", "DELIVERY_CREATED");
-                event.put("id", saved.getId());
-                event.put("campaignId", campaign.getId());
-                event.put("customerId", customer.getId());
-                event.put("status", saved.getStatus().name());
-                event.put("createdAt", saved.getCreatedAt());
-                deliveryStreamService.publish(event);
-            } catch (Exception ignored) {}
-            return saved;
+            // 저장과 DELIVERY_CREATED 이벤트 발행은 DeliveryWriteBuffer 가 배치로 처리
+            deliveryWriteBuffer.enqueue(delivery);
+            return delivery;
         } catch (Exception e) {
-            System.err.println("고객 발송 시뮬레이션 중 오류: " + e.getMessage());
+            System.err.println("고객 발송 결과 처리 중 오류: " + e.getMessage());
             return null;
         }
     }
-
+    
     /**
-     * 랜덤 에러 코드 생성
+     * 발송 게이트웨이 배치 제출 현황
      */
-    private String getRandomErrorCode() {
-        String[] errorCodes = {
-            "NETWORK_TIMEOUT",
-            "INVALID_PHONE",
-            "SERVICE_UNAVAILABLE",
-            "QUOTA_EXCEEDED",
-            "BLOCKED_NUMBER"
-        };
-        return errorCodes[(int) (Math.random() * errorCodes.length)];
+    public Map<String, Object> getGatewayStats() {
+        return deliveryGatewayBatcher.getStats();
     }
     
     /**
@@ -248,68 +218,17 @@ public class DeliveryService {
     }
     
     /**
-     * 발송 통계 요약 조회
+     * 발송 통계 요약 조회 (실시간 카운터 기준, SQL 없음)
      */
     public Map<String, Object> getDeliverySummary() {
-        Map<String, Object> summary = new HashMap<>();
-        
-        long totalDeliveries = deliveryRepository.count();
-        long sentCount = deliveryRepository.countByStatus(DeliveryStatus.SENT);
-        long failedCount = deliveryRepository.countByStatus(DeliveryStatus.FAILED);
-        long pendingCount = deliveryRepository.countByStatus(DeliveryStatus.PENDING);
-        long todayDeliveries = deliveryRepository.countTodayDeliveries();
-        
-        summary.put("totalDeliveries", totalDeliveries);
-        summary.put("sentCount", sentCount);
-        summary.put("failedCount", failedCount);
-        summary.put("pendingCount", pendingCount);
-        summary.put("todayDeliveries", todayDeliveries);
-        summary.put("successRate", totalDeliveries > 0 ? (double) sentCount / totalDeliveries * 100 : 0.0);
-        
-        return summary;
+        return deliveryCounterService.getSummary();
     }
     
     /**
-     * 실시간 발송 통계 조회 (최근 30분)
+     * 실시간 발송 통계 조회 (최근 30분, 실시간 카운터 기준)
      */
     public List<Map<String, Object>> getRealtimeStats() {
-        LocalDateTime startTime = LocalDateTime.now().minusMinutes(30);
-        List<Object[]> rawStats = deliveryRepository.getRealtimeDeliveryStats(startTime);
-        
-        // 시간대별 통계 계산
-        Map<Integer, Map<String, Long>> timeSlotStats = new HashMap<>();
-        for (Object[] row : rawStats) {
-            Integer timeSlot = (Integer) row[0];
-            String statusStr = (String) row[1];
-            Long count = (Long) row[2];
-            
-            // enum 변환 시 예외 처리
-            String statusName;
-            try {
-                DeliveryStatus status = DeliveryStatus.valueOf(statusStr);
-                statusName = status.name();
-            } catch (IllegalArgumentException e) {
-                // 알 수 없는 상태는 FAILED로 처리
-                statusName = "FAILED";
-                System.err.println("알 수 없는 DeliveryStatus: " + statusStr);
-            }
-            
-            timeSlotStats.computeIfAbsent(timeSlot, k -> new HashMap<>())
-                    .put(statusName, count);
-        }
-        
-        // 결과 포맷팅
-        List<Map<String, Object>> result = new ArrayList<>();
-        for (int i = 0; i <= 6; i++) { // 30분을 5분 단위로 6개 구간
-            Map<String, Object> timeSlot = new HashMap<>();
-            timeSlot.put("timeSlot", i * 5);
-            timeSlot.put("sent", timeSlotStats.getOrDefault(i, new HashMap<>()).getOrDefault("SENT", 0L));
-            timeSlot.put("failed", timeSlotStats.getOrDefault(i, new HashMap<>()).getOrDefault("FAILED", 0L));
-            timeSlot.put("pending", timeSlotStats.getOrDefault(i, new HashMap<>()).getOrDefault("PENDING", 0L));
-            result.add(timeSlot);
-        }
-        
-        return result;
+        return deliveryCounterService.getRealtimeSlots();
     }
     
     /**
@@ -330,17 +249,90 @@ public class DeliveryService {
     }
     
     /**
-     * 캠페인별 발송 목록 조회
+     * 캠페인별 최근 발송 목록 조회 (최신순 최대 limit 건, 이후 건은 페이지 조회 사용)
+     */
+    @Transactional(readOnly = true)
+    public List<Delivery> getDeliveriesByCampaign(UUID campaignId, int limit) {
+        return deliveryRepository.findPageByCampaign(campaignId, PageRequest.ofSize(clampPageSize(limit)));
+    }
+    
+    /**
+     * 상태별 최근 발송 목록 조회 (최신순 최대 limit 건, 이후 건은 페이지 조회 사용)
+     */
+    @Transactional(readOnly = true)
+    public List<Delivery> getDeliveriesByStatus(DeliveryStatus status, int limit) {
+        return deliveryRepository.findPageByStatus(status, PageRequest.ofSize(clampPageSize(limit)));
+    }
+    
+    /**
+     * 캠페인별 발송 목록 페이지 조회 (cursor 기반, 최신순)
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getDeliveryPageByCampaign(UUID campaignId, String cursor, int size) {
+        int pageSize = clampPageSize(size);
+        PageRequest limit = PageRequest.ofSize(pageSize + 1);
+        Object[] after = decodeCursor(cursor);
+        List<Delivery> rows = after == null
+                ? deliveryRepository.findPageByCampaign(campaignId, limit)
+                : deliveryRepository.findPageByCampaignAfter(campaignId, (LocalDateTime) after[0], (UUID) after[1], limit);
+        return toPage(rows, pageSize);
+    }
+    
+    /**
+     * 상태별 발송 목록 페이지 조회 (cursor 기반, 최신순)
      */
-    public List<Delivery> getDeliveriesByCampaign(UUID campaignId) {
-        return deliveryRepository.findByCampaignIdOrderByCreatedAtDesc(campaignId);
+    @Transactional(readOnly = true)
+    public Map<String, Object> getDeliveryPageByStatus(DeliveryStatus status, String cursor, int size) {
+        int pageSize = clampPageSize(size);
+        PageRequest limit = PageRequest.ofSize(pageSize + 1);
+        Object[] after = decodeCursor(cursor);
+        List<Delivery> rows = after == null
+                ? deliveryRepository.findPageByStatus(status, limit)
+                : deliveryRepository.findPageByStatusAfter(status, (LocalDateTime) after[0], (UUID) after[1], limit);
+        return toPage(rows, pageSize);
     }
     
     /**
-     * 상태별 발송 목록 조회
+     * size + 1 건을 읽어 다음 페이지 여부를 판단하고, 마지막 항목의 (createdAt, id) 로 다음 cursor 를 만든다
      */
-    public List<Delivery> getDeliveriesByStatus(DeliveryStatus status) {
-        return deliveryRepository.findByStatusOrderByCreatedAtDesc(status);
+    private Map<String, Object> toPage(List<Delivery> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<Delivery> items = hasMore ? rows.subList(0, pageSize) : rows;
+        
+        Map<String, Object> page = new HashMap<>();
+        page.put("items", items);
+        page.put("size", items.size());
+        page.put("hasMore", hasMore);
+        if (hasMore) {
+            Delivery last = items.get(items.size() - 1);
+            page.put("nextCursor", encodeCursor(last.getCreatedAt(), last.getId()));
+        }
+        return page;
+    }
+    
+    private static int clampPageSize(int size) {
+        return Math.max(1, Math.min(500, size));
+    }
+    
+    private static String encodeCursor(LocalDateTime createdAt, UUID id) {
+        String raw = createdAt + "_" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static Object[] decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('_');
+            return new Object[] {
+                LocalDateTime.parse(raw.substring(0, separator)),
+                UUID.fromString(raw.substring(separator + 1))
+            };
+        } catch (RuntimeException e) {
+            throw new RuntimeException("잘못된 cursor 입니다.");
+        }
     }
     
     /**
@@ -394,10 +386,7 @@ public class DeliveryService {
      * 최근 발송 내역 조회
      */
     public List<Delivery> getRecentDeliveries() {
-        return deliveryRepository.findAll().stream()
-                .sorted((d1, d2) -> d2.getCreatedAt().compareTo(d1.getCreatedAt()))
-                .limit(20)
-                .collect(Collectors.toList());
+        return deliveryRepository.findTop20ByOrderByCreatedAtDesc();
     }
 
     /**
@@ -452,6 +441,7 @@ public class DeliveryService {
         Delivery delivery = deliveryRepository.findById(deliveryId)
                 .orElseThrow(() -> new RuntimeException("발송을 찾을 수 없습니다."));
         
+        DeliveryStatus previousStatus = delivery.getStatus();
         delivery.setStatus(newStatus);
         
         if (newStatus == DeliveryStatus.SENT) {
@@ -459,10 +449,19 @@ public class DeliveryService {
         }
         
         Delivery updated = deliveryRepository.save(delivery);
+        deliveryCounterService.recordStatusChange(updated, previousStatus);
+        // 지연 로딩(open-in-view)에 기대지 않도록 이벤트에 쓸 캠페인/회사 ID 를 직접 조회한다
+        List<Object[]> owner = deliveryRepository.findCampaignAndCompanyIds(deliveryId);
         try {
             Map<String, Object> event = new HashMap<>();
             event.put("type", "DELIVERY_UPDATED");
             event.put("id", updated.getId());
+            if (!owner.isEmpty()) {
+                event.put("campaignId", owner.get(0)[0]);
+                if (owner.get(0)[1] != null) {
+                    event.put("companyId", owner.get(0)[1]);
+                }
+            }
             event.put("status", updated.getStatus().name());
             event.put("sentAt", updated.getSentAt());
             event.put("updatedAt", LocalDateTime.now());
@@ -500,17 +499,21 @@ public class DeliveryService {
         LocalDateTime now = LocalDateTime.now(koreaZone);
         LocalDateTime startTime = now.minusMinutes(30);
         
+        // 6개 5분 구간의 상태별 건수를 한 번의 쿼리로 조회
+        Map<DeliveryStatus, long[]> counts = deliveryRepository.countByStatusInBuckets(startTime, Duration.ofMinutes(5), 6);
+        
         List<Map<String, Object>> result = new ArrayList<>();
         
         // 5분 간격으로 6개 구간 생성
         for (int i = 0; i < 6; i++) {
             LocalDateTime slotStart = startTime.plusMinutes(i * 5);
-            LocalDateTime slotEnd = slotStart.plusMinutes(5);
             
-            // 해당 시간대의 발송 통계 조회
-            long totalCount = deliveryRepository.countByCreatedAtBetween(slotStart, slotEnd);
-            long sentCount = deliveryRepository.countByStatusAndCreatedAtBetween(DeliveryStatus.SENT, slotStart, slotEnd);
-            long failedCount = deliveryRepository.countByStatusAndCreatedAtBetween(DeliveryStatus.FAILED, slotStart, slotEnd);
+            long totalCount = 0;
+            for (long[] slotCounts : counts.values()) {
+                totalCount += slotCounts[i];
+            }
+            long sentCount = counts.get(DeliveryStatus.SENT)[i];
+            long failedCount = counts.get(DeliveryStatus.FAILED)[i];
             
             Map<String, Object> timeSlot = new HashMap<>();
             timeSlot.put("time", slotStart.format(DateTimeFormatter.ofPattern("HH:mm")));
@@ -530,22 +533,19 @@ public class DeliveryService {
     public List<Map<String, Object>> getTodayHourlyStats() {
         ZoneId koreaZone = ZoneId.of("Asia/Seoul");
         LocalDateTime todayStart = LocalDateTime.now(koreaZone).toLocalDate().atStartOfDay();
-        LocalDateTime todayEnd = todayStart.plusDays(1);
+        LocalDateTime firstHour = todayStart.plusHours(9);
+        
+        // 9시부터 18시까지 10개 1시간 구간의 상태별 건수를 한 번의 쿼리로 조회
+        Map<DeliveryStatus, long[]> counts = deliveryRepository.countByStatusInBuckets(firstHour, Duration.ofHours(1), 10);
         
         List<Map<String, Object>> result = new ArrayList<>();
         
         // 9시부터 18시까지 시간대별 통계
         for (int hour = 9; hour <= 18; hour++) {
-            LocalDateTime hourStart = todayStart.plusHours(hour);
-            LocalDateTime hourEnd = hourStart.plusHours(1);
-            
-            long successCount = deliveryRepository.countByStatusAndCreatedAtBetween(DeliveryStatus.SENT, hourStart, hourEnd);
-            long failedCount = deliveryRepository.countByStatusAndCreatedAtBetween(DeliveryStatus.FAILED, hourStart, hourEnd);
-            
             Map<String, Object> hourStat = new HashMap<>();
             hourStat.put("hour", String.format("%02d:00", hour));
-            hourStat.put("success", successCount);
-            hourStat.put("failed", failedCount);
+            hourStat.put("success", counts.get(DeliveryStatus.SENT)[hour - 9]);
+            hourStat.put("failed", counts.get(DeliveryStatus.FAILED)[hour - 9]);
             
             result.add(hourStat);
         }
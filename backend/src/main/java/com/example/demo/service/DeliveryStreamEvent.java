@@ -0,0 +1,118 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 발송 스트림 이벤트 (발행 순서대로 증가하는 id, 구독 필터용 라우팅 정보, 내용)
+ *
+ * JSON 과 SSE 프레임은 처음 필요할 때 한 번만 만들고 모든 구독자가 같은 byte 배열을 쓴다.
+ * ObjectMapper 는 WebConfig 의 메시지 컨버터와 같은 기본 설정이라 기존 전송 형식과 같다.
+ */
+public class DeliveryStreamEvent {
+
+    private static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    private final long id;
+    private final String type;
+    private final UUID campaignId;
+    private final UUID companyId;
+    private final Object payload;
+
+    private volatile byte[] json;
+    private volatile byte[] frame;
+
+    DeliveryStreamEvent(long id, Object payload) {
+        this.id = id;
+        this.payload = payload;
+        if (payload instanceof Map<?, ?> map) {
+            this.type = map.get("type") != null ? map.get("type").toString() : null;
+            this.campaignId = toUuid(map.get("campaignId"));
+            this.companyId = toUuid(map.get("companyId"));
+        } else {
+            this.type = null;
+            this.campaignId = null;
+            this.companyId = null;
+        }
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public UUID getCampaignId() {
+        return campaignId;
+    }
+
+    public UUID getCompanyId() {
+        return companyId;
+    }
+
+    public Object getPayload() {
+        return payload;
+    }
+
+    /**
+     * payload 의 JSON (한 번만 직렬화)
+     */
+    public byte[] getJson() {
+        byte[] encoded = json;
+        if (encoded == null) {
+            encoded = encode(payload);
+            json = encoded;
+        }
+        return encoded;
+    }
+
+    /**
+     * 이벤트 하나짜리 SSE 프레임 ("id:", "event:delivery", "data:" 와 빈 줄까지 포함)
+     */
+    public byte[] getFrame() {
+        byte[] encoded = frame;
+        if (encoded == null) {
+            encoded = frame(id, "delivery", getJson());
+            frame = encoded;
+        }
+        return encoded;
+    }
+
+    static byte[] frame(long eventId, String eventName, byte[] data) {
+        byte[] header = ("id:" + eventId + "\nevent:" + eventName + "\ndata:").getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(header.length + data.length + 2);
+        out.writeBytes(header);
+        out.writeBytes(data);
+        out.write('\n');
+        out.write('\n');
+        return out.toByteArray();
+    }
+
+    static byte[] encode(Object value) {
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("발송 이벤트 직렬화 실패: " + e.getMessage(), e);
+        }
+    }
+
+    private static UUID toUuid(Object value) {
+        if (value instanceof UUID uuid) {
+            return uuid;
+        }
+        if (value != null) {
+            try {
+                return UUID.fromString(value.toString());
+            } catch (IllegalArgumentException ignored) {}
+        }
+        return null;
+    }
+}
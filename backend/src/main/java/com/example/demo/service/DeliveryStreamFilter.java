@@ -0,0 +1,75 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * 발송 스트림 구독 필터 (비어 있는 조건은 전체 허용)
+ *
+ * 구독자는 가장 좁은 조건의 토픽에만 등록된다: 캠페인 조건이 있으면 campaign:{id},
+ * 없고 회사 조건이 있으면 company:{id}, 둘 다 없으면 all. 이벤트는 캠페인/회사가 하나씩이라
+ * 세 토픽의 구독자 집합은 겹치지 않는다. 이벤트 유형은 토픽을 찾은 뒤 matches 로 거른다.
+ */
+public class DeliveryStreamFilter {
+
+    static final String TOPIC_ALL = "all";
+
+    private final Set<UUID> campaignIds;
+    private final Set<UUID> companyIds;
+    private final Set<String> types;
+
+    public DeliveryStreamFilter(Collection<UUID> campaignIds, Collection<UUID> companyIds, Collection<String> types) {
+        this.campaignIds = campaignIds != null ? Set.copyOf(campaignIds) : Set.of();
+        this.companyIds = companyIds != null ? Set.copyOf(companyIds) : Set.of();
+        this.types = types != null
+                ? types.stream().filter(type -> !type.isBlank()).map(type -> type.trim().toUpperCase()).collect(Collectors.toUnmodifiableSet())
+                : Set.of();
+    }
+
+    static String campaignTopic(UUID campaignId) {
+        return "campaign:" + campaignId;
+    }
+
+    static String companyTopic(UUID companyId) {
+        return "company:" + companyId;
+    }
+
+    /**
+     * 이 구독자가 등록될 토픽
+     */
+    List<String> topics() {
+        List<String> topics = new ArrayList<>();
+        if (!campaignIds.isEmpty()) {
+            campaignIds.forEach(id -> topics.add(campaignTopic(id)));
+        } else if (!companyIds.isEmpty()) {
+            companyIds.forEach(id -> topics.add(companyTopic(id)));
+        } else {
+            topics.add(TOPIC_ALL);
+        }
+        return topics;
+    }
+
+    public boolean matches(DeliveryStreamEvent event) {
+        if (!campaignIds.isEmpty() && !campaignIds.contains(event.getCampaignId())) {
+            return false;
+        }
+        if (!companyIds.isEmpty() && !companyIds.contains(event.getCompanyId())) {
+            return false;
+        }
+        return types.isEmpty() || types.contains(event.getType());
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> filter = new HashMap<>();
+        filter.put("campaignIds", campaignIds);
+        filter.put("companyIds", companyIds);
+        filter.put("types", types);
+        return filter;
+    }
+}
@@ -1,24 +1,117 @@
 package com.example.demo.service;
 
-import org.springframework.http.MediaType;
+import com.example.demo.service.DeliveryStreamSubscriber.DeliveryMode;
+import com.example.demo.service.DeliveryStreamSubscriber.OverflowPolicy;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * 발송 이벤트 SSE 스트림
+ *
+ * publish 는 구독자별 대기열에 이벤트를 넣고 바로 반환하며, 전송은 sender 스레드가 맡는다.
+ * 느린 구독자는 자기 대기열만 차오르고 발송 스레드나 다른 구독자를 막지 않는다.
+ * 구독 시 batch 모드를 고르면 이벤트를 windowMs / maxBatch 단위로 묶어 한 프레임으로 받는다.
+ *
+ * 모든 이벤트는 증가하는 id 를 가지며 최근 replayBufferSize 건을 메모리 링 버퍼에 보관한다.
+ * Last-Event-ID 를 가지고 재연결하면 그 이후 이벤트만 다시 보내고, 이미 버퍼에서 밀려났거나
+ * 알 수 없는 id 면 "resync" 이벤트로 전체 재조회가 필요함을 알린다. id 는 시작 시각(ms) * 1000 부터
+ * 시작하므로 서버 재시작 전의 id 도 재동기화 대상으로 판별된다.
+ *
+ * 구독 필터(캠페인/회사/이벤트 유형)가 있으면 topic → 구독자 인덱스로 해당 구독자만 찾아 보낸다.
+ */
 @Service
 public class DeliveryStreamService {
 
-    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final int queueCapacity;
+    private final OverflowPolicy defaultOverflowPolicy;
+    private final long defaultWindowMs;
+    private final int defaultMaxBatch;
+
+    /** 이벤트 id 발급, 링 버퍼, 구독자 대기열 추가는 replayLock 안에서 발행 순서대로 처리 */
+    private final Object replayLock = new Object();
+    private final DeliveryStreamEvent[] replayBuffer;
+    private long lastEventId;
+    private int replayHead;
+    private int replaySize;
+
+    private final Map<UUID, DeliveryStreamSubscriber> subscribers = new ConcurrentHashMap<>();
+    /** topic (all, campaign:{id}, company:{id}) → 구독자 */
+    private final Map<String, Set<DeliveryStreamSubscriber>> topicIndex = new ConcurrentHashMap<>();
+    private final AtomicLong publishedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong replayedCount = new AtomicLong();
+    private final AtomicLong resyncCount = new AtomicLong();
+    private final AtomicInteger threadCounter = new AtomicInteger();
+    private final ExecutorService sender = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "sse-sender-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ScheduledExecutorService batchScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sse-batch-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DeliveryStreamService(@Value("${marketreach.stream.queue-capacity:1000}") int queueCapacity,
+                                 @Value("${marketreach.stream.overflow-policy:DROP_OLDEST}") String overflowPolicy,
+                                 @Value("${marketreach.stream.batch.window-ms:250}") long defaultWindowMs,
+                                 @Value("${marketreach.stream.batch.max-batch:500}") int defaultMaxBatch,
+                                 @Value("${marketreach.stream.replay-buffer-size:10000}") int replayBufferSize) {
+        this.queueCapacity = queueCapacity;
+        this.defaultOverflowPolicy = parseOverflowPolicy(overflowPolicy, OverflowPolicy.DROP_OLDEST);
+        this.defaultWindowMs = defaultWindowMs;
+        this.defaultMaxBatch = defaultMaxBatch;
+        this.replayBuffer = new DeliveryStreamEvent[Math.max(1, replayBufferSize)];
+        this.lastEventId = System.currentTimeMillis() * 1000;
+    }
 
     public SseEmitter subscribe() {
+        return subscribe(null, null, null, null, null, null);
+    }
+
+    /**
+     * 구독
+     *
+     * @param overflowPolicy 비어 있거나 알 수 없는 값이면 설정값 사용
+     * @param mode           "batch" 면 묶음 전송, 그 외에는 이벤트마다 전송
+     * @param windowMs       batch 모드 수집 시간 (null 이면 설정값, 10 ~ 10000 ms)
+     * @param maxBatch       batch 모드 최대 묶음 크기 (null 이면 설정값, 1 ~ 대기열 크기)
+     * @param filter         캠페인/회사/이벤트 유형 필터 (null 이면 전체)
+     * @param resumeAfterId  재연결 시 마지막으로 받은 이벤트 id (Last-Event-ID, null 이면 새 구독)
+     */
+    public SseEmitter subscribe(String overflowPolicy, String mode, Long windowMs, Integer maxBatch,
+                                DeliveryStreamFilter filter, Long resumeAfterId) {
+        DeliveryStreamFilter subscriptionFilter = filter != null ? filter : new DeliveryStreamFilter(null, null, null);
+        DeliveryMode deliveryMode = "batch".equalsIgnoreCase(mode) ? DeliveryMode.BATCH : DeliveryMode.EVENT;
+        long window = Math.max(10, Math.min(10_000, windowMs != null ? windowMs : defaultWindowMs));
+        int batchLimit = Math.max(1, Math.min(queueCapacity, maxBatch != null ? maxBatch : defaultMaxBatch));
+
         SseEmitter emitter = new SseEmitter(0L);
-        emitters.add(emitter);
-        emitter.onCompletion(() -> emitters.remove(emitter));
-        emitter.onTimeout(() -> emitters.remove(emitter));
-        emitter.onError(e -> emitters.remove(emitter));
+        DeliveryStreamSubscriber subscriber = new DeliveryStreamSubscriber(
+                emitter, queueCapacity, parseOverflowPolicy(overflowPolicy, defaultOverflowPolicy),
+                subscriptionFilter, deliveryMode, window, batchLimit, sender, batchScheduler,
+                this::unregister);
+
+        emitter.onCompletion(() -> subscriber.close(false));
+        emitter.onTimeout(() -> subscriber.close(false));
+        emitter.onError(e -> subscriber.close(false));
         try {
             emitter.send(SseEmitter.event()
                     .name("connected")
@@ -26,21 +119,157 @@ public class DeliveryStreamService {
                     .reconnectTime(3000)
                     .comment("connected"));
         } catch (IOException ignored) {}
+
+        synchronized (replayLock) {
+            if (resumeAfterId != null) {
+                List<DeliveryStreamEvent> missed = eventsAfter(resumeAfterId, queueCapacity);
+                if (missed == null) {
+                    // 전송은 구독자 sender 스레드가 맡으므로 느린 클라이언트가 replayLock 을 잡고 있지 않는다
+                    subscriber.offerFirst(resyncFrame(resumeAfterId));
+                } else {
+                    for (DeliveryStreamEvent event : missed) {
+                        if (subscriptionFilter.matches(event)) {
+                            subscriber.offer(event);
+                            replayedCount.incrementAndGet();
+                        }
+                    }
+                }
+            }
+            subscribers.put(subscriber.getId(), subscriber);
+            for (String topic : subscriptionFilter.topics()) {
+                topicIndex.computeIfAbsent(topic, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+            }
+        }
         return emitter;
     }
 
+    private void unregister(DeliveryStreamSubscriber subscriber) {
+        subscribers.remove(subscriber.getId());
+        for (String topic : subscriber.getFilter().topics()) {
+            topicIndex.computeIfPresent(topic, (key, members) -> {
+                members.remove(subscriber);
+                return members.isEmpty() ? null : members;
+            });
+        }
+    }
+
+    /**
+     * 모든 구독자 대기열에 이벤트 추가 (전송을 기다리지 않음)
+     */
     public void publish(Object payload) {
-        for (SseEmitter emitter : emitters) {
-            try {
-                emitter.send(SseEmitter.event()
-                        .name("delivery")
-                        .data(payload, MediaType.APPLICATION_JSON));
-            } catch (IOException e) {
-                emitter.complete();
-                emitters.remove(emitter);
+        synchronized (replayLock) {
+            DeliveryStreamEvent event = new DeliveryStreamEvent(++lastEventId, payload);
+            replayBuffer[(replayHead + replaySize) % replayBuffer.length] = event;
+            if (replaySize < replayBuffer.length) {
+                replaySize++;
+            } else {
+                replayHead = (replayHead + 1) % replayBuffer.length;
+            }
+
+            publishedCount.incrementAndGet();
+            route(event, topicIndex.get(DeliveryStreamFilter.TOPIC_ALL));
+            if (event.getCampaignId() != null) {
+                route(event, topicIndex.get(DeliveryStreamFilter.campaignTopic(event.getCampaignId())));
+            }
+            if (event.getCompanyId() != null) {
+                route(event, topicIndex.get(DeliveryStreamFilter.companyTopic(event.getCompanyId())));
             }
         }
     }
-}
 
+    private void route(DeliveryStreamEvent event, Set<DeliveryStreamSubscriber> members) {
+        if (members == null) {
+            return;
+        }
+        for (DeliveryStreamSubscriber subscriber : members) {
+            if (!subscriber.getFilter().matches(event)) {
+                continue;
+            }
+            int dropped = subscriber.offer(event);
+            if (dropped > 0) {
+                droppedCount.addAndGet(dropped);
+            }
+        }
+    }
+
+    /**
+     * afterId 이후 이벤트 목록. 버퍼에서 이미 밀려났거나, 알 수 없는 id 이거나, limit 을 넘으면 null.
+     * (replayLock 안에서 호출)
+     */
+    private List<DeliveryStreamEvent> eventsAfter(long afterId, int limit) {
+        long oldestId = replaySize > 0 ? replayBuffer[replayHead].getId() : lastEventId + 1;
+        if (afterId < oldestId - 1 || afterId > lastEventId || lastEventId - afterId > limit) {
+            return null;
+        }
+        List<DeliveryStreamEvent> events = new ArrayList<>((int) (lastEventId - afterId));
+        for (int i = (int) (afterId + 1 - oldestId); i < replaySize; i++) {
+            events.add(replayBuffer[(replayHead + i) % replayBuffer.length]);
+        }
+        return events;
+    }
 
+    /**
+     * 재동기화 안내 프레임 (replayLock 안에서 호출)
+     */
+    private byte[] resyncFrame(long requestedId) {
+        resyncCount.incrementAndGet();
+        Map<String, Object> resync = new HashMap<>();
+        resync.put("type", "RESYNC");
+        resync.put("requestedEventId", requestedId);
+        resync.put("latestEventId", lastEventId);
+        resync.put("oldestAvailableEventId", replaySize > 0 ? replayBuffer[replayHead].getId() : null);
+        return DeliveryStreamEvent.frame(lastEventId, "resync", DeliveryStreamEvent.encode(resync));
+    }
+
+    /**
+     * 스트림 상태 (구독자별 대기열 깊이, 버려진 이벤트 수)
+     */
+    public Map<String, Object> getStats() {
+        List<Map<String, Object>> subscriberStats = new ArrayList<>();
+        long totalQueueDepth = 0;
+        for (DeliveryStreamSubscriber subscriber : subscribers.values()) {
+            Map<String, Object> stats = subscriber.getStats();
+            totalQueueDepth += (Integer) stats.get("queueDepth");
+            subscriberStats.add(stats);
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("subscriberCount", subscriberStats.size());
+        stats.put("topicCount", topicIndex.size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("overflowPolicy", defaultOverflowPolicy.name());
+        stats.put("publishedCount", publishedCount.get());
+        stats.put("droppedCount", droppedCount.get());
+        stats.put("totalQueueDepth", totalQueueDepth);
+        stats.put("replayedCount", replayedCount.get());
+        stats.put("resyncCount", resyncCount.get());
+        synchronized (replayLock) {
+            stats.put("lastEventId", lastEventId);
+            stats.put("replayBufferSize", replaySize);
+            stats.put("replayBufferCapacity", replayBuffer.length);
+        }
+        stats.put("subscribers", subscriberStats);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (DeliveryStreamSubscriber subscriber : subscribers.values()) {
+            subscriber.close(true);
+        }
+        batchScheduler.shutdownNow();
+        sender.shutdownNow();
+    }
+
+    private static OverflowPolicy parseOverflowPolicy(String value, OverflowPolicy defaultPolicy) {
+        if (value == null || value.isBlank()) {
+            return defaultPolicy;
+        }
+        try {
+            return OverflowPolicy.valueOf(value.trim().toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            System.err.println("지원하지 않는 overflow 정책입니다: " + value + " (기본값 " + defaultPolicy + " 사용)");
+            return defaultPolicy;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.example.demo.service;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 발송 스트림 구독자
+ *
+ * 구독자마다 크기가 제한된 대기열을 두고, 발행 스레드는 대기열에 넣기만 한다.
+ * 실제 전송은 sender 실행기에서 구독자당 한 번에 하나의 drain 작업만 돌며 순서대로 보낸다.
+ * 대기열이 가득 차면 overflowPolicy 에 따라 가장 오래된 이벤트/새 이벤트를 버리거나 연결을 끊는다.
+ *
+ * batch 모드에서는 첫 이벤트 후 windowMs 동안(또는 maxBatch 건이 쌓일 때까지) 모았다가
+ * "delivery-batch" 이벤트 하나로 보낸다. SSE id 는 묶음의 마지막 이벤트 id 다.
+ */
+public class DeliveryStreamSubscriber {
+
+    public enum OverflowPolicy {
+        DROP_OLDEST, DROP_NEWEST, DISCONNECT
+    }
+
+    public enum DeliveryMode {
+        EVENT, BATCH
+    }
+
+    private final UUID id = UUID.randomUUID();
+    private final SseEmitter emitter;
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final DeliveryStreamFilter filter;
+    private final DeliveryMode mode;
+    private final long windowMs;
+    private final int maxBatch;
+    private final Executor sender;
+    private final ScheduledExecutorService scheduler;
+    private final Consumer<DeliveryStreamSubscriber> onClose;
+    private final LocalDateTime connectedAt = LocalDateTime.now();
+
+    private final ArrayDeque<DeliveryStreamEvent> queue = new ArrayDeque<>();
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private final AtomicLong framesSent = new AtomicLong();
+
+    /** queue, firstFrame, draining, pendingFlush, closed 는 this 모니터로 보호 */
+    private byte[] firstFrame;
+    private boolean draining;
+    private ScheduledFuture<?> pendingFlush;
+    private boolean closed;
+
+    DeliveryStreamSubscriber(SseEmitter emitter, int capacity, OverflowPolicy overflowPolicy,
+                             DeliveryStreamFilter filter, DeliveryMode mode, long windowMs, int maxBatch,
+                             Executor sender, ScheduledExecutorService scheduler,
+                             Consumer<DeliveryStreamSubscriber> onClose) {
+        this.emitter = emitter;
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.filter = filter;
+        this.mode = mode;
+        this.windowMs = windowMs;
+        this.maxBatch = maxBatch;
+        this.sender = sender;
+        this.scheduler = scheduler;
+        this.onClose = onClose;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public DeliveryStreamFilter getFilter() {
+        return filter;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * 이벤트 추가 (대기하지 않음). 버려진 이벤트 수를 반환한다.
+     */
+    int offer(DeliveryStreamEvent event) {
+        int dropped = 0;
+        boolean disconnect = false;
+        boolean drainNow = false;
+        synchronized (this) {
+            if (closed) {
+                return 0;
+            }
+            if (queue.size() >= capacity) {
+                switch (overflowPolicy) {
+                    case DROP_OLDEST -> {
+                        queue.pollFirst();
+                        queue.addLast(event);
+                        dropped = 1;
+                    }
+                    case DROP_NEWEST -> dropped = 1;
+                    case DISCONNECT -> {
+                        dropped = queue.size() + 1;
+                        disconnect = true;
+                    }
+                }
+            } else {
+                queue.addLast(event);
+            }
+            if (!disconnect && !queue.isEmpty()) {
+                if (mode == DeliveryMode.EVENT || queue.size() >= maxBatch) {
+                    // 예약된 batch 전송이 있으면 취소하고 바로 보낸다
+                    if (pendingFlush != null && pendingFlush.cancel(false)) {
+                        pendingFlush = null;
+                        draining = false;
+                    }
+                    if (!draining) {
+                        draining = true;
+                        drainNow = true;
+                    }
+                } else if (!draining) {
+                    draining = true;
+                    pendingFlush = scheduleDrain();
+                }
+            }
+        }
+        droppedCount.addAndGet(dropped);
+        if (disconnect) {
+            System.out.println("발송 스트림 구독자 대기열 초과로 연결 종료: " + id);
+            close(true);
+        } else if (drainNow) {
+            try {
+                sender.execute(this::drain);
+            } catch (RuntimeException e) {
+                close(true);
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * 대기열 이벤트보다 먼저 보낼 프레임 예약 (재연결 시 resync 안내 등). 전송은 sender 스레드가 맡는다.
+     */
+    void offerFirst(byte[] frame) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            firstFrame = frame;
+            if (pendingFlush != null && pendingFlush.cancel(false)) {
+                pendingFlush = null;
+                draining = false;
+            }
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        try {
+            sender.execute(this::drain);
+        } catch (RuntimeException e) {
+            close(true);
+        }
+    }
+
+    /**
+     * 연결 종료 (completeEmitter 가 true 면 emitter 도 닫는다)
+     */
+    void close(boolean completeEmitter) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.clear();
+            if (pendingFlush != null) {
+                pendingFlush.cancel(false);
+                pendingFlush = null;
+            }
+        }
+        if (completeEmitter) {
+            try {
+                emitter.complete();
+            } catch (Exception ignored) {}
+        }
+        onClose.accept(this);
+    }
+
+    private void drain() {
+        byte[] first;
+        synchronized (this) {
+            first = firstFrame;
+            firstFrame = null;
+        }
+        if (first != null && !send(first, 0)) {
+            return;
+        }
+        if (mode == DeliveryMode.BATCH) {
+            drainBatches();
+            return;
+        }
+        while (true) {
+            DeliveryStreamEvent event;
+            synchronized (this) {
+                event = closed ? null : queue.pollFirst();
+                if (event == null) {
+                    draining = false;
+                    return;
+                }
+            }
+            if (!send(event.getFrame(), 1)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * maxBatch 건씩 묶어 보내고, 남은 건이 maxBatch 미만이면 다음 window 로 넘긴다
+     */
+    private void drainBatches() {
+        while (true) {
+            List<DeliveryStreamEvent> batch;
+            synchronized (this) {
+                pendingFlush = null;
+                if (closed || queue.isEmpty()) {
+                    draining = false;
+                    return;
+                }
+                batch = new ArrayList<>(Math.min(queue.size(), maxBatch));
+                while (batch.size() < maxBatch && !queue.isEmpty()) {
+                    batch.add(queue.pollFirst());
+                }
+            }
+
+            // 이벤트별로 이미 만들어 둔 JSON 을 이어 붙여 묶음 프레임을 만든다
+            long lastEventId = batch.get(batch.size() - 1).getId();
+            ByteArrayOutputStream data = new ByteArrayOutputStream();
+            data.writeBytes(("{\"type\":\"DELIVERY_BATCH\",\"count\":" + batch.size()
+                    + ",\"firstEventId\":" + batch.get(0).getId()
+                    + ",\"lastEventId\":" + lastEventId + ",\"events\":[").getBytes(StandardCharsets.UTF_8));
+            for (int i = 0; i < batch.size(); i++) {
+                if (i > 0) {
+                    data.write(',');
+                }
+                data.writeBytes(batch.get(i).getJson());
+            }
+            data.writeBytes("]}".getBytes(StandardCharsets.UTF_8));
+            byte[] frame = DeliveryStreamEvent.frame(lastEventId, "delivery-batch", data.toByteArray());
+            if (!send(frame, batch.size())) {
+                return;
+            }
+
+            synchronized (this) {
+                if (closed || queue.isEmpty()) {
+                    draining = false;
+                    return;
+                }
+                if (queue.size() < maxBatch) {
+                    pendingFlush = scheduleDrain();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 완성된 SSE 프레임을 그대로 쓴다 (octet-stream 이라 ByteArrayHttpMessageConverter 가 복사만 한다)
+     */
+    private boolean send(byte[] frame, int eventCount) {
+        try {
+            emitter.send(Set.of(new ResponseBodyEmitter.DataWithMediaType(frame, MediaType.APPLICATION_OCTET_STREAM)));
+            sentCount.addAndGet(eventCount);
+            framesSent.incrementAndGet();
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            close(true);
+            return false;
+        }
+    }
+
+    private ScheduledFuture<?> scheduleDrain() {
+        return scheduler.schedule(() -> sender.execute(this::drain), windowMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 구독자 상태
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("id", id);
+        stats.put("connectedAt", connectedAt);
+        stats.put("queueDepth", getQueueDepth());
+        stats.put("queueCapacity", capacity);
+        stats.put("overflowPolicy", overflowPolicy.name());
+        stats.put("mode", mode.name());
+        stats.put("filter", filter.toMap());
+        if (mode == DeliveryMode.BATCH) {
+            stats.put("windowMs", windowMs);
+            stats.put("maxBatch", maxBatch);
+        }
+        stats.put("sentCount", sentCount.get());
+        stats.put("framesSent", framesSent.get());
+        stats.put("droppedCount", droppedCount.get());
+        return stats;
+    }
+}
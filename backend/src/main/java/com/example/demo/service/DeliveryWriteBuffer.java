@@ -0,0 +1,231 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Delivery;
+import com.example.demo.repository.DeliveryOutboxRepository;
+import com.example.demo.repository.DeliveryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 발송 결과 일괄 저장 버퍼
+ *
+ * 발송 스레드는 Delivery 를 큐에 넣기만 하고, 전용 flusher 스레드가 batchSize 건이 모이거나
+ * flushIntervalMs 가 지나면 한 트랜잭션에서 saveAll 로 저장한다 (hibernate.jdbc.batch_size 로 JDBC 배치).
+ * DELIVERY_CREATED 이벤트 발행과 실시간 카운터 갱신은 저장이 끝난 뒤 이루어진다. 큐가 가득 차면 enqueue 가 대기한다.
+ * 발송 대기열(delivery_outbox)에서 온 결과는 같은 트랜잭션에서 대기열 행을 삭제해 저장과 완료 처리가 함께 반영된다.
+ */
+@Component
+public class DeliveryWriteBuffer {
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private DeliveryOutboxRepository deliveryOutboxRepository;
+
+    @Autowired
+    private DeliveryStreamService deliveryStreamService;
+
+    @Autowired
+    private DeliveryCounterService deliveryCounterService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DeliveryRetryScheduler deliveryRetryScheduler;
+
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final BlockingQueue<Delivery> queue;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Object signal = new Object();
+
+    private final AtomicLong flushedRows = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushNanos = new AtomicLong();
+    private final AtomicLong failedRows = new AtomicLong();
+
+    private volatile boolean running = true;
+    private Thread flusher;
+
+    public DeliveryWriteBuffer(@Value("${marketreach.delivery.write-buffer.batch-size:500}") int batchSize,
+                               @Value("${marketreach.delivery.write-buffer.flush-interval-ms:200}") long flushIntervalMs,
+                               @Value("${marketreach.delivery.write-buffer.capacity:50000}") int capacity) {
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher = new Thread(this::runFlusher, "delivery-write-buffer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * 저장 대기열에 추가 (큐가 가득 차면 빈 자리가 생길 때까지 대기)
+     */
+    public void enqueue(Delivery delivery) {
+        try {
+            queue.put(delivery);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("발송 결과 저장 대기 중 인터럽트가 발생했습니다.", e);
+        }
+        if (queue.size() >= batchSize) {
+            synchronized (signal) {
+                signal.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 지금까지 추가된 발송 결과를 모두 저장 (호출 전에 enqueue 된 건은 반환 시점에 저장 완료)
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Delivery> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                write(batch);
+                batch.clear();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 버퍼 상태 및 처리량
+     */
+    public Map<String, Object> getStats() {
+        long flushes = flushCount.get();
+        long rows = flushedRows.get();
+        double seconds = flushNanos.get() / 1_000_000_000.0;
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("queueDepth", queue.size());
+        stats.put("batchSize", batchSize);
+        stats.put("flushIntervalMs", flushIntervalMs);
+        stats.put("flushCount", flushes);
+        stats.put("flushedRows", rows);
+        stats.put("failedRows", failedRows.get());
+        stats.put("avgBatchRows", flushes > 0 ? rows / flushes : 0);
+        stats.put("avgFlushMs", flushes > 0 ? Math.round(seconds * 1000.0 / flushes * 100.0) / 100.0 : 0.0);
+        stats.put("rowsPerSecond", seconds > 0 ? Math.round(rows / seconds) : 0);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+        try {
+            flusher.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private void runFlusher() {
+        while (running) {
+            try {
+                synchronized (signal) {
+                    if (running && queue.size() < batchSize) {
+                        signal.wait(flushIntervalMs);
+                    }
+                }
+                flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                System.err.println("발송 결과 일괄 저장 중 오류: " + e.getMessage());
+            }
+        }
+    }
+
+    private void write(List<Delivery> batch) {
+        long started = System.nanoTime();
+        // 커밋부터 카운터 반영까지 카운터 재구성이 끼어들지 않도록
+        List<Delivery> saved = deliveryCounterService.recording(() -> {
+            List<Delivery> rows = persist(batch);
+            rows.forEach(deliveryCounterService::recordCreated);
+            return rows;
+        });
+        flushNanos.addAndGet(System.nanoTime() - started);
+        flushCount.incrementAndGet();
+        flushedRows.addAndGet(saved.size());
+
+        for (Delivery delivery : saved) {
+            publishCreated(delivery);
+            deliveryRetryScheduler.offer(delivery);
+        }
+    }
+
+    private List<Delivery> persist(List<Delivery> batch) {
+        List<UUID> outboxIds = batch.stream().map(Delivery::getOutboxId).filter(Objects::nonNull).toList();
+        try {
+            return transactionTemplate.execute(status -> {
+                List<Delivery> rows = deliveryRepository.saveAll(batch);
+                if (!outboxIds.isEmpty()) {
+                    deliveryOutboxRepository.deleteAllByIdInBatch(outboxIds);
+                }
+                return rows;
+            });
+        } catch (Exception e) {
+            // 배치 중 한 건의 오류로 전체가 롤백되면 건별로 다시 저장해 나머지를 살린다
+            System.err.println("발송 결과 배치 저장 실패, 건별 저장으로 재시도: " + e.getMessage());
+            List<Delivery> saved = new ArrayList<>(batch.size());
+            for (Delivery delivery : batch) {
+                delivery.setId(null);
+                try {
+                    saved.add(deliveryRepository.save(delivery));
+                } catch (Exception rowError) {
+                    failedRows.incrementAndGet();
+                    System.err.println("발송 결과 저장 실패: " + rowError.getMessage());
+                }
+            }
+            // 저장에 실패한 건도 다시 발송하지 않도록 대기열에서는 제거
+            if (!outboxIds.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> deliveryOutboxRepository.deleteAllByIdInBatch(outboxIds));
+            }
+            return saved;
+        }
+    }
+
+    private void publishCreated(Delivery delivery) {
+        try {
+            Map<String, Object> event = new HashMap<>();
+            event.put("type", "DELIVERY_CREATED");
+            event.put("id", delivery.getId());
+            event.put("campaignId", delivery.getCampaign().getId());
+            if (delivery.getCampaign().getCompanyId() != null) {
+                event.put("companyId", delivery.getCampaign().getCompanyId());
+            }
+            event.put("customerId", delivery.getCustomer().getId());
+            event.put("status", delivery.getStatus().name());
+            event.put("createdAt", delivery.getCreatedAt());
+            deliveryStreamService.publish(event);
+        } catch (Exception ignored) {}
+    }
+}
@@ -0,0 +1,439 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Delivery.DeliveryStatus;
+import com.example.demo.repository.DeliveryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 고객별 발송 빈도 제한
+ *
+ * 고객 한 명이 window 안에 받을 수 있는 메시지 수를 전체(모든 캠페인) 기준과 회사 기준으로 제한해,
+ * 겹치는 캠페인에서 같은 고객에게 연달아 발송되는 것을 막는다.
+ * 최근 발송 시각은 long 키 배열과 int 시각 배열로만 된 open addressing 표에 보관하므로
+ * 고객 한 명당 (8 + 4 x 최대 건수) 바이트이며, 발송 경로에서 DB 조회 없이 확인한다.
+ *
+ * 시작 시 window 안의 실패하지 않은 발송으로 다시 만들고, 주기적으로 window 를 벗어난 고객을 정리한다.
+ * 실패한 발송은 release() 로 예약을 되돌려 횟수에 포함하지 않는다.
+ */
+@Service
+public class FrequencyCapService {
+
+    /** 표에 저장하는 시각의 기준 (2024-01-01T00:00:00Z, 초) */
+    private static final long BASE_EPOCH_SECOND = 1_704_067_200L;
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int globalMax;
+    private final int globalWindowSeconds;
+    private final int companyMax;
+    private final int companyWindowSeconds;
+
+    /** 두 표는 this 모니터로 보호 */
+    private RecentSendTable globalTable;
+    private RecentSendTable companyTable;
+
+    private final AtomicLong allowedCount = new AtomicLong();
+    private final AtomicLong globalBlockedCount = new AtomicLong();
+    private final AtomicLong companyBlockedCount = new AtomicLong();
+    private final AtomicLong releasedCount = new AtomicLong();
+
+    public FrequencyCapService(@Value("${marketreach.frequency-cap.enabled:true}") boolean enabled,
+                               @Value("${marketreach.frequency-cap.global.max-per-window:3}") int globalMax,
+                               @Value("${marketreach.frequency-cap.global.window-minutes:60}") int globalWindowMinutes,
+                               @Value("${marketreach.frequency-cap.company.max-per-window:1}") int companyMax,
+                               @Value("${marketreach.frequency-cap.company.window-minutes:60}") int companyWindowMinutes) {
+        this.enabled = enabled;
+        this.globalMax = globalMax;
+        this.globalWindowSeconds = globalWindowMinutes * 60;
+        this.companyMax = companyMax;
+        this.companyWindowSeconds = companyWindowMinutes * 60;
+        this.globalTable = new RecentSendTable(Math.max(1, globalMax));
+        this.companyTable = new RecentSendTable(Math.max(1, companyMax));
+    }
+
+    /**
+     * 발송 가능하면 발송 1건을 예약하고 true, 제한에 걸리면 false
+     */
+    public boolean tryAcquire(UUID customerId, UUID companyId) {
+        if (!enabled || customerId == null) {
+            return true;
+        }
+        int now = now();
+        long customerKey = customerKey(customerId);
+        synchronized (this) {
+            if (globalMax > 0 && globalTable.countSince(customerKey, now - globalWindowSeconds) >= globalMax) {
+                globalBlockedCount.incrementAndGet();
+                return false;
+            }
+            if (companyId != null && companyMax > 0
+                    && companyTable.countSince(companyKey(customerKey, companyId), now - companyWindowSeconds) >= companyMax) {
+                companyBlockedCount.incrementAndGet();
+                return false;
+            }
+            if (globalMax > 0) {
+                globalTable.add(customerKey, now, now - globalWindowSeconds);
+            }
+            if (companyId != null && companyMax > 0) {
+                companyTable.add(companyKey(customerKey, companyId), now, now - companyWindowSeconds);
+            }
+        }
+        allowedCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * 실패한 발송의 예약 취소 (가장 최근 예약 1건을 지운다)
+     */
+    public void release(UUID customerId, UUID companyId) {
+        if (!enabled || customerId == null) {
+            return;
+        }
+        long customerKey = customerKey(customerId);
+        synchronized (this) {
+            if (globalMax > 0) {
+                globalTable.removeLatest(customerKey);
+            }
+            if (companyId != null && companyMax > 0) {
+                companyTable.removeLatest(companyKey(customerKey, companyId));
+            }
+        }
+        releasedCount.incrementAndGet();
+    }
+
+    /**
+     * window 안의 발송 이력으로 재구성
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long startedAt = System.currentTimeMillis();
+        int now = now();
+        int globalSince = now - globalWindowSeconds;
+        int companySince = now - companyWindowSeconds;
+        LocalDateTime since = LocalDateTime.ofInstant(
+                Instant.ofEpochSecond(BASE_EPOCH_SECOND + Math.min(globalSince, companySince)), ZoneId.systemDefault());
+
+        RecentSendTable global = new RecentSendTable(Math.max(1, globalMax));
+        RecentSendTable company = new RecentSendTable(Math.max(1, companyMax));
+        long[] rows = new long[1];
+        // 재구성 중에는 tryAcquire/release 를 막아 스트림 도중의 예약이 교체로 사라지지 않게 한다
+        synchronized (this) {
+            transactionTemplate.execute(status -> {
+                try (Stream<Object[]> recent = deliveryRepository.streamRecentSends(since, DeliveryStatus.FAILED)) {
+                    recent.forEach(row -> {
+                        long customerKey = customerKey((UUID) row[0]);
+                        int time = toTableTime((LocalDateTime) row[2]);
+                        if (globalMax > 0 && time >= globalSince) {
+                            global.add(customerKey, time, globalSince);
+                        }
+                        if (row[1] != null && companyMax > 0 && time >= companySince) {
+                            company.add(companyKey(customerKey, (UUID) row[1]), time, companySince);
+                        }
+                        rows[0]++;
+                    });
+                }
+                return null;
+            });
+            // 재구성 전에 예약됐지만 아직 커밋되지 않은 발송도 남도록 기존 표의 예약을 합친다
+            global.merge(globalTable, globalSince);
+            company.merge(companyTable, companySince);
+            globalTable = global;
+            companyTable = company;
+        }
+        System.out.println("발송 빈도 제한 재구성 완료: 발송 " + rows[0] + "건, 고객 " + global.size() + "명, "
+                + (System.currentTimeMillis() - startedAt) + "ms");
+    }
+
+    /**
+     * window 를 벗어난 고객 정리
+     */
+    @Scheduled(fixedDelayString = "${marketreach.frequency-cap.cleanup-interval-ms:60000}")
+    public void cleanup() {
+        if (!enabled) {
+            return;
+        }
+        int now = now();
+        synchronized (this) {
+            globalTable = globalTable.compact(now - globalWindowSeconds);
+            companyTable = companyTable.compact(now - companyWindowSeconds);
+        }
+    }
+
+    /**
+     * 제한 설정 및 차단 건수
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("globalMaxPerWindow", globalMax);
+        stats.put("globalWindowMinutes", globalWindowSeconds / 60);
+        stats.put("companyMaxPerWindow", companyMax);
+        stats.put("companyWindowMinutes", companyWindowSeconds / 60);
+        synchronized (this) {
+            stats.put("trackedCustomers", globalTable.size());
+            stats.put("trackedCustomerCompanies", companyTable.size());
+            stats.put("tableBytes", globalTable.bytes() + companyTable.bytes());
+        }
+        stats.put("allowedCount", allowedCount.get());
+        stats.put("globalBlockedCount", globalBlockedCount.get());
+        stats.put("companyBlockedCount", companyBlockedCount.get());
+        stats.put("releasedCount", releasedCount.get());
+        return stats;
+    }
+
+    private static int now() {
+        return (int) (System.currentTimeMillis() / 1000 - BASE_EPOCH_SECOND);
+    }
+
+    /** 발송 시각(createdAt)은 서버 시간대 기준 LocalDateTime */
+    private static int toTableTime(LocalDateTime time) {
+        return (int) (time.atZone(ZoneId.systemDefault()).toEpochSecond() - BASE_EPOCH_SECOND);
+    }
+
+    private static long customerKey(UUID customerId) {
+        return mix(customerId.getMostSignificantBits()) ^ customerId.getLeastSignificantBits();
+    }
+
+    private static long companyKey(long customerKey, UUID companyId) {
+        return mix(customerKey ^ mix(companyId.getMostSignificantBits() ^ companyId.getLeastSignificantBits()));
+    }
+
+    /** splitmix64 */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * long 키 -> 최근 발송 시각 slots 개 (open addressing, 선형 탐사)
+     *
+     * 시각은 기준 시각 이후 초 + 1 로 저장하며 0 은 빈 칸이다. 키 0 은 빈 자리 표시라 1 로 바꿔 저장한다.
+     * 제한 판단에는 window 안의 최근 slots 건만 있으면 되므로 더 오래된 시각은 덮어쓴다.
+     */
+    static final class RecentSendTable {
+        private final int slots;
+        private long[] keys;
+        private int[] times;
+        private int size;
+
+        RecentSendTable(int slots) {
+            this(slots, 1024);
+        }
+
+        private RecentSendTable(int slots, int capacity) {
+            this.slots = slots;
+            this.keys = new long[capacity];
+            this.times = new int[capacity * slots];
+        }
+
+        int size() {
+            return size;
+        }
+
+        long bytes() {
+            return keys.length * 8L + times.length * 4L;
+        }
+
+        int countSince(long key, int since) {
+            int index = find(key);
+            if (index < 0) {
+                return 0;
+            }
+            int count = 0;
+            for (int i = index * slots; i < (index + 1) * slots; i++) {
+                if (times[i] != 0 && times[i] - 1 >= since) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * 시각 추가. 빈 칸이나 since 이전 칸, 없으면 가장 오래된 칸에 쓴다
+         */
+        void add(long key, int time, int since) {
+            int index = findOrInsert(key);
+            int target = index * slots;
+            for (int i = index * slots; i < (index + 1) * slots; i++) {
+                if (times[i] == 0 || times[i] - 1 < since) {
+                    target = i;
+                    break;
+                }
+                if (times[i] < times[target]) {
+                    target = i;
+                }
+            }
+            times[target] = time + 1;
+        }
+
+        void removeLatest(long key) {
+            int index = find(key);
+            if (index < 0) {
+                return;
+            }
+            int latest = -1;
+            for (int i = index * slots; i < (index + 1) * slots; i++) {
+                if (times[i] != 0 && (latest < 0 || times[i] > times[latest])) {
+                    latest = i;
+                }
+            }
+            if (latest >= 0) {
+                times[latest] = 0;
+            }
+        }
+
+        /**
+         * other 의 since 이후 시각을 합친다. 같은 키에 같은 시각이 이미 있으면 그만큼은 같은 발송으로 보고 더하지 않는다
+         */
+        void merge(RecentSendTable other, int since) {
+            for (int index = 0; index < other.keys.length; index++) {
+                if (other.keys[index] == 0) {
+                    continue;
+                }
+                int base = index * other.slots;
+                for (int s = 0; s < other.slots; s++) {
+                    int time = other.times[base + s];
+                    if (time == 0 || time - 1 < since || indexOf(other.times, base, s, time) < s) {
+                        continue;
+                    }
+                    int missing = occurrences(other.times, base, other.slots, time) - occurrencesOf(other.keys[index], time);
+                    for (int i = 0; i < missing; i++) {
+                        add(other.keys[index], time - 1, since);
+                    }
+                }
+            }
+        }
+
+        private int occurrencesOf(long key, int time) {
+            int index = find(key);
+            return index < 0 ? 0 : occurrences(times, index * slots, slots, time);
+        }
+
+        private static int occurrences(int[] times, int base, int length, int time) {
+            int count = 0;
+            for (int i = base; i < base + length; i++) {
+                if (times[i] == time) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        private static int indexOf(int[] times, int base, int length, int time) {
+            for (int i = 0; i < length; i++) {
+                if (times[base + i] == time) {
+                    return i;
+                }
+            }
+            return length;
+        }
+
+        /**
+         * since 이후 시각이 하나라도 남은 키만 새 표로 옮긴다
+         */
+        RecentSendTable compact(int since) {
+            int live = 0;
+            for (int index = 0; index < keys.length; index++) {
+                if (keys[index] != 0 && hasTimeSince(index, since)) {
+                    live++;
+                }
+            }
+            RecentSendTable table = new RecentSendTable(slots, capacityFor(live));
+            for (int index = 0; index < keys.length; index++) {
+                if (keys[index] != 0 && hasTimeSince(index, since)) {
+                    int target = table.findOrInsert(keys[index]);
+                    for (int s = 0; s < slots; s++) {
+                        int time = times[index * slots + s];
+                        table.times[target * slots + s] = time != 0 && time - 1 >= since ? time : 0;
+                    }
+                }
+            }
+            return table;
+        }
+
+        private boolean hasTimeSince(int index, int since) {
+            for (int i = index * slots; i < (index + 1) * slots; i++) {
+                if (times[i] != 0 && times[i] - 1 >= since) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int find(long key) {
+            long stored = key == 0 ? 1 : key;
+            int mask = keys.length - 1;
+            for (int index = (int) mix(stored) & mask; ; index = (index + 1) & mask) {
+                if (keys[index] == stored) {
+                    return index;
+                }
+                if (keys[index] == 0) {
+                    return -1;
+                }
+            }
+        }
+
+        private int findOrInsert(long key) {
+            long stored = key == 0 ? 1 : key;
+            if ((size + 1) * 10L > keys.length * 6L) {
+                grow();
+            }
+            int mask = keys.length - 1;
+            for (int index = (int) mix(stored) & mask; ; index = (index + 1) & mask) {
+                if (keys[index] == stored) {
+                    return index;
+                }
+                if (keys[index] == 0) {
+                    keys[index] = stored;
+                    size++;
+                    return index;
+                }
+            }
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldTimes = times;
+            keys = new long[oldKeys.length * 2];
+            times = new int[keys.length * slots];
+            size = 0;
+            for (int index = 0; index < oldKeys.length; index++) {
+                if (oldKeys[index] != 0) {
+                    int target = findOrInsert(oldKeys[index]);
+                    System.arraycopy(oldTimes, index * slots, times, target * slots, slots);
+                }
+            }
+        }
+
+        private static int capacityFor(int entries) {
+            int capacity = 1024;
+            while (capacity * 6L < entries * 10L + 10) {
+                capacity <<= 1;
+            }
+            return capacity;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.demo.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 로컬 모의 발송 게이트웨이 (부하 테스트 및 개발용)
+ *
+ * 실제 게이트웨이처럼 배치를 받아 즉시 반환하고, 지연 분포에서 뽑은 시간 뒤에 결과를 callback 으로 돌려준다.
+ * - 지연: fixed(median) / uniform(min ~ p99) / lognormal(median, p99 로 분산 결정, min 이상) + 메시지당 추가 지연
+ * - 실패: successRate 를 제외한 비율을 errorWeights 가중치대로 오류 코드에 배분. 전화번호 형식이 틀리면 항상 INVALID_PHONE
+ * - 제한: maxBatchSize 를 넘는 배치는 제출 거부, 처리 중 배치가 maxInFlightBatches 를 넘으면 배치 전체가 QUOTA_EXCEEDED
+ */
+@Component
+@ConditionalOnProperty(name = "marketreach.gateway.type", havingValue = "local-stub", matchIfMissing = true)
+public class LocalStubDeliveryGateway implements DeliveryGateway {
+
+    /** 표준정규분포 99 백분위수 */
+    private static final double Z_99 = 2.326;
+
+    private final int maxBatchSize;
+    private final int maxInFlightBatches;
+    private final String distribution;
+    private final double minLatencyMs;
+    private final double medianLatencyMs;
+    private final double p99LatencyMs;
+    private final double perMessageLatencyMs;
+    private final double successRate;
+    private final String[] errorCodes;
+    private final double[] cumulativeWeights;
+
+    private final ScheduledExecutorService scheduler;
+    private final AtomicInteger inFlightBatches = new AtomicInteger();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong messageCount = new AtomicLong();
+    private final AtomicLong rejectedBatches = new AtomicLong();
+    private final AtomicLong totalLatencyMs = new AtomicLong();
+    private final AtomicLong maxLatencyMs = new AtomicLong();
+    private final Map<String, AtomicLong> errorCounts = new ConcurrentHashMap<>();
+
+    public LocalStubDeliveryGateway(@Value("${marketreach.gateway.stub.max-batch-size:100}") int maxBatchSize,
+                                    @Value("${marketreach.gateway.stub.max-in-flight-batches:50}") int maxInFlightBatches,
+                                    @Value("${marketreach.gateway.stub.latency.distribution:lognormal}") String distribution,
+                                    @Value("${marketreach.gateway.stub.latency.min-ms:20}") double minLatencyMs,
+                                    @Value("${marketreach.gateway.stub.latency.median-ms:150}") double medianLatencyMs,
+                                    @Value("${marketreach.gateway.stub.latency.p99-ms:1500}") double p99LatencyMs,
+                                    @Value("${marketreach.gateway.stub.latency.per-message-ms:0.5}") double perMessageLatencyMs,
+                                    @Value("${marketreach.gateway.stub.success-rate:0.85}") double successRate,
+                                    @Value("${marketreach.gateway.stub.error-weights:NETWORK_TIMEOUT:1,INVALID_PHONE:1,SERVICE_UNAVAILABLE:1,QUOTA_EXCEEDED:1,BLOCKED_NUMBER:1}") String errorWeights) {
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxInFlightBatches = maxInFlightBatches;
+        this.distribution = distribution.toLowerCase(Locale.ROOT);
+        if (!List.of("fixed", "uniform", "lognormal").contains(this.distribution)) {
+            throw new IllegalArgumentException("지원하지 않는 지연 분포입니다: " + distribution);
+        }
+        this.minLatencyMs = minLatencyMs;
+        this.medianLatencyMs = medianLatencyMs;
+        this.p99LatencyMs = Math.max(p99LatencyMs, medianLatencyMs);
+        this.perMessageLatencyMs = perMessageLatencyMs;
+        this.successRate = successRate;
+
+        Map<String, Double> weights = parseWeights(errorWeights);
+        this.errorCodes = weights.keySet().toArray(new String[0]);
+        this.cumulativeWeights = new double[errorCodes.length];
+        double sum = 0;
+        for (int i = 0; i < errorCodes.length; i++) {
+            sum += weights.get(errorCodes[i]);
+            cumulativeWeights[i] = sum;
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "delivery-gateway-stub-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public String getName() {
+        return "local-stub";
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    @Override
+    public void submitBatch(List<Message> messages, Consumer<List<Result>> callback) {
+        if (messages.size() > maxBatchSize) {
+            rejectedBatches.incrementAndGet();
+            throw new IllegalArgumentException("배치 크기 초과: " + messages.size() + " > " + maxBatchSize);
+        }
+        batchCount.incrementAndGet();
+        messageCount.addAndGet(messages.size());
+
+        long latency = sampleLatencyMs(messages.size());
+        totalLatencyMs.addAndGet(latency);
+        maxLatencyMs.accumulateAndGet(latency, Math::max);
+
+        boolean throttled = inFlightBatches.incrementAndGet() > maxInFlightBatches;
+        List<Result> results = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            results.add(decide(message, throttled));
+        }
+        scheduler.schedule(() -> {
+            inFlightBatches.decrementAndGet();
+            callback.accept(results);
+        }, latency, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long batches = batchCount.get();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("gateway", getName());
+        stats.put("maxBatchSize", maxBatchSize);
+        stats.put("maxInFlightBatches", maxInFlightBatches);
+        stats.put("latencyDistribution", distribution);
+        stats.put("medianLatencyMs", medianLatencyMs);
+        stats.put("p99LatencyMs", p99LatencyMs);
+        stats.put("successRate", successRate);
+        stats.put("inFlightBatches", inFlightBatches.get());
+        stats.put("batchCount", batches);
+        stats.put("messageCount", messageCount.get());
+        stats.put("rejectedBatches", rejectedBatches.get());
+        stats.put("avgBatchSize", batches > 0 ? Math.round(messageCount.get() * 100.0 / batches) / 100.0 : 0.0);
+        stats.put("avgLatencyMs", batches > 0 ? Math.round(totalLatencyMs.get() * 100.0 / batches) / 100.0 : 0.0);
+        stats.put("maxLatencyMs", maxLatencyMs.get());
+        Map<String, Long> errors = new HashMap<>();
+        errorCounts.forEach((code, count) -> errors.put(code, count.get()));
+        stats.put("errorCounts", errors);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private Result decide(Message message, boolean throttled) {
+        String errorCode = null;
+        if (throttled) {
+            errorCode = ERROR_QUOTA_EXCEEDED;
+        } else if (!isValidPhone(message.phone())) {
+            errorCode = ERROR_INVALID_PHONE;
+        } else if (ThreadLocalRandom.current().nextDouble() >= successRate && errorCodes.length > 0) {
+            errorCode = randomErrorCode();
+        }
+        if (errorCode == null) {
+            return Result.success(message.messageId());
+        }
+        errorCounts.computeIfAbsent(errorCode, code -> new AtomicLong()).incrementAndGet();
+        return Result.failure(message.messageId(), errorCode);
+    }
+
+    private String randomErrorCode() {
+        double pick = ThreadLocalRandom.current().nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return errorCodes[i];
+            }
+        }
+        return errorCodes[errorCodes.length - 1];
+    }
+
+    private long sampleLatencyMs(int batchSize) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double base = switch (distribution) {
+            case "fixed" -> medianLatencyMs;
+            case "uniform" -> minLatencyMs + random.nextDouble() * Math.max(0, p99LatencyMs - minLatencyMs);
+            default -> {
+                // median * exp(sigma * Z), sigma 는 p99 가 Z_99 지점에 오도록 결정
+                double sigma = medianLatencyMs > 0 ? Math.log(p99LatencyMs / medianLatencyMs) / Z_99 : 0;
+                yield Math.max(minLatencyMs, medianLatencyMs * Math.exp(sigma * random.nextGaussian()));
+            }
+        };
+        return Math.round(base + perMessageLatencyMs * batchSize);
+    }
+
+    private static boolean isValidPhone(String phone) {
+        if (phone == null) {
+            return false;
+        }
+        int digits = 0;
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (Character.isDigit(c)) {
+                digits++;
+            } else if (c != '-' && c != '+' && c != ' ') {
+                return false;
+            }
+        }
+        return digits >= 9 && digits <= 15;
+    }
+
+    /**
+     * "CODE:가중치,CODE:가중치" 형식 파싱
+     */
+    private static Map<String, Double> parseWeights(String value) {
+        Map<String, Double> weights = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String trimmed = part.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int colon = trimmed.lastIndexOf(':');
+            String code = colon > 0 ? trimmed.substring(0, colon).trim() : trimmed;
+            double weight = colon > 0 ? Double.parseDouble(trimmed.substring(colon + 1).trim()) : 1.0;
+            if (weight > 0) {
+                weights.put(code, weight);
+            }
+        }
+        return weights;
+    }
+}
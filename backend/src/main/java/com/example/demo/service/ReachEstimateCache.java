@@ -0,0 +1,240 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.CustomerRepository;
+import com.example.demo.util.GeoBounds;
+import com.example.demo.util.GeoGrid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 예상 도달 고객 수 캐시
+ *
+ * 중심 좌표는 coordinatePrecisionDeg, 반경은 radiusStepM 단위로 맞춘(quantize) 값을 키(슬롯)로 삼고,
+ * 값은 그 슬롯에서 마지막으로 조회된 원 그대로(맞추지 않은 중심/반경)에 대해 정확히 센 고객 수다.
+ * 요청한 원이 저장된 원과 같을 때만 적중으로 보므로 돌려주는 값은 항상 요청한 원의 정확한 수이고,
+ * 슬라이더처럼 거의 같은 원을 연달아 조회하면 새 항목을 쌓는 대신 같은 슬롯을 갈아 끼운다.
+ *
+ * maxEntries 를 넘으면 가장 오래 조회되지 않은 항목부터(LRU), ttlSeconds 가 지나면 조회 시 제거한다.
+ * 고객이 생성/수정/삭제되면 그 위치가 속한 무효화 셀(invalidationCellDeg 격자)을 덮는 항목만 지운다.
+ * 덮는 셀이 MAX_INDEXED_CELLS 를 넘는 넓은 원은 셀 목록 대신 wideKeys 에 두고, 어떤 무효화든 함께 지운다.
+ */
+@Component
+public class ReachEstimateCache {
+
+    @Autowired
+    private CustomerSpatialIndex customerSpatialIndex;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private final double coordinatePrecisionDeg;
+    private final int radiusStepM;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final GeoGrid invalidationGrid;
+
+    /** 항목 하나가 셀별 색인에 올릴 수 있는 최대 무효화 셀 수 */
+    private static final int MAX_INDEXED_CELLS = 1024;
+
+    /** entries, keysByCell, wideKeys 는 this 모니터로 보호 */
+    private final LinkedHashMap<Key, CachedReach> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<Long, Set<Key>> keysByCell = new HashMap<>();
+    private final Set<Key> wideKeys = new HashSet<>();
+
+    /** 무효화가 일어날 때마다 증가. 계산 중에 바뀌었으면 결과를 캐시에 넣지 않는다 */
+    private final AtomicLong invalidationSeq = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong hitNanos = new AtomicLong();
+    private final AtomicLong missNanos = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidatedEntries = new AtomicLong();
+
+    public ReachEstimateCache(@Value("${marketreach.reach-cache.coordinate-precision-deg:0.0005}") double coordinatePrecisionDeg,
+                              @Value("${marketreach.reach-cache.radius-step-m:50}") int radiusStepM,
+                              @Value("${marketreach.reach-cache.max-entries:10000}") int maxEntries,
+                              @Value("${marketreach.reach-cache.ttl-seconds:300}") long ttlSeconds,
+                              @Value("${marketreach.reach-cache.invalidation-cell-deg:0.05}") double invalidationCellDeg) {
+        this.coordinatePrecisionDeg = coordinatePrecisionDeg;
+        this.radiusStepM = Math.max(1, radiusStepM);
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.invalidationGrid = new GeoGrid(invalidationCellDeg);
+    }
+
+    /**
+     * 예상 도달 고객 수 (캐시에 없으면 공간 인덱스, 인덱스 적재 전이면 DB 로 센다)
+     */
+    public long getEstimatedReach(double lat, double lng, int radiusM) {
+        long started = System.nanoTime();
+        Key key = new Key(Math.round(lat / coordinatePrecisionDeg), Math.round(lng / coordinatePrecisionDeg),
+                Math.max(1, Math.round((float) radiusM / radiusStepM)));
+
+        synchronized (this) {
+            CachedReach cached = entries.get(key);
+            // 같은 슬롯의 다른 원이면 아래에서 새로 세어 교체한다
+            if (cached != null && cached.isSameCircle(lat, lng, radiusM)) {
+                if (started - cached.createdNanos < ttlNanos) {
+                    hits.incrementAndGet();
+                    hitNanos.addAndGet(System.nanoTime() - started);
+                    return cached.reach;
+                }
+                removeEntry(key);
+                expirations.incrementAndGet();
+            }
+        }
+
+        long seq = invalidationSeq.get();
+        boolean fromIndex = customerSpatialIndex.isReady();
+        long reach = fromIndex
+                ? customerSpatialIndex.countWithinRadius(lat, lng, radiusM)
+                : customerRepository.countCustomersInRadius(lat, lng, radiusM);
+
+        if (fromIndex) {
+            synchronized (this) {
+                if (invalidationSeq.get() == seq) {
+                    putEntry(key, new CachedReach(lat, lng, radiusM, reach, System.nanoTime(), coveredCells(lat, lng, radiusM)));
+                }
+            }
+        }
+        misses.incrementAndGet();
+        missNanos.addAndGet(System.nanoTime() - started);
+        return reach;
+    }
+
+    /**
+     * 좌표의 고객이 바뀌었을 때 그 위치를 덮는 캐시 항목 제거
+     */
+    public void invalidate(Double lat, Double lng) {
+        if (lat == null || lng == null) {
+            return;
+        }
+        invalidationSeq.incrementAndGet();
+        long cell = invalidationGrid.cellKey(lat, lng);
+        synchronized (this) {
+            Set<Key> keys = new HashSet<>(wideKeys);
+            Set<Key> cellKeys = keysByCell.get(cell);
+            if (cellKeys != null) {
+                keys.addAll(cellKeys);
+            }
+            for (Key key : keys) {
+                removeEntry(key);
+                invalidatedEntries.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 전체 비우기
+     */
+    public synchronized void clear() {
+        invalidationSeq.incrementAndGet();
+        entries.clear();
+        keysByCell.clear();
+        wideKeys.clear();
+    }
+
+    /**
+     * 캐시 적중률 및 응답 시간
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long requests = hitCount + missCount;
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (this) {
+            stats.put("size", entries.size());
+            stats.put("indexedCells", keysByCell.size());
+            stats.put("wideEntries", wideKeys.size());
+        }
+        stats.put("maxEntries", maxEntries);
+        stats.put("ttlSeconds", ttlNanos / 1_000_000_000L);
+        stats.put("coordinatePrecisionDeg", coordinatePrecisionDeg);
+        stats.put("radiusStepM", radiusStepM);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", requests > 0 ? Math.round(hitCount * 10000.0 / requests) / 100.0 : 0.0);
+        stats.put("avgHitMicros", hitCount > 0 ? Math.round(hitNanos.get() / 10.0 / hitCount) / 100.0 : 0.0);
+        stats.put("avgMissMicros", missCount > 0 ? Math.round(missNanos.get() / 10.0 / missCount) / 100.0 : 0.0);
+        stats.put("evictions", evictions.get());
+        stats.put("expirations", expirations.get());
+        stats.put("invalidatedEntries", invalidatedEntries.get());
+        return stats;
+    }
+
+    private void putEntry(Key key, CachedReach value) {
+        removeEntry(key);
+        entries.put(key, value);
+        if (value.cells == null) {
+            wideKeys.add(key);
+        } else {
+            for (long cell : value.cells) {
+                keysByCell.computeIfAbsent(cell, k -> new HashSet<>()).add(key);
+            }
+        }
+        Iterator<Map.Entry<Key, CachedReach>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            Map.Entry<Key, CachedReach> entry = eldest.next();
+            eldest.remove();
+            unindex(entry.getKey(), entry.getValue());
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void removeEntry(Key key) {
+        CachedReach removed = entries.remove(key);
+        if (removed != null) {
+            unindex(key, removed);
+        }
+    }
+
+    private void unindex(Key key, CachedReach value) {
+        if (value.cells == null) {
+            wideKeys.remove(key);
+            return;
+        }
+        for (long cell : value.cells) {
+            Set<Key> keys = keysByCell.get(cell);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    keysByCell.remove(cell);
+                }
+            }
+        }
+    }
+
+    /**
+     * 원을 덮는 무효화 셀 목록 (MAX_INDEXED_CELLS 를 넘으면 null)
+     */
+    private long[] coveredCells(double lat, double lng, double radiusM) {
+        double[] box = GeoBounds.boundingBox(lat, lng, radiusM);
+        long count = invalidationGrid.cellCount(box);
+        if (count > MAX_INDEXED_CELLS) {
+            return null;
+        }
+        long[] cells = new long[(int) count];
+        int[] i = new int[1];
+        invalidationGrid.forEachCell(box, (x, y, key) -> cells[i[0]++] = key);
+        return cells;
+    }
+
+    private record Key(long lat, long lng, int radiusSteps) {}
+
+    private record CachedReach(double lat, double lng, int radiusM, long reach, long createdNanos, long[] cells) {
+        boolean isSameCircle(double lat, double lng, int radiusM) {
+            return this.lat == lat && this.lng == lng && this.radiusM == radiusM;
+        }
+    }
+}
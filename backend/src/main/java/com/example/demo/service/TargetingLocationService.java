@@ -7,6 +7,7 @@ import com.example.demo.repository.TargetingLocationRepository;
 import com.example.demo.repository.CompanyRepository;
 import com.example.demo.repository.CustomerRepository;
 import com.example.demo.repository.CampaignRepository;
+import com.example.demo.util.GeoBounds;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -31,8 +32,21 @@ public class TargetingLocationService {
     @Autowired
     private CampaignRepository campaignRepository;
     
+    @Autowired
+    private CustomerSpatialIndex customerSpatialIndex;
+    
+    @Autowired
+    private ReachEstimateCache reachEstimateCache;
+    
+    @Autowired
+    private CustomerReachHistogram customerReachHistogram;
+    
+    @Autowired
+    private CustomerService customerService;
+    
     // 타겟팅 위치 생성
     public TargetingLocation createTargetingLocation(TargetingLocation targetingLocation) {
+        applyShape(targetingLocation);
         return targetingLocationRepository.save(targetingLocation);
     }
     
@@ -71,6 +85,8 @@ public class TargetingLocationService {
             targetingLocation.setCenterLng(updatedTargetingLocation.getCenterLng());
             targetingLocation.setRadiusM(updatedTargetingLocation.getRadiusM());
             targetingLocation.setMemo(updatedTargetingLocation.getMemo());
+            targetingLocation.setShapeJson(updatedTargetingLocation.getShapeJson());
+            applyShape(targetingLocation);
             return targetingLocationRepository.save(targetingLocation);
         }
         throw new RuntimeException("타겟팅 위치를 찾을 수 없습니다: " + id);
@@ -94,9 +110,62 @@ public class TargetingLocationService {
         return false;
     }
     
-    // 예상 도달 고객 수 계산
+    // 예상 도달 고객 수 계산 (요청한 원의 정확한 수, 같은 원 반복 조회는 캐시)
     public Long getEstimatedReach(Double lat, Double lng, Integer radiusM) {
-        return targetingLocationRepository.countCustomersInRadius(lat, lng, radiusM);
+        validateCircle(lat, lng, radiusM);
+        return reachEstimateCache.getEstimatedReach(lat, lng, radiusM);
+    }
+    
+    // 예상 도달 고객 수 근사치 (셀 히스토그램). 적재 전이면 요청한 원의 정확한 수를 세어 반환하고 그렇게 표시한다
+    public Map<String, Object> getApproximateReach(Double lat, Double lng, Integer radiusM) {
+        validateCircle(lat, lng, radiusM);
+        if (customerReachHistogram.isReady()) {
+            return customerReachHistogram.estimate(lat, lng, radiusM);
+        }
+        long reach = getEstimatedReach(lat, lng, radiusM);
+        Map<String, Object> result = new HashMap<>();
+        result.put("mode", "exact");
+        result.put("fallbackReason", "HISTOGRAM_NOT_READY");
+        result.put("estimate", reach);
+        result.put("lowerBound", reach);
+        result.put("upperBound", reach);
+        result.put("errorBound", 0L);
+        return result;
+    }
+    
+    // 예상 도달 고객 수 캐시 통계
+    public Map<String, Object> getReachCacheStats() {
+        return reachEstimateCache.getStats();
+    }
+    
+    // 조합 도형 안 예상 도달 고객 수 (중복 없이)
+    public long getEstimatedReachForShape(String shapeJson) {
+        return customerService.countCustomersInShape(TargetingShape.parse(shapeJson));
+    }
+    
+    // 도달 수 조회 원 검증 (반경은 지구 반 바퀴까지만 의미가 있다)
+    private void validateCircle(Double lat, Double lng, Integer radiusM) {
+        if (lat == null || lng == null || radiusM == null) {
+            throw new RuntimeException("lat, lng, radiusM 은 필수입니다.");
+        }
+        if (lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            throw new RuntimeException("좌표 범위를 벗어났습니다.");
+        }
+        if (radiusM <= 0 || radiusM > GeoBounds.MAX_DISTANCE_M) {
+            throw new RuntimeException("radiusM 은 1 이상 " + (long) GeoBounds.MAX_DISTANCE_M + " 이하여야 합니다.");
+        }
+    }
+    
+    // 조합 도형이 있으면 검증하고, 목록/지도 표시용 중심과 반경을 도형을 감싸는 원으로 채운다
+    private void applyShape(TargetingLocation targetingLocation) {
+        if (targetingLocation.getShapeJson() == null || targetingLocation.getShapeJson().isBlank()) {
+            targetingLocation.setShapeJson(null);
+            return;
+        }
+        double[] circle = TargetingShape.parse(targetingLocation.getShapeJson()).boundingCircle();
+        targetingLocation.setCenterLat(circle[0]);
+        targetingLocation.setCenterLng(circle[1]);
+        targetingLocation.setRadiusM((int) circle[2]);
     }
     
     // 반경 내 타겟팅 위치 조회
@@ -114,6 +183,35 @@ public class TargetingLocationService {
         Optional<TargetingLocation> targetingLocation = targetingLocationRepository.findById(targetingId);
         if (targetingLocation.isPresent()) {
             TargetingLocation location = targetingLocation.get();
+            if (location.getShapeJson() != null) {
+                return customerService.getCustomersInShape(TargetingShape.parse(location.getShapeJson())).stream().map(found -> {
+                    Map<String, Object> customer = new HashMap<>();
+                    customer.put("id", found.getId());
+                    customer.put("name", found.getName());
+                    customer.put("phone", found.getPhone());
+                    customer.put("lat", found.getLat());
+                    customer.put("lng", found.getLng());
+                    customer.put("distance", Math.round(GeoBounds.distanceM(location.getCenterLat(),
+                            location.getCenterLng(), found.getLat(), found.getLng()) / 10.0) / 100.0);
+                    return customer;
+                }).toList();
+            }
+            if (customerSpatialIndex.isReady()) {
+                return customerSpatialIndex.findWithinRadius(
+                    location.getCenterLat(),
+                    location.getCenterLng(),
+                    location.getRadiusM()
+                ).stream().map(hit -> {
+                    Map<String, Object> customer = new HashMap<>();
+                    customer.put("id", hit.getEntry().getId());
+                    customer.put("name", hit.getEntry().getName());
+                    customer.put("phone", hit.getEntry().getPhone());
+                    customer.put("lat", hit.getEntry().getLat());
+                    customer.put("lng", hit.getEntry().getLng());
+                    customer.put("distance", Math.round(hit.getDistanceM() / 10.0) / 100.0);
+                    return customer;
+                }).toList();
+            }
             return customerRepository.findCustomersInRadiusWithDistance(
                 location.getCenterLat(),
                 location.getCenterLng(),
@@ -0,0 +1,314 @@
+package com.example.demo.service;
+
+import com.example.demo.util.GeoBounds;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 타겟팅 도형 (원, 다각형과 그 합집합/교집합/차집합)
+ *
+ * JSON 형식:
+ * <pre>
+ * {"type": "circle", "lat": 37.49, "lng": 127.02, "radiusM": 1000}
+ * {"type": "polygon", "points": [[37.55, 126.92], [37.56, 126.93], [37.55, 126.94]]}
+ * {"type": "union" | "intersection" | "difference", "shapes": [ ... ]}
+ * </pre>
+ * difference 는 첫 번째 도형에서 나머지 도형을 뺀다.
+ *
+ * 평가 시 coveringBoxes() 의 바운딩 박스 안 고객만 후보로 꺼내 contains() 로 거르므로
+ * 비용은 도형 수 x 전체 고객 수가 아니라 후보 셀의 고객 수에 비례한다.
+ */
+public abstract class TargetingShape {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final int MAX_DEPTH = 8;
+    private static final int MAX_POINTS = 1000;
+    /** 바운딩 박스 하나가 걸칠 수 있는 최대 위도/경도 폭 (약 1,100km) */
+    static final double MAX_SPAN_DEG = 10.0;
+
+    /**
+     * 좌표가 도형 안에 있는지
+     */
+    public abstract boolean contains(double lat, double lng);
+
+    /**
+     * 도형 안의 모든 점을 덮는 바운딩 박스 목록 {minLat, maxLat, minLng, maxLng} (비어 있으면 빈 도형)
+     */
+    public abstract List<double[]> coveringBoxes();
+
+    /**
+     * 도형 전체를 감싸는 하나의 바운딩 박스 (빈 도형이면 null)
+     */
+    public double[] boundingBox() {
+        double[] result = null;
+        for (double[] box : coveringBoxes()) {
+            result = result == null ? box.clone() : new double[] {
+                    Math.min(result[0], box[0]), Math.max(result[1], box[1]),
+                    Math.min(result[2], box[2]), Math.max(result[3], box[3])};
+        }
+        return result;
+    }
+
+    /**
+     * 도형을 감싸는 원 {centerLat, centerLng, radiusM} (목록 화면 및 기존 반경 필드 표시용)
+     */
+    public double[] boundingCircle() {
+        double[] box = boundingBox();
+        if (box == null) {
+            throw new RuntimeException("비어 있는 타겟팅 도형입니다.");
+        }
+        double centerLat = (box[0] + box[1]) / 2;
+        double centerLng = (box[2] + box[3]) / 2;
+        double radius = 0;
+        for (double lat : new double[] {box[0], box[1]}) {
+            for (double lng : new double[] {box[2], box[3]}) {
+                radius = Math.max(radius, GeoBounds.distanceM(centerLat, centerLng, lat, lng));
+            }
+        }
+        return new double[] {centerLat, centerLng, Math.ceil(radius)};
+    }
+
+    /**
+     * JSON 문자열에서 도형 생성 (형식이 잘못되거나 바운딩 박스가 MAX_SPAN_DEG 보다 넓으면 RuntimeException)
+     */
+    public static TargetingShape parse(String json) {
+        JsonNode node;
+        try {
+            node = OBJECT_MAPPER.readTree(json);
+        } catch (Exception e) {
+            throw new RuntimeException("잘못된 타겟팅 도형입니다: JSON 형식 오류");
+        }
+        TargetingShape shape = fromNode(node, 0);
+        for (double[] box : shape.coveringBoxes()) {
+            if (box[1] - box[0] > MAX_SPAN_DEG || box[3] - box[2] > MAX_SPAN_DEG) {
+                throw new RuntimeException("잘못된 타겟팅 도형입니다: 도형의 위도/경도 폭은 " + MAX_SPAN_DEG + "도 이하여야 합니다.");
+            }
+        }
+        return shape;
+    }
+
+    private static TargetingShape fromNode(JsonNode node, int depth) {
+        if (node == null || !node.isObject()) {
+            throw new RuntimeException("잘못된 타겟팅 도형입니다: 도형은 JSON 객체여야 합니다.");
+        }
+        if (depth > MAX_DEPTH) {
+            throw new RuntimeException("잘못된 타겟팅 도형입니다: 중첩이 너무 깊습니다.");
+        }
+        String type = node.path("type").asText("").toLowerCase(Locale.ROOT);
+        switch (type) {
+            case "circle" -> {
+                double lat = coordinate(node.get("lat"), 90);
+                double lng = coordinate(node.get("lng"), 180);
+                JsonNode radius = node.get("radiusM");
+                if (radius == null || !radius.isNumber() || radius.asDouble() <= 0) {
+                    throw new RuntimeException("잘못된 타겟팅 도형입니다: radiusM 은 0 보다 커야 합니다.");
+                }
+                return new Circle(lat, lng, radius.asDouble());
+            }
+            case "polygon" -> {
+                JsonNode points = node.get("points");
+                if (points == null || !points.isArray() || points.size() < 3 || points.size() > MAX_POINTS) {
+                    throw new RuntimeException("잘못된 타겟팅 도형입니다: polygon 은 3~" + MAX_POINTS + "개의 [lat, lng] 점이 필요합니다.");
+                }
+                double[] lats = new double[points.size()];
+                double[] lngs = new double[points.size()];
+                for (int i = 0; i < points.size(); i++) {
+                    JsonNode point = points.get(i);
+                    if (!point.isArray() || point.size() != 2) {
+                        throw new RuntimeException("잘못된 타겟팅 도형입니다: polygon 점은 [lat, lng] 형식이어야 합니다.");
+                    }
+                    lats[i] = coordinate(point.get(0), 90);
+                    lngs[i] = coordinate(point.get(1), 180);
+                }
+                return new Polygon(lats, lngs);
+            }
+            case "union", "intersection", "difference" -> {
+                JsonNode shapes = node.get("shapes");
+                if (shapes == null || !shapes.isArray() || shapes.isEmpty()) {
+                    throw new RuntimeException("잘못된 타겟팅 도형입니다: " + type + " 에는 shapes 가 필요합니다.");
+                }
+                List<TargetingShape> children = new ArrayList<>();
+                for (JsonNode child : shapes) {
+                    children.add(fromNode(child, depth + 1));
+                }
+                return new Combination(Operation.valueOf(type.toUpperCase(Locale.ROOT)), children);
+            }
+            default -> throw new RuntimeException("잘못된 타겟팅 도형입니다: 알 수 없는 type '" + type + "'");
+        }
+    }
+
+    private static double coordinate(JsonNode value, double limit) {
+        if (value == null || !value.isNumber() || Math.abs(value.asDouble()) > limit) {
+            throw new RuntimeException("잘못된 타겟팅 도형입니다: 좌표 범위를 벗어났습니다.");
+        }
+        return value.asDouble();
+    }
+
+    /**
+     * 원 (거리는 DB 쿼리와 같은 구면 거리)
+     */
+    static final class Circle extends TargetingShape {
+        private final double lat;
+        private final double lng;
+        private final double radiusM;
+
+        Circle(double lat, double lng, double radiusM) {
+            this.lat = lat;
+            this.lng = lng;
+            this.radiusM = radiusM;
+        }
+
+        @Override
+        public boolean contains(double pointLat, double pointLng) {
+            return GeoBounds.distanceM(lat, lng, pointLat, pointLng) <= radiusM;
+        }
+
+        @Override
+        public List<double[]> coveringBoxes() {
+            return List.of(GeoBounds.boundingBox(lat, lng, radiusM));
+        }
+    }
+
+    /**
+     * 다각형 (위경도 평면에서 ray casting 으로 판정, 변과 꼭짓점 위의 점은 안으로 본다)
+     */
+    static final class Polygon extends TargetingShape {
+        private final double[] lats;
+        private final double[] lngs;
+        private final double[] box;
+
+        Polygon(double[] lats, double[] lngs) {
+            this.lats = lats;
+            this.lngs = lngs;
+            double minLat = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE, minLng = Double.MAX_VALUE, maxLng = -Double.MAX_VALUE;
+            for (int i = 0; i < lats.length; i++) {
+                minLat = Math.min(minLat, lats[i]);
+                maxLat = Math.max(maxLat, lats[i]);
+                minLng = Math.min(minLng, lngs[i]);
+                maxLng = Math.max(maxLng, lngs[i]);
+            }
+            this.box = new double[] {minLat, maxLat, minLng, maxLng};
+        }
+
+        @Override
+        public boolean contains(double lat, double lng) {
+            if (lat < box[0] || lat > box[1] || lng < box[2] || lng > box[3]) {
+                return false;
+            }
+            boolean inside = false;
+            for (int i = 0, j = lats.length - 1; i < lats.length; j = i++) {
+                if (onSegment(lat, lng, lats[j], lngs[j], lats[i], lngs[i])) {
+                    return true;
+                }
+                if ((lats[i] > lat) != (lats[j] > lat)
+                        && lng < (lngs[j] - lngs[i]) * (lat - lats[i]) / (lats[j] - lats[i]) + lngs[i]) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+
+        @Override
+        public List<double[]> coveringBoxes() {
+            return List.of(box.clone());
+        }
+
+        // ray casting 은 변 위의 점을 변의 방향에 따라 안/밖으로 다르게 세므로 따로 확인한다
+        private static boolean onSegment(double lat, double lng, double lat1, double lng1, double lat2, double lng2) {
+            if (lat < Math.min(lat1, lat2) || lat > Math.max(lat1, lat2)
+                    || lng < Math.min(lng1, lng2) || lng > Math.max(lng1, lng2)) {
+                return false;
+            }
+            double cross = (lat2 - lat1) * (lng - lng1) - (lng2 - lng1) * (lat - lat1);
+            double length = Math.abs(lat2 - lat1) + Math.abs(lng2 - lng1);
+            return Math.abs(cross) <= 1e-12 * Math.max(length, 1e-9);
+        }
+    }
+
+    enum Operation {
+        UNION, INTERSECTION, DIFFERENCE
+    }
+
+    /**
+     * 도형 조합
+     */
+    static final class Combination extends TargetingShape {
+        private final Operation operation;
+        private final List<TargetingShape> shapes;
+
+        Combination(Operation operation, List<TargetingShape> shapes) {
+            this.operation = operation;
+            this.shapes = shapes;
+        }
+
+        @Override
+        public boolean contains(double lat, double lng) {
+            switch (operation) {
+                case UNION -> {
+                    for (TargetingShape shape : shapes) {
+                        if (shape.contains(lat, lng)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+                case INTERSECTION -> {
+                    for (TargetingShape shape : shapes) {
+                        if (!shape.contains(lat, lng)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+                default -> {
+                    if (!shapes.get(0).contains(lat, lng)) {
+                        return false;
+                    }
+                    for (int i = 1; i < shapes.size(); i++) {
+                        if (shapes.get(i).contains(lat, lng)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+            }
+        }
+
+        @Override
+        public List<double[]> coveringBoxes() {
+            switch (operation) {
+                case UNION -> {
+                    List<double[]> boxes = new ArrayList<>();
+                    for (TargetingShape shape : shapes) {
+                        boxes.addAll(shape.coveringBoxes());
+                    }
+                    return boxes;
+                }
+                case INTERSECTION -> {
+                    // 모든 도형의 바운딩 박스가 겹치는 영역만 후보가 된다
+                    double[] result = null;
+                    for (TargetingShape shape : shapes) {
+                        double[] box = shape.boundingBox();
+                        if (box == null) {
+                            return List.of();
+                        }
+                        result = result == null ? box : new double[] {
+                                Math.max(result[0], box[0]), Math.min(result[1], box[1]),
+                                Math.max(result[2], box[2]), Math.min(result[3], box[3])};
+                        if (result[0] > result[1] || result[2] > result[3]) {
+                            return List.of();
+                        }
+                    }
+                    return List.of(result);
+                }
+                default -> {
+                    return shapes.get(0).coveringBoxes();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.demo.util;
+
+/**
+ * 구면 거리와 반경 바운딩 박스
+ *
+ * 거리는 DB 쿼리(CustomerRepository.DISTANCE_SQL)와 같은 구면 코사인 법칙(R = 6371000 m)으로 계산하고,
+ * 바운딩 박스는 같은 구 위에서 원을 빠짐없이 덮도록 구한다. 박스는 후보를 좁히는 용도라 조금 커도 되지만
+ * 작으면 경계의 고객이 빠지므로, 부동소수 오차를 감안해 PAD_DEG 만큼 더 넓힌다.
+ */
+public final class GeoBounds {
+
+    public static final double EARTH_RADIUS_M = 6371000.0;
+
+    /** 구 위에서 가장 먼 두 점 사이 거리 (m). 이보다 큰 반경은 지구 전체와 같다 */
+    public static final double MAX_DISTANCE_M = Math.PI * EARTH_RADIUS_M;
+
+    /** 약 1 cm */
+    private static final double PAD_DEG = 1e-7;
+
+    private GeoBounds() {
+    }
+
+    /**
+     * 두 좌표 사이 거리 (m)
+     */
+    public static double distanceM(double lat1, double lng1, double lat2, double lng2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double cosAngle = Math.cos(phi1) * Math.cos(phi2) * Math.cos(Math.toRadians(lng2) - Math.toRadians(lng1))
+                + Math.sin(phi1) * Math.sin(phi2);
+        return EARTH_RADIUS_M * Math.acos(Math.min(1.0, Math.max(-1.0, cosAngle)));
+    }
+
+    /**
+     * 반경 radiusM 인 원을 덮는 위경도 박스 {minLat, maxLat, minLng, maxLng}
+     *
+     * 위도 폭은 radiusM / R (라디안) 이고, 경도 폭은 중심 위도가 아니라 원이 가장 넓어지는 위도 기준인
+     * asin(sin(radiusM / R) / cos(lat)) 이다. 원이 극을 덮으면 경도 전체를 돌려준다.
+     * 위도는 [-90, 90], 경도는 [-180, 180] 으로 자른다.
+     */
+    public static double[] boundingBox(double lat, double lng, double radiusM) {
+        double angular = radiusM / EARTH_RADIUS_M;
+        double latDelta = Math.toDegrees(angular) + PAD_DEG;
+        double sinAngular = Math.sin(Math.min(angular, Math.PI / 2));
+        double cosLat = Math.cos(Math.toRadians(lat));
+        double minLat = Math.max(-90.0, lat - latDelta);
+        double maxLat = Math.min(90.0, lat + latDelta);
+        if (angular >= Math.PI / 2 || sinAngular >= cosLat) {
+            return new double[] {minLat, maxLat, -180.0, 180.0};
+        }
+        double lngDelta = Math.toDegrees(Math.asin(sinAngular / cosLat)) + PAD_DEG;
+        return new double[] {minLat, maxLat, Math.max(-180.0, lng - lngDelta), Math.min(180.0, lng + lngDelta)};
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.demo.util;
+
+import java.util.Set;
+
+/**
+ * 위경도 균등 격자
+ *
+ * 위도/경도를 cellSizeDeg 단위로 나눈 셀 번호 (x = 위도, y = 경도) 와,
+ * 두 번호를 long 하나로 묶은 셀 키를 다룬다. 공간 인덱스, 도달 수 캐시, 셀 히스토그램이 함께 쓴다.
+ */
+public final class GeoGrid {
+
+    private final double cellSizeDeg;
+
+    public GeoGrid(double cellSizeDeg) {
+        this.cellSizeDeg = cellSizeDeg;
+    }
+
+    public double getCellSizeDeg() {
+        return cellSizeDeg;
+    }
+
+    /**
+     * 위도 또는 경도가 속한 셀 번호
+     */
+    public long cellIndex(double degree) {
+        return (long) Math.floor(degree / cellSizeDeg);
+    }
+
+    /**
+     * 좌표가 속한 셀 키
+     */
+    public long cellKey(double lat, double lng) {
+        return pack(cellIndex(lat), cellIndex(lng));
+    }
+
+    /**
+     * 박스 {minLat, maxLat, minLng, maxLng} 가 걸친 셀 번호 범위 {minX, maxX, minY, maxY}
+     */
+    public long[] cellRange(double[] box) {
+        return new long[] {cellIndex(box[0]), cellIndex(box[1]), cellIndex(box[2]), cellIndex(box[3])};
+    }
+
+    /**
+     * 박스가 걸친 셀마다 visitor 호출
+     */
+    public void forEachCell(double[] box, CellVisitor visitor) {
+        long[] range = cellRange(box);
+        for (long x = range[0]; x <= range[1]; x++) {
+            for (long y = range[2]; y <= range[3]; y++) {
+                visitor.visit(x, y, pack(x, y));
+            }
+        }
+    }
+
+    /**
+     * 박스가 걸친 셀 수
+     */
+    public long cellCount(double[] box) {
+        long[] range = cellRange(box);
+        return (range[1] - range[0] + 1) * (range[3] - range[2] + 1);
+    }
+
+    /**
+     * 박스가 걸친 셀 중 occupied 에 들어 있는 셀마다 visitor 호출.
+     * 박스의 셀 수가 occupied 보다 많으면 박스를 도는 대신 occupied 를 훑으므로
+     * 비용은 min(박스 셀 수, 채워진 셀 수) 에 비례한다.
+     */
+    public void forEachOccupiedCell(double[] box, Set<Long> occupied, CellVisitor visitor) {
+        long[] range = cellRange(box);
+        if (cellCount(box) > occupied.size()) {
+            for (long key : occupied) {
+                long x = cellX(key);
+                long y = cellY(key);
+                if (x >= range[0] && x <= range[1] && y >= range[2] && y <= range[3]) {
+                    visitor.visit(x, y, key);
+                }
+            }
+            return;
+        }
+        for (long x = range[0]; x <= range[1]; x++) {
+            for (long y = range[2]; y <= range[3]; y++) {
+                long key = pack(x, y);
+                if (occupied.contains(key)) {
+                    visitor.visit(x, y, key);
+                }
+            }
+        }
+    }
+
+    public static long pack(long x, long y) {
+        return (x << 32) ^ (y & 0xffffffffL);
+    }
+
+    public static long cellX(long key) {
+        return key >> 32;
+    }
+
+    public static long cellY(long key) {
+        return (int) key;
+    }
+
+    @FunctionalInterface
+    public interface CellVisitor {
+        void visit(long x, long y, long key);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.demo.service;
+
+import com.example.demo.service.FrequencyCapService.RecentSendTable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecentSendTableTest {
+
+    @Test
+    void countsOnlyTimesInsideTheWindow() {
+        RecentSendTable table = new RecentSendTable(3);
+        table.add(42L, 100, 0);
+        table.add(42L, 200, 0);
+        table.add(7L, 150, 0);
+
+        assertEquals(2, table.countSince(42L, 0));
+        assertEquals(1, table.countSince(42L, 150));
+        assertEquals(1, table.countSince(7L, 0));
+        assertEquals(0, table.countSince(99L, 0));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    void fullKeyOverwritesExpiredThenOldestTime() {
+        RecentSendTable table = new RecentSendTable(2);
+        table.add(1L, 10, 0);
+        table.add(1L, 20, 0);
+        // 10 은 window 밖이라 그 칸을 쓴다
+        table.add(1L, 30, 15);
+        assertEquals(2, table.countSince(1L, 15));
+        // window 안이 가득하면 가장 오래된 20 을 덮어쓴다
+        table.add(1L, 40, 15);
+        assertEquals(2, table.countSince(1L, 15));
+        assertEquals(1, table.countSince(1L, 35));
+    }
+
+    @Test
+    void probedKeysAndZeroKeyStaySeparate() {
+        RecentSendTable table = new RecentSendTable(1);
+        // 선형 탐사로 자리를 옮긴 키와 빈 자리 표시와 같은 키 0 도 서로 섞이지 않는다
+        for (long key = 0; key < 500; key++) {
+            table.add(key * 1024, (int) key + 1, 0);
+        }
+        for (long key = 0; key < 500; key++) {
+            assertEquals(1, table.countSince(key * 1024, (int) key + 1), "key " + key);
+            assertEquals(0, table.countSince(key * 1024, (int) key + 2), "key " + key);
+        }
+        assertEquals(500, table.size());
+    }
+
+    @Test
+    void growthKeepsEveryKeyAndTime() {
+        RecentSendTable table = new RecentSendTable(2);
+        long initialBytes = table.bytes();
+        for (long key = 1; key <= 5000; key++) {
+            table.add(key, 1000, 0);
+            table.add(key, 2000, 0);
+        }
+        assertEquals(5000, table.size());
+        assertTrue(table.bytes() > initialBytes);
+        for (long key = 1; key <= 5000; key++) {
+            assertEquals(2, table.countSince(key, 0));
+        }
+    }
+
+    @Test
+    void compactDropsKeysWithoutRecentTimes() {
+        RecentSendTable table = new RecentSendTable(2);
+        for (long key = 1; key <= 3000; key++) {
+            table.add(key, key % 2 == 0 ? 500 : 50, 0);
+        }
+        table.add(1L, 600, 0);
+
+        RecentSendTable compacted = table.compact(100);
+        assertEquals(1501, compacted.size());
+        assertTrue(compacted.bytes() < table.bytes());
+        assertEquals(1, compacted.countSince(1L, 0));
+        assertEquals(0, compacted.countSince(3L, 0));
+        assertEquals(1, compacted.countSince(4L, 0));
+    }
+
+    @Test
+    void removeLatestClearsTheNewestTimeOnly() {
+        RecentSendTable table = new RecentSendTable(3);
+        table.add(5L, 10, 0);
+        table.add(5L, 30, 0);
+        table.add(5L, 20, 0);
+
+        table.removeLatest(5L);
+        assertEquals(2, table.countSince(5L, 0));
+        assertEquals(0, table.countSince(5L, 25));
+        table.removeLatest(5L);
+        table.removeLatest(5L);
+        table.removeLatest(5L);
+        assertEquals(0, table.countSince(5L, 0));
+        table.removeLatest(6L);
+        assertEquals(0, table.countSince(6L, 0));
+    }
+
+    @Test
+    void mergeAddsMissingTimesWithoutDoubleCounting() {
+        RecentSendTable rebuilt = new RecentSendTable(3);
+        rebuilt.add(1L, 100, 0);
+        RecentSendTable live = new RecentSendTable(3);
+        live.add(1L, 100, 0);
+        live.add(1L, 110, 0);
+        live.add(2L, 120, 0);
+        live.add(3L, 10, 0);
+
+        rebuilt.merge(live, 50);
+        assertEquals(2, rebuilt.countSince(1L, 0));
+        assertEquals(1, rebuilt.countSince(2L, 0));
+        assertEquals(0, rebuilt.countSince(3L, 0));
+    }
+}
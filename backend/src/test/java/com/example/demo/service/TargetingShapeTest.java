@@ -0,0 +1,174 @@
+package com.example.demo.service;
+
+import com.example.demo.util.GeoBounds;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TargetingShapeTest {
+
+    private static final String CIRCLE_A = "{\"type\": \"circle\", \"lat\": 37.50, \"lng\": 127.00, \"radiusM\": 1000}";
+    private static final String CIRCLE_B = "{\"type\": \"circle\", \"lat\": 37.50, \"lng\": 127.015, \"radiusM\": 1000}";
+    private static final String FAR_CIRCLE = "{\"type\": \"circle\", \"lat\": 37.60, \"lng\": 127.20, \"radiusM\": 500}";
+    private static final String SQUARE = "{\"type\": \"polygon\", \"points\": [[37.50, 127.00], [37.50, 127.01], [37.51, 127.01], [37.51, 127.00]]}";
+
+    @Test
+    void circleCoveringBoxMatchesGeoBounds() {
+        TargetingShape circle = TargetingShape.parse(CIRCLE_A);
+        List<double[]> boxes = circle.coveringBoxes();
+        assertEquals(1, boxes.size());
+        double[] expected = GeoBounds.boundingBox(37.50, 127.00, 1000);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(expected[i], boxes.get(0)[i]);
+        }
+    }
+
+    @Test
+    void circleContainsItsEdgeAndBoxCoversIt() {
+        TargetingShape circle = TargetingShape.parse(CIRCLE_A);
+        double[] box = circle.boundingBox();
+        for (int deg = 0; deg < 360; deg += 5) {
+            double[] p = destination(37.50, 127.00, 999.9, deg);
+            assertTrue(circle.contains(p[0], p[1]), "edge point " + deg);
+            assertTrue(inBox(box, p[0], p[1]), "edge point outside box " + deg);
+        }
+        double[] outside = destination(37.50, 127.00, 1000.5, 90);
+        assertFalse(circle.contains(outside[0], outside[1]));
+    }
+
+    @Test
+    void polygonEdgesAndVerticesAreInside() {
+        TargetingShape square = TargetingShape.parse(SQUARE);
+        assertTrue(square.contains(37.505, 127.005));
+        // 네 꼭짓점과 네 변 위의 점은 방향과 관계없이 모두 안
+        assertTrue(square.contains(37.50, 127.00));
+        assertTrue(square.contains(37.51, 127.01));
+        assertTrue(square.contains(37.50, 127.01));
+        assertTrue(square.contains(37.51, 127.00));
+        assertTrue(square.contains(37.50, 127.005));
+        assertTrue(square.contains(37.51, 127.005));
+        assertTrue(square.contains(37.505, 127.00));
+        assertTrue(square.contains(37.505, 127.01));
+        assertFalse(square.contains(37.4999, 127.005));
+        assertFalse(square.contains(37.505, 127.0101));
+    }
+
+    @Test
+    void polygonDiagonalEdgeIsInside() {
+        TargetingShape triangle = TargetingShape.parse(
+                "{\"type\": \"polygon\", \"points\": [[37.50, 127.00], [37.52, 127.02], [37.50, 127.02]]}");
+        assertTrue(triangle.contains(37.51, 127.01));
+        assertTrue(triangle.contains(37.505, 127.015));
+        assertFalse(triangle.contains(37.515, 127.005));
+    }
+
+    @Test
+    void unionContainsEitherAndCoversBoth() {
+        TargetingShape union = TargetingShape.parse("{\"type\": \"union\", \"shapes\": [" + CIRCLE_A + ", " + FAR_CIRCLE + "]}");
+        assertTrue(union.contains(37.50, 127.00));
+        assertTrue(union.contains(37.60, 127.20));
+        assertFalse(union.contains(37.55, 127.10));
+
+        List<double[]> boxes = union.coveringBoxes();
+        assertEquals(2, boxes.size());
+        assertTrue(inAny(boxes, 37.50, 127.00));
+        assertTrue(inAny(boxes, 37.60, 127.20));
+        assertFalse(inAny(boxes, 37.55, 127.10));
+    }
+
+    @Test
+    void intersectionContainsOnlyTheOverlap() {
+        TargetingShape intersection = TargetingShape.parse("{\"type\": \"intersection\", \"shapes\": [" + CIRCLE_A + ", " + CIRCLE_B + "]}");
+        assertTrue(intersection.contains(37.50, 127.0075));
+        assertFalse(intersection.contains(37.50, 127.00));
+        assertFalse(intersection.contains(37.50, 127.015));
+
+        List<double[]> boxes = intersection.coveringBoxes();
+        assertEquals(1, boxes.size());
+        double[] box = boxes.get(0);
+        double[] a = GeoBounds.boundingBox(37.50, 127.00, 1000);
+        double[] b = GeoBounds.boundingBox(37.50, 127.015, 1000);
+        assertEquals(b[2], box[2]);
+        assertEquals(a[3], box[3]);
+        for (int deg = 0; deg < 360; deg += 5) {
+            double[] p = destination(37.50, 127.0075, 300, deg);
+            if (intersection.contains(p[0], p[1])) {
+                assertTrue(inBox(box, p[0], p[1]));
+            }
+        }
+    }
+
+    @Test
+    void disjointIntersectionIsEmpty() {
+        TargetingShape intersection = TargetingShape.parse("{\"type\": \"intersection\", \"shapes\": [" + CIRCLE_A + ", " + FAR_CIRCLE + "]}");
+        assertTrue(intersection.coveringBoxes().isEmpty());
+        assertNull(intersection.boundingBox());
+        assertThrows(RuntimeException.class, intersection::boundingCircle);
+    }
+
+    @Test
+    void differenceRemovesLaterShapesAndKeepsFirstBox() {
+        TargetingShape difference = TargetingShape.parse("{\"type\": \"difference\", \"shapes\": [" + CIRCLE_A + ", " + SQUARE + "]}");
+        assertFalse(difference.contains(37.505, 127.005));
+        // 빼는 도형의 변 위 점도 빠진다
+        assertFalse(difference.contains(37.50, 127.005));
+        assertTrue(difference.contains(37.499, 127.005));
+        assertTrue(difference.contains(37.50, 126.995));
+
+        List<double[]> boxes = difference.coveringBoxes();
+        assertEquals(1, boxes.size());
+        double[] expected = GeoBounds.boundingBox(37.50, 127.00, 1000);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(expected[i], boxes.get(0)[i]);
+        }
+    }
+
+    @Test
+    void invalidShapesAreRejected() {
+        assertThrows(RuntimeException.class, () -> TargetingShape.parse("not json"));
+        assertThrows(RuntimeException.class, () -> TargetingShape.parse("{\"type\": \"circle\", \"lat\": 37.5, \"lng\": 127.0, \"radiusM\": 0}"));
+        assertThrows(RuntimeException.class, () -> TargetingShape.parse("{\"type\": \"polygon\", \"points\": [[37.5, 127.0], [37.6, 127.1]]}"));
+        assertThrows(RuntimeException.class, () -> TargetingShape.parse("{\"type\": \"union\", \"shapes\": []}"));
+    }
+
+    @Test
+    void shapesWiderThanTheSpanLimitAreRejected() {
+        assertThrows(RuntimeException.class, () -> TargetingShape.parse("{\"type\": \"circle\", \"lat\": 37.5, \"lng\": 127.0, \"radiusM\": 20000000}"));
+        assertThrows(RuntimeException.class, () -> TargetingShape.parse(
+                "{\"type\": \"polygon\", \"points\": [[-80, -170], [80, -170], [80, 170], [-80, 170]]}"));
+        assertThrows(RuntimeException.class, () -> TargetingShape.parse(
+                "{\"type\": \"union\", \"shapes\": [" + CIRCLE_A + ", {\"type\": \"circle\", \"lat\": 0, \"lng\": 0, \"radiusM\": 1000000}]}"));
+        // 멀리 떨어진 작은 도형 둘의 합집합은 박스가 따로라 허용된다
+        TargetingShape.parse("{\"type\": \"union\", \"shapes\": [" + CIRCLE_A + ", {\"type\": \"circle\", \"lat\": -33.87, \"lng\": 151.2, \"radiusM\": 1000}]}");
+    }
+
+    private static boolean inBox(double[] box, double lat, double lng) {
+        return lat >= box[0] && lat <= box[1] && lng >= box[2] && lng <= box[3];
+    }
+
+    private static boolean inAny(List<double[]> boxes, double lat, double lng) {
+        for (double[] box : boxes) {
+            if (inBox(box, lat, lng)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double[] destination(double lat, double lng, double distanceM, double bearingDeg) {
+        double angular = distanceM / GeoBounds.EARTH_RADIUS_M;
+        double bearing = Math.toRadians(bearingDeg);
+        double phi1 = Math.toRadians(lat);
+        double lambda1 = Math.toRadians(lng);
+        double phi2 = Math.asin(Math.sin(phi1) * Math.cos(angular) + Math.cos(phi1) * Math.sin(angular) * Math.cos(bearing));
+        double lambda2 = lambda1 + Math.atan2(Math.sin(bearing) * Math.sin(angular) * Math.cos(phi1),
+                Math.cos(angular) - Math.sin(phi1) * Math.sin(phi2));
+        return new double[] {Math.toDegrees(phi2), Math.toDegrees(lambda2)};
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.demo.service;
+
+import com.example.demo.service.DeliveryRateLimiter.TokenBucket;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+    private static final long T0 = 1_000 * SECOND;
+
+    @Test
+    void burstIsServedImmediatelyThenSpacedByRate() {
+        TokenBucket bucket = new TokenBucket(10, 1, T0);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(T0, bucket.reserve(T0));
+        }
+        // 11번째부터는 0.1초 간격으로 예약된다
+        assertEquals(T0 + SECOND / 10, bucket.reserve(T0));
+        assertEquals(T0 + 2 * SECOND / 10, bucket.reserve(T0));
+    }
+
+    @Test
+    void refillIsCappedAtCapacity() {
+        TokenBucket bucket = new TokenBucket(10, 1, T0);
+        for (int i = 0; i < 10; i++) {
+            bucket.reserve(T0);
+        }
+        long later = T0 + 60 * SECOND;
+        for (int i = 0; i < 10; i++) {
+            assertEquals(later, bucket.reserve(later));
+        }
+        assertEquals(later + SECOND / 10, bucket.reserve(later));
+    }
+
+    @Test
+    void disabledBucketNeverWaits() {
+        TokenBucket bucket = new TokenBucket(0, 1, T0);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(T0, bucket.reserve(T0));
+        }
+    }
+
+    @Test
+    void enablingADisabledBucketStartsFull() {
+        TokenBucket bucket = new TokenBucket(0, 1, T0);
+        bucket.reserve(T0);
+        bucket.configure(5, 1, T0 + SECOND);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(T0 + SECOND, bucket.reserve(T0 + SECOND));
+        }
+        assertEquals(T0 + SECOND + SECOND / 5, bucket.reserve(T0 + SECOND));
+    }
+
+    @Test
+    void configureKeepsTokensAndClampsToNewCapacity() {
+        TokenBucket bucket = new TokenBucket(10, 1, T0);
+        for (int i = 0; i < 4; i++) {
+            bucket.reserve(T0);
+        }
+        // 남은 6개 중 새 용량 2개만 유지
+        bucket.configure(2, 1, T0);
+        assertEquals(T0, bucket.reserve(T0));
+        assertEquals(T0, bucket.reserve(T0));
+        assertEquals(T0 + SECOND / 2, bucket.reserve(T0));
+    }
+
+    @Test
+    void configureKeepsOutstandingReservations() {
+        TokenBucket bucket = new TokenBucket(1, 1, T0);
+        bucket.reserve(T0);
+        assertEquals(T0 + SECOND, bucket.reserve(T0));
+        // 이미 예약된 미래 토큰(-1)은 유지된 채 새 속도로 채워진다
+        bucket.configure(2, 1, T0);
+        assertEquals(T0 + SECOND, bucket.reserve(T0));
+    }
+
+    @Test
+    void refundShortensTheNextWait() {
+        TokenBucket bucket = new TokenBucket(10, 1, T0);
+        for (int i = 0; i < 10; i++) {
+            bucket.reserve(T0);
+        }
+        assertEquals(T0 + SECOND / 10, bucket.reserve(T0));
+        bucket.refund();
+        assertEquals(T0 + SECOND / 10, bucket.reserve(T0));
+    }
+
+    @Test
+    void refundNeverExceedsCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 1, T0);
+        bucket.refund();
+        bucket.refund();
+        assertEquals(T0, bucket.reserve(T0));
+        assertEquals(T0, bucket.reserve(T0));
+        assertEquals(T0 + SECOND / 2, bucket.reserve(T0));
+    }
+
+    @Test
+    void tryAcquireDefersOnCompanyLimitWithoutHoldingGlobalTokens() throws Exception {
+        DeliveryRateLimiter limiter = new DeliveryRateLimiter(2, 1, 0, 1);
+        UUID slowCompany = UUID.randomUUID();
+        assertEquals(0, limiter.tryAcquire(slowCompany, null, null));
+        long deferNanos = limiter.tryAcquire(slowCompany, null, null);
+        assertTrue(deferNanos > 0 && deferNanos <= SECOND);
+
+        // 미룬 건의 전체 토큰은 돌려받았으므로 다른 회사는 기다리지 않는다
+        long started = System.nanoTime();
+        assertEquals(0, limiter.tryAcquire(UUID.randomUUID(), null, null));
+        assertTrue(System.nanoTime() - started < SECOND / 5);
+        assertEquals(1L, limiter.getStats().get("deferredCount"));
+    }
+
+    @Test
+    void interruptedAcquireReturnsEveryReservedToken() throws Exception {
+        DeliveryRateLimiter limiter = new DeliveryRateLimiter(1, 1, 1, 1);
+        TokenBucket extra = new TokenBucket(1, 1);
+        UUID companyId = UUID.randomUUID();
+        UUID campaignId = UUID.randomUUID();
+        limiter.acquire(companyId, campaignId, extra);
+
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread waiter = new Thread(() -> {
+            started.countDown();
+            try {
+                limiter.acquire(companyId, campaignId, extra);
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        waiter.start();
+        started.await();
+        while (((Number) limiter.getStats().get("waitingNow")).intValue() == 0) {
+            Thread.sleep(1);
+        }
+        waiter.interrupt();
+        waiter.join(TimeUnit.SECONDS.toMillis(5));
+        assertInstanceOf(InterruptedException.class, failure.get());
+
+        // 돌려받지 못했다면 다음 예약은 약 2초 뒤가 된다
+        long now = System.nanoTime();
+        assertTrue(extra.reserve(now) - now <= SECOND);
+    }
+}
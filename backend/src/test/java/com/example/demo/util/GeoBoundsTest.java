@@ -0,0 +1,88 @@
+package com.example.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoBoundsTest {
+
+    @Test
+    void boundingBoxContainsEveryPointOnTheCircle() {
+        double[][] cases = {{37.55, 127.0, 3000}, {37.55, 127.0, 25}, {33.0, 126.5, 50000}, {-60.0, 10.0, 200000}, {0.0, 0.0, 10}};
+        for (double[] c : cases) {
+            double[] box = GeoBounds.boundingBox(c[0], c[1], c[2]);
+            for (int deg = 0; deg < 360; deg++) {
+                double[] p = destination(c[0], c[1], c[2], deg);
+                assertTrue(GeoBounds.distanceM(c[0], c[1], p[0], p[1]) <= c[2] + 0.01);
+                assertTrue(p[0] >= box[0] && p[0] <= box[1], "lat out of box: " + deg + " " + c[0]);
+                assertTrue(p[1] >= box[2] && p[1] <= box[3], "lng out of box: " + deg + " " + c[0]);
+            }
+        }
+    }
+
+    @Test
+    void boundingBoxUsesTheSameSphereAsDistance() {
+        double[] box = GeoBounds.boundingBox(37.55, 127.0, 111_195);
+        // R = 6371000 m 구에서 위도 1도는 약 111195 m
+        assertEquals(1.0, box[1] - 37.55, 1e-4);
+    }
+
+    @Test
+    void circleCoveringAPoleSpansAllLongitudes() {
+        double[] box = GeoBounds.boundingBox(89.9, 30.0, 50_000);
+        assertEquals(-180.0, box[2]);
+        assertEquals(180.0, box[3]);
+    }
+
+    @Test
+    void hugeRadiusIsClampedToTheGlobe() {
+        double[] box = GeoBounds.boundingBox(10.0, 20.0, 1e9);
+        assertArrayEquals(new double[] {-90.0, 90.0, -180.0, 180.0}, box);
+    }
+
+    @Test
+    void occupiedCellWalkIsTheSameEitherWay() {
+        GeoGrid grid = new GeoGrid(0.01);
+        Set<Long> occupied = new HashSet<>(List.of(grid.cellKey(37.555, 127.005), grid.cellKey(37.585, 127.035), grid.cellKey(-10.0, 50.0)));
+        double[] small = {37.551, 37.559, 127.001, 127.009};
+        double[] world = {-90.0, 90.0, -180.0, 180.0};
+        assertTrue(grid.cellCount(small) <= occupied.size());
+        assertTrue(grid.cellCount(world) > occupied.size());
+
+        Set<Long> visited = new HashSet<>();
+        grid.forEachOccupiedCell(small, occupied, (x, y, key) -> visited.add(key));
+        assertEquals(Set.of(grid.cellKey(37.555, 127.005)), visited);
+        visited.clear();
+        grid.forEachOccupiedCell(world, occupied, (x, y, key) -> visited.add(key));
+        assertEquals(occupied, visited);
+    }
+
+    @Test
+    void gridPacksAndUnpacksNegativeCells() {
+        GeoGrid grid = new GeoGrid(0.01);
+        long key = grid.cellKey(-33.871, -151.207);
+        assertEquals(grid.cellIndex(-33.871), GeoGrid.cellX(key));
+        assertEquals(grid.cellIndex(-151.207), GeoGrid.cellY(key));
+        assertArrayEquals(new long[] {3755, 3756, 12700, 12701}, grid.cellRange(new double[] {37.555, 37.561, 127.001, 127.012}));
+    }
+
+    /**
+     * 중심에서 bearing 방향으로 distanceM 떨어진 점 (같은 구 기준)
+     */
+    private static double[] destination(double lat, double lng, double distanceM, double bearingDeg) {
+        double angular = distanceM / GeoBounds.EARTH_RADIUS_M;
+        double phi1 = Math.toRadians(lat);
+        double lambda1 = Math.toRadians(lng);
+        double theta = Math.toRadians(bearingDeg);
+        double phi2 = Math.asin(Math.sin(phi1) * Math.cos(angular) + Math.cos(phi1) * Math.sin(angular) * Math.cos(theta));
+        double lambda2 = lambda1 + Math.atan2(Math.sin(theta) * Math.sin(angular) * Math.cos(phi1),
+                Math.cos(angular) - Math.sin(phi1) * Math.sin(phi2));
+        return new double[] {Math.toDegrees(phi2), Math.toDegrees(lambda2)};
+    }
+}
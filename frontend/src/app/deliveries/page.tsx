@@ -15,7 +15,7 @@ import Card from '@/components/ui/Card';
 import Button from '@/components/ui/Button';
 import { useAppStore } from '@/store';
 import { deliveryApi } from '@/lib/api';
-import { Delivery } from '@/types';
+import { Delivery, DeliverySummary } from '@/types';
 
 const DeliveryCard: React.FC<{
   delivery: Delivery;
@@ -86,6 +86,9 @@ const DeliveriesPage: React.FC = () => {
   const { deliveries, setDeliveries, addNotification } = useAppStore();
   const [loading, setLoading] = useState(true);
   const [refreshing, setRefreshing] = useState(false);
+  const [summary, setSummary] = useState<DeliverySummary | null>(null);
+  const [nextCursor, setNextCursor] = useState<string | undefined>();
+  const [loadingMore, setLoadingMore] = useState(false);
 
   useEffect(() => {
     fetchDeliveries();
@@ -94,9 +97,17 @@ const DeliveriesPage: React.FC = () => {
   const fetchDeliveries = async () => {
     try {
       setLoading(true);
-      const response = await deliveryApi.getAll();
-      if (response.data.success) {
-        setDeliveries(response.data.data);
+      // 건수는 전체 기준 요약 카운터에서, 목록은 첫 페이지만 가져온다
+      const [summaryResponse, pageResponse] = await Promise.all([
+        deliveryApi.getSummary(),
+        deliveryApi.getPage()
+      ]);
+      if (summaryResponse.data.success) {
+        setSummary(summaryResponse.data.data);
+      }
+      if (pageResponse.data.success) {
+        setDeliveries(pageResponse.data.data.items);
+        setNextCursor(pageResponse.data.data.hasMore ? pageResponse.data.data.nextCursor : undefined);
       }
     } catch (error) {
       console.error('Failed to fetch deliveries:', error);
@@ -109,6 +120,26 @@ const DeliveriesPage: React.FC = () => {
     }
   };
 
+  const handleLoadMore = async () => {
+    if (!nextCursor) return;
+    try {
+      setLoadingMore(true);
+      const response = await deliveryApi.getPage(nextCursor);
+      if (response.data.success) {
+        setDeliveries([...deliveries, ...response.data.data.items]);
+        setNextCursor(response.data.data.hasMore ? response.data.data.nextCursor : undefined);
+      }
+    } catch (error) {
+      console.error('Failed to fetch more deliveries:', error);
+      addNotification({
+        type: 'error',
+        message: '발송 목록을 더 불러오는데 실패했습니다.'
+      });
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleRefresh = async () => {
     setRefreshing(true);
     await fetchDeliveries();
@@ -120,13 +151,13 @@ const DeliveriesPage: React.FC = () => {
   };
 
   const statusCounts = {
-    PENDING: deliveries.filter(d => d.status === 'PENDING').length,
-    SENT: deliveries.filter(d => d.status === 'SENT').length,
-    DELIVERED: deliveries.filter(d => d.status === 'DELIVERED').length,
-    FAILED: deliveries.filter(d => d.status === 'FAILED').length,
+    PENDING: summary?.pendingCount ?? 0,
+    SENT: summary?.sentCount ?? 0,
+    DELIVERED: summary?.successCount ?? 0,
+    FAILED: summary?.failedCount ?? 0,
   };
 
-  const totalDeliveries = deliveries.length;
+  const totalDeliveries = summary?.totalDeliveries ?? 0;
   const successRate = totalDeliveries > 0 
     ? ((statusCounts.DELIVERED / totalDeliveries) * 100).toFixed(1)
     : '0';
@@ -293,6 +324,13 @@ const DeliveriesPage: React.FC = () => {
                 <DeliveryCard delivery={delivery} />
               </motion.div>
             ))}
+            {nextCursor && (
+              <div className="text-center">
+                <Button variant="outline" onClick={handleLoadMore} loading={loadingMore}>
+                  더 보기
+                </Button>
+              </div>
+            )}
           </div>
         )}
       </div>
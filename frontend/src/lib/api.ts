@@ -1,5 +1,5 @@
 import axios from 'axios';
-import { ApiResponse, Company, Customer, TargetingLocation, Campaign, Delivery, Statistics } from '@/types';
+import { ApiResponse, Company, Customer, TargetingLocation, Campaign, Delivery, DeliveryPage, DeliverySummary, Statistics } from '@/types';
 
 const API_BASE_URL = 'http://localhost:8083/api';
 
@@ -60,6 +60,8 @@ export const campaignApi = {
 // 발송 관리 API
 export const deliveryApi = {
   getAll: () => api.get<ApiResponse<Delivery[]>>('/deliveries'),
+  getPage: (cursor?: string, size = 50) => api.get<ApiResponse<DeliveryPage>>('/deliveries/page', { params: { cursor, size } }),
+  getSummary: () => api.get<ApiResponse<DeliverySummary>>('/deliveries/summary'),
   getById: (id: number) => api.get<ApiResponse<Delivery>>(`/deliveries/${id}`),
   getByCampaign: (campaignId: number) => api.get<ApiResponse<Delivery[]>>(`/deliveries/campaign/${campaignId}`),
   create: (data: Partial<Delivery>) => api.post<ApiResponse<Delivery>>('/deliveries', data),
@@ -65,6 +65,25 @@ export interface Delivery {
   updatedAt: string;
 }
 
+// 발송 목록 페이지 타입 (cursor 기반)
+export interface DeliveryPage {
+  items: Delivery[];
+  size: number;
+  hasMore: boolean;
+  nextCursor?: string;
+}
+
+// 발송 통계 요약 타입
+export interface DeliverySummary {
+  totalDeliveries: number;
+  sentCount: number;
+  successCount: number;
+  failedCount: number;
+  pendingCount: number;
+  todayDeliveries: number;
+  successRate: number;
+}
+
 // 통계 타입
 export interface Statistics {
   totalCompanies: number;